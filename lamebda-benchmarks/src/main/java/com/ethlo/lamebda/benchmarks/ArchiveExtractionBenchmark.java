@@ -0,0 +1,97 @@
+package com.ethlo.lamebda.benchmarks;
+
+/*-
+ * #%L
+ * Lamebda Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import com.ethlo.lamebda.io.ArchiveExtractor;
+
+/**
+ * Extraction of a project archive into an empty work directory
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchiveExtractionBenchmark
+{
+    @Param({"10", "100", "1000"})
+    private int routes;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private Path rootDirectory;
+    private SyntheticProject project;
+    private Path targetDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        rootDirectory = Files.createTempDirectory("lamebda-benchmark-");
+        project = SyntheticProject.create(rootDirectory, "synthetic", routes);
+    }
+
+    @Setup(Level.Invocation)
+    public void createTargetDirectory() throws IOException
+    {
+        targetDirectory = Files.createTempDirectory(rootDirectory, "extracted-");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTargetDirectory() throws IOException
+    {
+        FileSystemUtils.deleteRecursively(targetDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        FileSystemUtils.deleteRecursively(rootDirectory);
+    }
+
+    @Benchmark
+    public Path extract() throws IOException
+    {
+        new ArchiveExtractor(parallelism).extract(project.getArchivePath(), targetDirectory, entry -> true);
+        return targetDirectory;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ethlo.lamebda.benchmarks;
+
+/*-
+ * #%L
+ * Lamebda Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import com.ethlo.lamebda.ProjectImpl;
+import com.ethlo.lamebda.lifecycle.ProjectLoadedEvent;
+
+/**
+ * Dispatch of a request to a project route: handler lookup in the handler mappings, in the order the dispatcher
+ * servlet uses them, and invocation of the handler, through the controller proxy if the controller is advised
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark
+{
+    @Param({"10", "100", "1000"})
+    private int routes;
+
+    @Param({"false", "true"})
+    private boolean dedicatedMapping;
+
+    @Param({"false", "true"})
+    private boolean proxied;
+
+    private LamebdaFixture fixture;
+    private ProjectImpl project;
+    private List<HandlerMapping> handlerMappings;
+    private String[] requestPaths;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        final MethodInterceptor passThrough = MethodInvocation::proceed;
+        fixture = new LamebdaFixture(routes, true, dedicatedMapping, proxied ? passThrough : null);
+        project = fixture.createProject();
+        fixture.getParentContext().publishEvent(new ProjectLoadedEvent(project.getProjectConfiguration(), project.getProjectContext()));
+
+        handlerMappings = fixture.getParentContext().getBeansOfType(HandlerMapping.class).values()
+                .stream()
+                .sorted(AnnotationAwareOrderComparator.INSTANCE)
+                .toList();
+        requestPaths = new String[routes];
+        for (int route = 0; route < routes; route++)
+        {
+            requestPaths[route] = fixture.requestPath(route);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        project.close();
+        fixture.close();
+    }
+
+    @Benchmark
+    public Object dispatch() throws Exception
+    {
+        // Spread the requests over all routes, so the lookup is not served from a single cached match
+        final String requestPath = requestPaths[next++ % requestPaths.length];
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", requestPath);
+        ServletRequestPathUtils.parseAndCache(request);
+        for (final HandlerMapping handlerMapping : handlerMappings)
+        {
+            final HandlerExecutionChain chain = handlerMapping.getHandler(request);
+            if (chain != null)
+            {
+                final HandlerMethod handlerMethod = (HandlerMethod) chain.getHandler();
+                return handlerMethod.getMethod().invoke(handlerMethod.getBean(), "42");
+            }
+        }
+        throw new IllegalStateException("No handler for " + requestPath);
+    }
+}
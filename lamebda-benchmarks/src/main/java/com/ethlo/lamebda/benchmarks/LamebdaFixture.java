@@ -0,0 +1,150 @@
+package com.ethlo.lamebda.benchmarks;
+
+/*-
+ * #%L
+ * Lamebda Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.ethlo.lamebda.BootstrapConfiguration;
+import com.ethlo.lamebda.LamebdaConfiguration;
+import com.ethlo.lamebda.ProjectImpl;
+import com.ethlo.lamebda.ProjectManager;
+import com.ethlo.lamebda.aop.AspectJAdvisorCache;
+import com.ethlo.lamebda.bulkhead.BulkheadRegistry;
+import com.ethlo.lamebda.lifecycle.ProjectLoadTimer;
+import com.ethlo.lamebda.mapping.RouteRegistry;
+import com.ethlo.lamebda.spring.LamebdaHandlerMapping;
+import com.ethlo.lamebda.spring.ProjectCleanupService;
+import com.ethlo.lamebda.spring.ProjectActivityInterceptor;
+import com.ethlo.lamebda.spring.ProjectSetupService;
+
+/**
+ * A parent application context with the Lamebda WebMvc services, set up the way the starter does, and a root
+ * directory with a synthetic project
+ */
+public class LamebdaFixture implements AutoCloseable
+{
+    public static final String REQUEST_PATH = "/lamebda";
+
+    private final Path rootDirectory;
+    private final SyntheticProject project;
+    private final LamebdaConfiguration configuration;
+    private final AnnotationConfigApplicationContext parentContext;
+    private final ProjectSetupService setupService;
+    private final ProjectCleanupService cleanupService;
+
+    /**
+     * @param routes            The number of routes of the synthetic project
+     * @param caches            Whether the extraction and component scan caches, and the project snapshot, are enabled
+     * @param dedicatedMapping  Whether the project routes are served from a dedicated handler mapping
+     * @param methodInterceptor An interceptor to apply to all controllers, or null to invoke them directly
+     */
+    public LamebdaFixture(final int routes, final boolean caches, final boolean dedicatedMapping, @Nullable final MethodInterceptor methodInterceptor) throws IOException
+    {
+        this.rootDirectory = Files.createTempDirectory("lamebda-benchmark-");
+        this.project = SyntheticProject.create(rootDirectory, "synthetic", routes);
+        this.configuration = LamebdaConfiguration.builder(rootDirectory)
+                .requestPath(REQUEST_PATH)
+                .directoryWatchEnabled(false)
+                .extractionCacheEnabled(caches)
+                .componentScanCacheEnabled(caches)
+                .snapshotEnabled(caches)
+                .dedicatedHandlerMappingEnabled(dedicatedMapping)
+                .endpointMetricsEnabled(false)
+                .loadHistorySize(0)
+                .classLoaderLeakDetectionEnabled(false)
+                .build();
+
+        this.parentContext = new AnnotationConfigApplicationContext();
+        final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> routeRegistry = new RouteRegistry<>();
+        final LamebdaHandlerMapping lamebdaHandlerMapping = dedicatedMapping ? new LamebdaHandlerMapping(parentContext) : null;
+        final List<MethodInterceptor> methodInterceptors = methodInterceptor != null ? List.of(methodInterceptor) : List.of();
+        final BulkheadRegistry bulkheads = new BulkheadRegistry(new SimpleMeterRegistry());
+        final ProjectActivityInterceptor projectActivity = new ProjectActivityInterceptor();
+        this.setupService = new ProjectSetupService(new AspectJAdvisorCache(parentContext), methodInterceptors, routeRegistry, lamebdaHandlerMapping, null, bulkheads, projectActivity);
+        this.cleanupService = new ProjectCleanupService(routeRegistry, lamebdaHandlerMapping, null, bulkheads, projectActivity);
+        parentContext.registerBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class, RequestMappingHandlerMapping::new);
+        if (lamebdaHandlerMapping != null)
+        {
+            parentContext.registerBean("lamebdaHandlerMapping", LamebdaHandlerMapping.class, () -> lamebdaHandlerMapping);
+        }
+        parentContext.registerBean("projectSetupService", ProjectSetupService.class, () -> setupService);
+        parentContext.registerBean("projectCleanupService", ProjectCleanupService.class, () -> cleanupService);
+        parentContext.refresh();
+    }
+
+    /**
+     * Create the project, without publishing it. The project is not served until a {@link com.ethlo.lamebda.lifecycle.ProjectLoadedEvent} is published
+     */
+    public ProjectImpl createProject()
+    {
+        final BootstrapConfiguration cfg = new BootstrapConfiguration(REQUEST_PATH, project.getProjectDirectory(), System.getProperties());
+        final Path workDir = ProjectManager.setupWorkDir(project.getProjectDirectory());
+        return new ProjectImpl(project.getAlias(), parentContext, cfg, workDir, configuration, null, new ProjectLoadTimer(project.getAlias()), null);
+    }
+
+    /**
+     * @param route The index of the route
+     * @return The full request path served by the given route
+     */
+    public String requestPath(final int route)
+    {
+        return REQUEST_PATH + "/" + project.getAlias() + SyntheticProject.requestPath(route);
+    }
+
+    public SyntheticProject getProject()
+    {
+        return project;
+    }
+
+    public AnnotationConfigApplicationContext getParentContext()
+    {
+        return parentContext;
+    }
+
+    public ProjectSetupService getSetupService()
+    {
+        return setupService;
+    }
+
+    public ProjectCleanupService getCleanupService()
+    {
+        return cleanupService;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        parentContext.close();
+        FileSystemUtils.deleteRecursively(rootDirectory);
+    }
+}
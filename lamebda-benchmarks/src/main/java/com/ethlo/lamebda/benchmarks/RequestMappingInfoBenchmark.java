@@ -0,0 +1,89 @@
+package com.ethlo.lamebda.benchmarks;
+
+/*-
+ * #%L
+ * Lamebda Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import com.ethlo.lamebda.BootstrapConfiguration;
+import com.ethlo.lamebda.ProjectConfiguration;
+import com.ethlo.lamebda.spring.RequestMappingInfoUtil;
+
+/**
+ * Computation of the mapping of a single handler method, combining the root, project, type and method level paths
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestMappingInfoBenchmark
+{
+    private ProjectConfiguration projectConfiguration;
+    private StandardEnvironment environment;
+    private Method method;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException
+    {
+        final BootstrapConfiguration bootstrapConfiguration = new BootstrapConfiguration(LamebdaFixture.REQUEST_PATH, Path.of("synthetic"), new Properties());
+        projectConfiguration = new ProjectConfiguration(bootstrapConfiguration, new Properties());
+        environment = new StandardEnvironment();
+        method = SampleController.class.getMethod("get", String.class);
+    }
+
+    @Benchmark
+    public RequestMappingInfo getMappingForMethod()
+    {
+        return RequestMappingInfoUtil.getMappingForMethod(projectConfiguration, environment, SampleController.class, method);
+    }
+
+    @RestController
+    @RequestMapping("/samples")
+    public static class SampleController
+    {
+        @GetMapping(path = "/{id}", produces = "application/json")
+        public String get(@PathVariable("id") final String id)
+        {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ethlo.lamebda.benchmarks;
+
+/*-
+ * #%L
+ * Lamebda Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ethlo.lamebda.ProjectImpl;
+import com.ethlo.lamebda.lifecycle.ProjectClosingEvent;
+import com.ethlo.lamebda.lifecycle.ProjectLoadedEvent;
+
+/**
+ * Registration of the routes of a loaded project, followed by their removal, as done on each load and close of a
+ * project
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteRegistrationBenchmark
+{
+    @Param({"10", "100", "1000"})
+    private int routes;
+
+    @Param({"false", "true"})
+    private boolean dedicatedMapping;
+
+    private LamebdaFixture fixture;
+    private ProjectImpl project;
+    private ProjectLoadedEvent loadedEvent;
+    private ProjectClosingEvent closingEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        fixture = new LamebdaFixture(routes, true, dedicatedMapping, null);
+        project = fixture.createProject();
+        loadedEvent = new ProjectLoadedEvent(project.getProjectConfiguration(), project.getProjectContext());
+        closingEvent = new ProjectClosingEvent(project.getProjectConfiguration(), project.getProjectContext());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        project.close();
+        fixture.close();
+    }
+
+    @Benchmark
+    public void registerAndUnregister()
+    {
+        fixture.getSetupService().onApplicationEvent(loadedEvent);
+        fixture.getCleanupService().onApplicationEvent(closingEvent);
+    }
+}
@@ -0,0 +1,209 @@
+package com.ethlo.lamebda.benchmarks;
+
+/*-
+ * #%L
+ * Lamebda Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.springframework.util.FileSystemUtils;
+
+import com.ethlo.lamebda.ProjectImpl;
+import com.ethlo.lamebda.ProjectManager;
+
+/**
+ * Generates a project archive with a given number of routes. The routes are spread over controllers of
+ * {@link #ROUTES_PER_CONTROLLER} routes each, and each route has a path variable, so the archive resembles a real
+ * project rather than a best case. The sources are compiled with the system Java compiler against the class path of
+ * the running JVM.
+ */
+public class SyntheticProject
+{
+    public static final int ROUTES_PER_CONTROLLER = 10;
+    public static final String BASE_PACKAGE = "com.ethlo.lamebda.synthetic";
+
+    private final String alias;
+    private final int routes;
+    private final Path projectDirectory;
+
+    private SyntheticProject(final String alias, final int routes, final Path projectDirectory)
+    {
+        this.alias = alias;
+        this.routes = routes;
+        this.projectDirectory = projectDirectory;
+    }
+
+    /**
+     * Generate a project in the given root directory
+     *
+     * @param rootDirectory The Lamebda root directory
+     * @param alias         The project alias
+     * @param routes        The number of routes of the project
+     * @return The generated project
+     */
+    public static SyntheticProject create(final Path rootDirectory, final String alias, final int routes) throws IOException
+    {
+        final Path projectDirectory = Files.createDirectories(rootDirectory.resolve(alias));
+        final Path buildDirectory = Files.createTempDirectory("lamebda-synthetic-");
+        try
+        {
+            final Path sourceDirectory = Files.createDirectories(buildDirectory.resolve("src"));
+            final Path classesDirectory = Files.createDirectories(buildDirectory.resolve("classes"));
+            final List<String> sources = new ArrayList<>();
+            for (int controller = 0; controller * ROUTES_PER_CONTROLLER < routes; controller++)
+            {
+                final Path source = sourceDirectory.resolve(controllerName(controller) + ".java");
+                Files.writeString(source, controllerSource(controller, Math.min(ROUTES_PER_CONTROLLER, routes - controller * ROUTES_PER_CONTROLLER)));
+                sources.add(source.toString());
+            }
+            compile(sources, classesDirectory);
+
+            final Path libJar = buildDirectory.resolve(alias + "-impl." + ProjectImpl.JAR_EXTENSION);
+            zip(classesDirectory, libJar);
+
+            final Path archiveDirectory = Files.createDirectories(buildDirectory.resolve("archive"));
+            Files.createDirectories(archiveDirectory.resolve(ProjectImpl.LIB_DIRECTORY));
+            Files.move(libJar, archiveDirectory.resolve(ProjectImpl.LIB_DIRECTORY).resolve(libJar.getFileName()));
+            Files.writeString(archiveDirectory.resolve(ProjectImpl.PROJECT_FILENAME), "project.base-packages=" + BASE_PACKAGE + "\n");
+            Files.writeString(archiveDirectory.resolve("version"), "1.0.0\n");
+            zip(archiveDirectory, projectDirectory.resolve(alias + "." + ProjectImpl.JAR_EXTENSION));
+        }
+        finally
+        {
+            FileSystemUtils.deleteRecursively(buildDirectory);
+        }
+        return new SyntheticProject(alias, routes, projectDirectory);
+    }
+
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    public int getRoutes()
+    {
+        return routes;
+    }
+
+    public Path getProjectDirectory()
+    {
+        return projectDirectory;
+    }
+
+    public Path getArchivePath()
+    {
+        return projectDirectory.resolve(alias + "." + ProjectImpl.JAR_EXTENSION);
+    }
+
+    /**
+     * @param route The index of the route
+     * @return A request path served by the given route, relative to the context path of the project
+     */
+    public static String requestPath(final int route)
+    {
+        return "/c" + (route / ROUTES_PER_CONTROLLER) + "/r" + (route % ROUTES_PER_CONTROLLER) + "/42";
+    }
+
+    /**
+     * Remove the work directories created when loading the project
+     */
+    public void cleanWorkDirectories() throws IOException
+    {
+        FileSystemUtils.deleteRecursively(projectDirectory.resolve(ProjectManager.WORKDIR_DIRECTORY_NAME));
+    }
+
+    private static String controllerName(final int controller)
+    {
+        return "Controller" + controller;
+    }
+
+    private static String controllerSource(final int controller, final int routes)
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(BASE_PACKAGE).append(";\n\n");
+        sb.append("import org.springframework.web.bind.annotation.*;\n\n");
+        sb.append("@RestController\n");
+        sb.append("@RequestMapping(\"/c").append(controller).append("\")\n");
+        sb.append("public class ").append(controllerName(controller)).append("\n{\n");
+        for (int route = 0; route < routes; route++)
+        {
+            sb.append("    @GetMapping(\"/r").append(route).append("/{id}\")\n");
+            sb.append("    public String r").append(route).append("(@PathVariable(\"id\") String id)\n    {\n");
+            sb.append("        return id;\n    }\n\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static void compile(final List<String> sources, final Path classesDirectory)
+    {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null)
+        {
+            throw new IllegalStateException("No Java compiler available. The benchmarks must be run on a JDK");
+        }
+
+        final List<String> args = new ArrayList<>(List.of("-nowarn", "-proc:none", "-classpath", System.getProperty("java.class.path"), "-d", classesDirectory.toString()));
+        args.addAll(sources);
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        if (compiler.run(null, null, errors, args.toArray(new String[0])) != 0)
+        {
+            throw new IllegalStateException("Unable to compile synthetic project: " + errors.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void zip(final Path directory, final Path target) throws IOException
+    {
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(target));
+             final Stream<Path> files = Files.walk(directory))
+        {
+            for (final Path file : files.sorted().toList())
+            {
+                if (file.equals(directory))
+                {
+                    continue;
+                }
+
+                final String name = directory.relativize(file).toString().replace('\\', '/');
+                if (Files.isDirectory(file))
+                {
+                    out.putNextEntry(new ZipEntry(name + "/"));
+                }
+                else
+                {
+                    out.putNextEntry(new ZipEntry(name));
+                    Files.copy(file, out);
+                }
+                out.closeEntry();
+            }
+        }
+    }
+}
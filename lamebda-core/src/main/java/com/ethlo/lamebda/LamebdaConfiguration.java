@@ -23,16 +23,20 @@ package com.ethlo.lamebda;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.validation.annotation.Validated;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 
@@ -69,7 +73,116 @@ public class LamebdaConfiguration
 
     private final Set<String> requiredProjects;
 
+    /**
+     * The number of projects to load concurrently during startup. A value of 1 loads the projects sequentially
+     */
+    private final int loadParallelism;
+
+    /**
+     * How a project is replaced when it is reloaded due to file modifications
+     */
+    private final ReloadMode reloadMode;
+
+    /**
+     * The time without file modifications in a project before it is reloaded
+     */
+    private final Duration reloadQuietPeriod;
+
+    /**
+     * The maximum time to wait for modifications of a project to settle before it is reloaded anyway
+     */
+    private final Duration reloadMaxWait;
+
+    /**
+     * Whether to keep the extracted content of project archives, so unchanged archives are not extracted again
+     */
+    private final boolean extractionCacheEnabled;
+
+    /**
+     * Whether to load classes and resources directly from the project archive instead of extracting the library jars to disk
+     */
+    private final boolean archiveClassLoadingEnabled;
+
+    /**
+     * The number of threads used to extract a project archive. Defaults to the number of available processors
+     */
+    private final int extractionParallelism;
+
+    /**
+     * Whether projects with identical sets of library jars should share a single class loader for them. Sharing is by
+     * the whole set, not per jar. Not used when archive class loading is enabled
+     */
+    private final boolean sharedLibrariesEnabled;
+
+    /**
+     * Whether to keep the components found when scanning a project archive, so unchanged archives are not scanned again
+     */
+    private final boolean componentScanCacheEnabled;
+
+    /**
+     * Whether project routes are served by a separate handler mapping that dispatches on the project path, instead of being registered in the handler mapping of the application
+     */
+    private final boolean dedicatedHandlerMappingEnabled;
+
+    /**
+     * Whether to record request metrics for each project route
+     */
+    private final boolean endpointMetricsEnabled;
+
+    /**
+     * The number of recent loads to keep the phase timings of, per project
+     */
+    private final int loadHistorySize;
+
+    /**
+     * Whether to track the class loaders of closed projects, and report the ones that are not garbage collected
+     */
+    private final boolean classLoaderLeakDetectionEnabled;
+
+    /**
+     * Whether projects are loaded on the first request to them, instead of on startup. Can be overridden per project
+     */
+    private final boolean lazyLoadingEnabled;
+
+    /**
+     * How long the first request to a lazily loaded project waits for the project to load
+     */
+    private final Duration lazyLoadTimeout;
+
+    /**
+     * How long a project can go without requests before it is closed, until the next request to it. Zero disables idle
+     * eviction. Can be overridden per project
+     */
+    private final Duration idleTimeout;
+
+    /**
+     * Whether to store what a successful load computed, so the next start can restore projects with an unchanged
+     * archive and configuration from it
+     */
+    private final boolean snapshotEnabled;
+
+    /**
+     * Whether a change to only the application properties of a project is applied to the running project, instead of
+     * loading it again. Off by default, as singletons keep the values they were created with, and refresh scoped beans
+     * are destroyed even if a request is still using them
+     */
+    private final boolean propertiesReloadEnabled;
+
+    /**
+     * Create a configuration where the settings without a parameter have their defaults. Use {@link #builder(Path)} to
+     * set the others
+     */
     public LamebdaConfiguration(final String requestPath, final Boolean enabled, final Path rootDirectory, final Boolean directoryWatchEnabled, final Boolean haltOnError, final Set<String> requiredProjects)
+    {
+        this(requestPath, enabled, rootDirectory, directoryWatchEnabled, haltOnError, requiredProjects, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Used by the binding of the configuration properties, where an unset property is null and gets its default. Use
+     * {@link #builder(Path)} otherwise
+     */
+    @ConstructorBinding
+    LamebdaConfiguration(final String requestPath, final Boolean enabled, final Path rootDirectory, final Boolean directoryWatchEnabled, final Boolean haltOnError, final Set<String> requiredProjects, final Integer loadParallelism, final ReloadMode reloadMode, final Duration reloadQuietPeriod, final Duration reloadMaxWait, final Boolean extractionCacheEnabled, final Boolean archiveClassLoadingEnabled, final Integer extractionParallelism, final Boolean sharedLibrariesEnabled, final Boolean componentScanCacheEnabled, final Boolean dedicatedHandlerMappingEnabled, final Boolean endpointMetricsEnabled, final Integer loadHistorySize, final Boolean classLoaderLeakDetectionEnabled, final Boolean lazyLoadingEnabled, final Duration lazyLoadTimeout, final Duration idleTimeout, final Boolean snapshotEnabled, final Boolean propertiesReloadEnabled)
     {
         this.requestPath = requestPath;
         this.enabled = Optional.ofNullable(enabled).orElse(true);
@@ -77,6 +190,49 @@ public class LamebdaConfiguration
         this.directoryWatchEnabled = Optional.ofNullable(directoryWatchEnabled).orElse(true);
         this.haltOnError = Optional.ofNullable(haltOnError).orElse(true);
         this.requiredProjects = requiredProjects;
+        this.loadParallelism = Optional.ofNullable(loadParallelism).orElse(1);
+        if (this.loadParallelism < 1)
+        {
+            throw new IllegalArgumentException("The load parallelism must be at least 1");
+        }
+        this.reloadMode = Optional.ofNullable(reloadMode).orElse(ReloadMode.RESTART);
+        this.reloadQuietPeriod = Optional.ofNullable(reloadQuietPeriod).orElse(Duration.ofSeconds(1));
+        this.reloadMaxWait = Optional.ofNullable(reloadMaxWait).orElse(Duration.ofSeconds(30));
+        this.extractionCacheEnabled = Optional.ofNullable(extractionCacheEnabled).orElse(false);
+        this.archiveClassLoadingEnabled = Optional.ofNullable(archiveClassLoadingEnabled).orElse(false);
+        this.extractionParallelism = Optional.ofNullable(extractionParallelism).orElse(Runtime.getRuntime().availableProcessors());
+        if (this.extractionParallelism < 1)
+        {
+            throw new IllegalArgumentException("The extraction parallelism must be at least 1");
+        }
+        this.sharedLibrariesEnabled = Optional.ofNullable(sharedLibrariesEnabled).orElse(false);
+        this.componentScanCacheEnabled = Optional.ofNullable(componentScanCacheEnabled).orElse(false);
+        this.dedicatedHandlerMappingEnabled = Optional.ofNullable(dedicatedHandlerMappingEnabled).orElse(false);
+        this.endpointMetricsEnabled = Optional.ofNullable(endpointMetricsEnabled).orElse(false);
+        this.loadHistorySize = Optional.ofNullable(loadHistorySize).orElse(10);
+        if (this.loadHistorySize < 0)
+        {
+            throw new IllegalArgumentException("The load history size cannot be negative");
+        }
+        this.classLoaderLeakDetectionEnabled = Optional.ofNullable(classLoaderLeakDetectionEnabled).orElse(false);
+        this.lazyLoadingEnabled = Optional.ofNullable(lazyLoadingEnabled).orElse(false);
+        this.lazyLoadTimeout = Optional.ofNullable(lazyLoadTimeout).orElse(Duration.ofSeconds(30));
+        this.idleTimeout = Optional.ofNullable(idleTimeout).orElse(Duration.ZERO);
+        if (this.idleTimeout.isNegative())
+        {
+            throw new IllegalArgumentException("The idle timeout cannot be negative");
+        }
+        this.snapshotEnabled = Optional.ofNullable(snapshotEnabled).orElse(false);
+        this.propertiesReloadEnabled = Optional.ofNullable(propertiesReloadEnabled).orElse(false);
+    }
+
+    /**
+     * @param rootDirectory The directory holding the projects
+     * @return A builder of a configuration with the given root directory, where all other settings have their defaults
+     */
+    public static Builder builder(final Path rootDirectory)
+    {
+        return new Builder(rootDirectory);
     }
 
     public String getRequestPath()
@@ -104,6 +260,100 @@ public class LamebdaConfiguration
         return Optional.ofNullable(requiredProjects).orElse(Set.of());
     }
 
+    public int getLoadParallelism()
+    {
+        return loadParallelism;
+    }
+
+    public ReloadMode getReloadMode()
+    {
+        return reloadMode;
+    }
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    public Duration getReloadQuietPeriod()
+    {
+        return reloadQuietPeriod;
+    }
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    public Duration getReloadMaxWait()
+    {
+        return reloadMaxWait;
+    }
+
+    public boolean isExtractionCacheEnabled()
+    {
+        return extractionCacheEnabled;
+    }
+
+    public boolean isArchiveClassLoadingEnabled()
+    {
+        return archiveClassLoadingEnabled;
+    }
+
+    public int getExtractionParallelism()
+    {
+        return extractionParallelism;
+    }
+
+    public boolean isSharedLibrariesEnabled()
+    {
+        return sharedLibrariesEnabled;
+    }
+
+    public boolean isComponentScanCacheEnabled()
+    {
+        return componentScanCacheEnabled;
+    }
+
+    public boolean isDedicatedHandlerMappingEnabled()
+    {
+        return dedicatedHandlerMappingEnabled;
+    }
+
+    public boolean isEndpointMetricsEnabled()
+    {
+        return endpointMetricsEnabled;
+    }
+
+    public int getLoadHistorySize()
+    {
+        return loadHistorySize;
+    }
+
+    public boolean isClassLoaderLeakDetectionEnabled()
+    {
+        return classLoaderLeakDetectionEnabled;
+    }
+
+    public boolean isLazyLoadingEnabled()
+    {
+        return lazyLoadingEnabled;
+    }
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    public Duration getLazyLoadTimeout()
+    {
+        return lazyLoadTimeout;
+    }
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    public Duration getIdleTimeout()
+    {
+        return idleTimeout;
+    }
+
+    public boolean isSnapshotEnabled()
+    {
+        return snapshotEnabled;
+    }
+
+    public boolean isPropertiesReloadEnabled()
+    {
+        return propertiesReloadEnabled;
+    }
+
     public String toPrettyString()
     {
         try
@@ -122,4 +372,184 @@ public class LamebdaConfiguration
     {
         return haltOnError;
     }
+
+    /**
+     * Builds a {@link LamebdaConfiguration}, where every setting that is not set has the same default as when bound
+     * from the configuration properties
+     */
+    public static class Builder
+    {
+        private final Path rootDirectory;
+        private String requestPath;
+        private Boolean enabled;
+        private Boolean directoryWatchEnabled;
+        private Boolean haltOnError;
+        private Set<String> requiredProjects;
+        private Integer loadParallelism;
+        private ReloadMode reloadMode;
+        private Duration reloadQuietPeriod;
+        private Duration reloadMaxWait;
+        private Boolean extractionCacheEnabled;
+        private Boolean archiveClassLoadingEnabled;
+        private Integer extractionParallelism;
+        private Boolean sharedLibrariesEnabled;
+        private Boolean componentScanCacheEnabled;
+        private Boolean dedicatedHandlerMappingEnabled;
+        private Boolean endpointMetricsEnabled;
+        private Integer loadHistorySize;
+        private Boolean classLoaderLeakDetectionEnabled;
+        private Boolean lazyLoadingEnabled;
+        private Duration lazyLoadTimeout;
+        private Duration idleTimeout;
+        private Boolean snapshotEnabled;
+        private Boolean propertiesReloadEnabled;
+
+        private Builder(final Path rootDirectory)
+        {
+            this.rootDirectory = rootDirectory;
+        }
+
+        public Builder requestPath(final String requestPath)
+        {
+            this.requestPath = requestPath;
+            return this;
+        }
+
+        public Builder enabled(final boolean enabled)
+        {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder directoryWatchEnabled(final boolean directoryWatchEnabled)
+        {
+            this.directoryWatchEnabled = directoryWatchEnabled;
+            return this;
+        }
+
+        public Builder haltOnError(final boolean haltOnError)
+        {
+            this.haltOnError = haltOnError;
+            return this;
+        }
+
+        public Builder requiredProjects(final Set<String> requiredProjects)
+        {
+            this.requiredProjects = requiredProjects;
+            return this;
+        }
+
+        public Builder loadParallelism(final int loadParallelism)
+        {
+            this.loadParallelism = loadParallelism;
+            return this;
+        }
+
+        public Builder reloadMode(final ReloadMode reloadMode)
+        {
+            this.reloadMode = reloadMode;
+            return this;
+        }
+
+        public Builder reloadQuietPeriod(final Duration reloadQuietPeriod)
+        {
+            this.reloadQuietPeriod = reloadQuietPeriod;
+            return this;
+        }
+
+        public Builder reloadMaxWait(final Duration reloadMaxWait)
+        {
+            this.reloadMaxWait = reloadMaxWait;
+            return this;
+        }
+
+        public Builder extractionCacheEnabled(final boolean extractionCacheEnabled)
+        {
+            this.extractionCacheEnabled = extractionCacheEnabled;
+            return this;
+        }
+
+        public Builder archiveClassLoadingEnabled(final boolean archiveClassLoadingEnabled)
+        {
+            this.archiveClassLoadingEnabled = archiveClassLoadingEnabled;
+            return this;
+        }
+
+        public Builder extractionParallelism(final int extractionParallelism)
+        {
+            this.extractionParallelism = extractionParallelism;
+            return this;
+        }
+
+        public Builder sharedLibrariesEnabled(final boolean sharedLibrariesEnabled)
+        {
+            this.sharedLibrariesEnabled = sharedLibrariesEnabled;
+            return this;
+        }
+
+        public Builder componentScanCacheEnabled(final boolean componentScanCacheEnabled)
+        {
+            this.componentScanCacheEnabled = componentScanCacheEnabled;
+            return this;
+        }
+
+        public Builder dedicatedHandlerMappingEnabled(final boolean dedicatedHandlerMappingEnabled)
+        {
+            this.dedicatedHandlerMappingEnabled = dedicatedHandlerMappingEnabled;
+            return this;
+        }
+
+        public Builder endpointMetricsEnabled(final boolean endpointMetricsEnabled)
+        {
+            this.endpointMetricsEnabled = endpointMetricsEnabled;
+            return this;
+        }
+
+        public Builder loadHistorySize(final int loadHistorySize)
+        {
+            this.loadHistorySize = loadHistorySize;
+            return this;
+        }
+
+        public Builder classLoaderLeakDetectionEnabled(final boolean classLoaderLeakDetectionEnabled)
+        {
+            this.classLoaderLeakDetectionEnabled = classLoaderLeakDetectionEnabled;
+            return this;
+        }
+
+        public Builder lazyLoadingEnabled(final boolean lazyLoadingEnabled)
+        {
+            this.lazyLoadingEnabled = lazyLoadingEnabled;
+            return this;
+        }
+
+        public Builder lazyLoadTimeout(final Duration lazyLoadTimeout)
+        {
+            this.lazyLoadTimeout = lazyLoadTimeout;
+            return this;
+        }
+
+        public Builder idleTimeout(final Duration idleTimeout)
+        {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder snapshotEnabled(final boolean snapshotEnabled)
+        {
+            this.snapshotEnabled = snapshotEnabled;
+            return this;
+        }
+
+        public Builder propertiesReloadEnabled(final boolean propertiesReloadEnabled)
+        {
+            this.propertiesReloadEnabled = propertiesReloadEnabled;
+            return this;
+        }
+
+        public LamebdaConfiguration build()
+        {
+            return new LamebdaConfiguration(requestPath, enabled, rootDirectory, directoryWatchEnabled, haltOnError, requiredProjects, loadParallelism, reloadMode, reloadQuietPeriod, reloadMaxWait, extractionCacheEnabled, archiveClassLoadingEnabled, extractionParallelism, sharedLibrariesEnabled, componentScanCacheEnabled, dedicatedHandlerMappingEnabled, endpointMetricsEnabled, loadHistorySize, classLoaderLeakDetectionEnabled, lazyLoadingEnabled, lazyLoadTimeout, idleTimeout, snapshotEnabled, propertiesReloadEnabled);
+        }
+    }
 }
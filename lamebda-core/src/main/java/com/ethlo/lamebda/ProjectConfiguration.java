@@ -21,6 +21,7 @@ package com.ethlo.lamebda;
  */
 
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.net.URI;
@@ -33,7 +34,10 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -46,6 +50,12 @@ public class ProjectConfiguration
     private final String rootContextPath;
     private final ProjectInfo projectInfo;
     private final Set<URI> classpath = new LinkedHashSet<>();
+    private final int maxConcurrentRequests;
+    private final long maxRequestWaitMillis;
+    private final int taskExecutorMaxConcurrency;
+    private final long taskExecutorTerminationTimeoutMillis;
+    private final Boolean lazy;
+    private final Long idleTimeoutMillis;
     private String contextPath;
 
     public ProjectConfiguration(final BootstrapConfiguration bootstrapConfiguration, final Properties properties)
@@ -62,13 +72,75 @@ public class ProjectConfiguration
 
         final boolean useProjectNameUrlPrefix = Boolean.parseBoolean(properties.getProperty("project.url-prefix-enabled", "true"));
         this.setContextPath(Optional.ofNullable(properties.getProperty("project.context-path")).orElse(useProjectNameUrlPrefix ? id : ""));
+
+        this.maxConcurrentRequests = Integer.parseInt(properties.getProperty("project.max-concurrent-requests", "0"));
+        this.maxRequestWaitMillis = Long.parseLong(properties.getProperty("project.max-request-wait-ms", "0"));
+        if (maxConcurrentRequests < 0 || maxRequestWaitMillis < 0)
+        {
+            throw new IllegalArgumentException("project.max-concurrent-requests and project.max-request-wait-ms cannot be negative");
+        }
+
+        this.taskExecutorMaxConcurrency = Integer.parseInt(properties.getProperty("project.task-executor.max-concurrency", "0"));
+        this.taskExecutorTerminationTimeoutMillis = Long.parseLong(properties.getProperty("project.task-executor.termination-timeout-ms", "10000"));
+        if (taskExecutorMaxConcurrency < 0 || taskExecutorTerminationTimeoutMillis < 0)
+        {
+            throw new IllegalArgumentException("project.task-executor.max-concurrency and project.task-executor.termination-timeout-ms cannot be negative");
+        }
+
+        this.lazy = Optional.ofNullable(properties.getProperty("project.lazy")).map(Boolean::parseBoolean).orElse(null);
+        this.idleTimeoutMillis = Optional.ofNullable(properties.getProperty("project.idle-timeout-ms")).map(Long::parseLong).orElse(null);
+        if (idleTimeoutMillis != null && idleTimeoutMillis < 0)
+        {
+            throw new IllegalArgumentException("project.idle-timeout-ms cannot be negative");
+        }
     }
 
     public static ProjectConfiguration load(final BootstrapConfiguration bootstrapConfiguration, final Path workDir)
     {
         final Path path = bootstrapConfiguration.getPath();
         final Path[] paths = Stream.of(path.resolve(ProjectImpl.PROJECT_FILENAME), workDir.resolve(ProjectImpl.PROJECT_FILENAME)).filter(Files::exists).toArray(Path[]::new);
-        final Properties properties = merge(bootstrapConfiguration.getEnvProperties(), paths);
+        // Merged into a copy, so the properties of one project do not apply to the projects loaded after it
+        final Properties properties = new Properties();
+        properties.putAll(bootstrapConfiguration.getEnvProperties());
+        merge(properties, paths);
+        return new ProjectConfiguration(bootstrapConfiguration, properties);
+    }
+
+    /**
+     * Load the configuration of a project without extracting the project archive, by reading the project properties
+     * directly from the archive
+     *
+     * @param bootstrapConfiguration The bootstrap configuration of the project
+     * @param archivePath            The project archive
+     * @return The project configuration
+     */
+    public static ProjectConfiguration loadFromArchive(final BootstrapConfiguration bootstrapConfiguration, final Path archivePath)
+    {
+        final Path path = bootstrapConfiguration.getPath();
+        final Properties properties = new Properties();
+        properties.putAll(bootstrapConfiguration.getEnvProperties());
+        merge(properties, Stream.of(path.resolve(ProjectImpl.PROJECT_FILENAME)).filter(Files::exists).toArray(Path[]::new));
+
+        if (Files.exists(archivePath))
+        {
+            try (final ZipFile zipFile = new ZipFile(archivePath.toFile()))
+            {
+                final ZipEntry entry = zipFile.getEntry(ProjectImpl.PROJECT_FILENAME);
+                if (entry != null)
+                {
+                    try (final Reader reader = new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8))
+                    {
+                        final Properties archived = new Properties();
+                        archived.load(reader);
+                        properties.putAll(archived);
+                    }
+                }
+            }
+            catch (IOException exc)
+            {
+                throw new UncheckedIOException(exc);
+            }
+        }
         return new ProjectConfiguration(bootstrapConfiguration, properties);
     }
 
@@ -120,6 +192,57 @@ public class ProjectConfiguration
         return classpath;
     }
 
+    /**
+     * @return The maximum number of requests the project handles concurrently, or 0 if unlimited
+     */
+    public int getMaxConcurrentRequests()
+    {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * @return The time a request may wait for another request to complete when the project is at its concurrency limit
+     */
+    public long getMaxRequestWaitMillis()
+    {
+        return maxRequestWaitMillis;
+    }
+
+    /**
+     * @return The maximum number of tasks the task executor of the project runs at the same time, or 0 for the default
+     */
+    public int getTaskExecutorMaxConcurrency()
+    {
+        return taskExecutorMaxConcurrency;
+    }
+
+    /**
+     * @return How long closing the project waits for the running tasks of its task executor
+     */
+    public long getTaskExecutorTerminationTimeoutMillis()
+    {
+        return taskExecutorTerminationTimeoutMillis;
+    }
+
+    /**
+     * @return Whether the project is loaded on the first request to it, or null to use the Lamebda configuration
+     */
+    @Nullable
+    public Boolean getLazy()
+    {
+        return lazy;
+    }
+
+    /**
+     * @return How long the project can go without requests before it is closed, or null to use the Lamebda
+     * configuration. Zero disables idle eviction of the project
+     */
+    @Nullable
+    public Long getIdleTimeoutMillis()
+    {
+        return idleTimeoutMillis;
+    }
+
     public String toPrettyString()
     {
         try
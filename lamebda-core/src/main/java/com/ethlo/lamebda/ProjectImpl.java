@@ -1,10 +1,9 @@
 package com.ethlo.lamebda;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UncheckedIOException;
@@ -17,7 +16,9 @@ import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -25,28 +26,70 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBean;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBindingPostProcessor;
+import org.springframework.boot.context.properties.bind.BindHandler;
+import org.springframework.boot.context.properties.bind.BindMethod;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.handler.IgnoreErrorsBindHandler;
+import org.springframework.boot.context.properties.bind.handler.IgnoreTopLevelConverterNotFoundBindHandler;
+import org.springframework.boot.context.properties.bind.handler.NoUnboundElementsBindHandler;
+import org.springframework.boot.context.properties.source.UnboundElementsSourceFilter;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertySource;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
+import com.ethlo.lamebda.aot.AotDescriptor;
+import com.ethlo.lamebda.cache.ClasspathDigest;
+import com.ethlo.lamebda.cache.ComponentScanCache;
+import com.ethlo.lamebda.cache.ExtractionCache;
+import com.ethlo.lamebda.cache.ProjectSnapshot;
+import com.ethlo.lamebda.cache.ProjectSnapshotStore;
+import com.ethlo.lamebda.io.ArchiveExtractor;
+import com.ethlo.lamebda.lifecycle.LoadPhase;
 import com.ethlo.lamebda.lifecycle.ProjectClosingEvent;
-import com.ethlo.lamebda.lifecycle.ProjectLoadedEvent;
+import com.ethlo.lamebda.lifecycle.ProjectLoadTimer;
+import com.ethlo.lamebda.loader.ArchiveClassLoader;
+import com.ethlo.lamebda.loader.ArchiveResourcePatternResolver;
+import com.ethlo.lamebda.loader.ClassLoaderLeakDetector;
+import com.ethlo.lamebda.loader.ProjectClassLoader;
+import com.ethlo.lamebda.loader.SharedLibraries;
+import com.ethlo.lamebda.mapping.PlaceholderRoutes;
+import com.ethlo.lamebda.refresh.RefreshableScope;
+import com.ethlo.lamebda.task.ProjectTaskExecutor;
 import com.ethlo.lamebda.util.IoUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /*-
  * #%L
@@ -75,6 +118,10 @@ public class ProjectImpl implements Project
     public static final String JAR_EXTENSION = "jar";
     public static final String PROPERTIES_EXTENSION = "properties";
     public static final String LIB_DIRECTORY = "lib";
+    private static final String ARCHIVE_CACHE_DIRECTORY = "archives";
+    private static final String COMPONENT_CACHE_DIRECTORY = "components";
+    private static final String SNAPSHOT_CACHE_DIRECTORY = "snapshot";
+    private static final String ARCHIVE_LINK_FILENAME = ".archive.jar";
     private static final Logger logger = LoggerFactory.getLogger(ProjectImpl.class);
     private final String alias;
     private final BootstrapConfiguration bootstrapConfiguration;
@@ -82,16 +129,31 @@ public class ProjectImpl implements Project
     private final URLClassLoader classLoader;
     private final Path workDir;
     private final Path projectPath;
+    private final Path archivePath;
     private final ProjectConfiguration projectConfiguration;
+    private final LamebdaConfiguration lamebdaConfiguration;
+    private final SharedLibraries sharedLibraries;
+    private SharedLibraries.Lease sharedLibrariesLease;
+    private ClassLoaderLeakDetector.Generation classLoaderGeneration;
+    private String archiveDigest;
+    private String classpathDigest;
     private AnnotationConfigApplicationContext projectCtx;
+    private ProjectTaskExecutor taskExecutor;
+    private ProjectSnapshot snapshot;
+    private PlaceholderRoutes placeholderRoutes;
+    private RefreshableScope refreshScope;
+    private PropertySource<Properties> propertySource;
 
-    public ProjectImpl(final String alias, ApplicationContext parentContext, BootstrapConfiguration bootstrapConfiguration, final Path workDir)
+    public ProjectImpl(final String alias, ApplicationContext parentContext, BootstrapConfiguration bootstrapConfiguration, final Path workDir, final LamebdaConfiguration lamebdaConfiguration, @Nullable final SharedLibraries sharedLibraries, final ProjectLoadTimer loadTimer, @Nullable final ClassLoaderLeakDetector leakDetector)
     {
         this.alias = alias;
         this.bootstrapConfiguration = Objects.requireNonNull(bootstrapConfiguration);
         this.parentContext = Objects.requireNonNull(parentContext);
         this.projectPath = bootstrapConfiguration.getPath();
         this.workDir = workDir;
+        this.lamebdaConfiguration = Objects.requireNonNull(lamebdaConfiguration);
+        this.sharedLibraries = sharedLibraries;
+        this.archivePath = projectPath.resolve(projectPath.getFileName() + "." + JAR_EXTENSION);
 
         final Path projectPath = bootstrapConfiguration.getPath();
         if (!Files.exists(projectPath))
@@ -99,24 +161,156 @@ public class ProjectImpl implements Project
             throw new UncheckedIOException(new FileNotFoundException("Cannot use " + projectPath.toAbsolutePath() + " as project directory as it does not exist"));
         }
 
-        decompressArchive();
+        loadTimer.setArchiveSize(archivePath.toFile().length());
+        loadTimer.time(LoadPhase.EXTRACT, this::decompressArchive);
 
-        this.projectConfiguration = ProjectConfiguration.load(bootstrapConfiguration, workDir);
-
-        readVersionFile(projectPath);
-        readVersionFile(workDir);
+        this.projectConfiguration = loadTimer.time(LoadPhase.CONFIGURATION, () ->
+        {
+            final ProjectConfiguration configuration = ProjectConfiguration.load(bootstrapConfiguration, workDir);
+            readVersionFile(configuration, projectPath);
+            readVersionFile(configuration, workDir);
+            return configuration;
+        });
+        loadTimer.setVersion(projectConfiguration.getProjectInfo().getVersion());
 
         logger.info("ProjectConfiguration: {}", projectConfiguration.toPrettyString());
 
-        final URL[] extraUrls = getExtraClasspathUrls();
-        this.classLoader = new URLClassLoader(extraUrls, parentContext.getClassLoader());
+        if (lamebdaConfiguration.isSnapshotEnabled())
+        {
+            // Before the libraries of the work directory are added to the class path of the configuration
+            loadTimer.time(LoadPhase.SNAPSHOT, this::restoreSnapshot);
+        }
+
+        this.classLoader = loadTimer.time(LoadPhase.CLASS_LOADER, () -> createClassLoader(getExtraClasspathUrls()));
+        if (leakDetector != null)
+        {
+            this.classLoaderGeneration = leakDetector.register(alias, classLoader);
+        }
+
+        try
+        {
+            initialize(loadTimer);
+        }
+        catch (RuntimeException exc)
+        {
+            closeTaskExecutor();
+            closeClassLoader();
+            throw exc;
+        }
+    }
+
+    private URLClassLoader createClassLoader(final URL[] extraUrls)
+    {
+        if (!lamebdaConfiguration.isArchiveClassLoadingEnabled())
+        {
+            return sharedLibraries != null ? createSharingClassLoader(extraUrls) : createProjectClassLoader(extraUrls, parentContext.getClassLoader());
+        }
+
+        try
+        {
+            return new ArchiveClassLoader(alias, linkArchive(), LIB_DIRECTORY, extraUrls, parentContext.getClassLoader());
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Link the archive into the work directory, so replacing or deleting the deployed archive does not affect the
+     * archive that is loaded. The archive is only copied if the file system does not support hard links.
+     */
+    private Path linkArchive() throws IOException
+    {
+        final Path archiveLink = workDir.resolve(ARCHIVE_LINK_FILENAME);
+        try
+        {
+            Files.createLink(archiveLink, archivePath);
+            logger.debug("Loading classes directly from project archive {}", archivePath);
+        }
+        catch (UnsupportedOperationException | IOException exc)
+        {
+            Files.copy(archivePath, archiveLink, StandardCopyOption.REPLACE_EXISTING);
+            logger.debug("Loading classes directly from a copy of project archive {}", archivePath);
+        }
+        return archiveLink;
+    }
+
+    private URLClassLoader createProjectClassLoader(final URL[] urls, final ClassLoader parent)
+    {
+        try
+        {
+            return new ProjectClassLoader(alias, urls, parent);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private URLClassLoader createSharingClassLoader(final URL[] extraUrls)
+    {
+        final List<Path> libraries = findSharedLibraries();
+        if (libraries.isEmpty())
+        {
+            return createProjectClassLoader(extraUrls, parentContext.getClassLoader());
+        }
+
+        try
+        {
+            this.sharedLibrariesLease = sharedLibraries.acquire(libraries);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        final Set<String> sharedUrls = libraries.stream().map(p -> IoUtil.toURL(p).toString()).collect(Collectors.toSet());
+        final URL[] projectUrls = Arrays.stream(extraUrls).filter(url -> !sharedUrls.contains(url.toString())).toArray(URL[]::new);
+        logger.debug("Using shared class loader for {} of the project libraries", libraries.size());
+        try
+        {
+            return createProjectClassLoader(projectUrls, sharedLibrariesLease.getClassLoader());
+        }
+        catch (RuntimeException exc)
+        {
+            sharedLibrariesLease.close();
+            throw exc;
+        }
+    }
+
+    /**
+     * Library jars are shared between projects if they do not contain any classes in the base packages of the project
+     */
+    private List<Path> findSharedLibraries()
+    {
+        final Set<String> basePackagePaths = projectConfiguration.getProjectInfo().getBasePackages().stream().map(p -> p.replace('.', '/') + "/").collect(Collectors.toSet());
+        if (basePackagePaths.isEmpty())
+        {
+            return Collections.emptyList();
+        }
 
-        initialize();
+        return getLibUrls(workDir.resolve(LIB_DIRECTORY)).stream().map(Path::of).filter(jar ->
+        {
+            try (final ZipFile zipFile = new ZipFile(jar.toFile()))
+            {
+                return zipFile.stream().noneMatch(ze -> basePackagePaths.stream().anyMatch(ze.getName()::startsWith));
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }).sorted().toList();
     }
 
     private URL[] getExtraClasspathUrls()
     {
         final Set<URI> allExtraLibs = projectConfiguration.getClasspath();
+        if (lamebdaConfiguration.isComponentScanCacheEnabled() || lamebdaConfiguration.isSnapshotEnabled())
+        {
+            // Before the libraries of the work directory, which the digest of the archive covers, are added
+            getOrComputeClasspathDigest();
+        }
         findLibraries(workDir, allExtraLibs);
 
         return allExtraLibs.stream().map(spec ->
@@ -132,7 +326,7 @@ public class ProjectImpl implements Project
         }).toList().toArray(new URL[0]);
     }
 
-    private void readVersionFile(final Path path)
+    private static void readVersionFile(final ProjectConfiguration projectConfiguration, final Path path)
     {
         final Optional<String> optVersion = IoUtil.toString(path.resolve("version"));
         optVersion.ifPresent(versionStr -> projectConfiguration.getProjectInfo().setVersion(versionStr.replaceAll("^[\r\n]+|[\r\n]+$", "")));
@@ -140,11 +334,30 @@ public class ProjectImpl implements Project
 
     private void decompressArchive()
     {
-        final Path archivePath = projectPath.resolve(projectPath.getFileName() + "." + JAR_EXTENSION);
-        logger.debug("Decompressing project archive {}", archivePath);
         try
         {
-            unzipDirectory(archivePath, workDir);
+            if (lamebdaConfiguration.isArchiveClassLoadingEnabled())
+            {
+                // Only the project metadata in the root of the archive is needed on disk
+                logger.debug("Decompressing project metadata from archive {}", archivePath);
+                unzipDirectory(archivePath, workDir, ze -> ze.getName().indexOf('/') == -1);
+            }
+            else if (lamebdaConfiguration.isExtractionCacheEnabled())
+            {
+                this.archiveDigest = IoUtil.sha256(archivePath);
+                final ExtractionCache cache = new ExtractionCache(getCacheDirectory(ARCHIVE_CACHE_DIRECTORY));
+                final Path extracted = cache.get(archiveDigest, target ->
+                {
+                    logger.debug("Decompressing project archive {} with digest {}", archivePath, archiveDigest);
+                    unzipDirectory(archivePath, target, ze -> true);
+                });
+                cache.copy(extracted, workDir);
+            }
+            else
+            {
+                logger.debug("Decompressing project archive {}", archivePath);
+                unzipDirectory(archivePath, workDir, ze -> true);
+            }
         }
         catch (IOException e)
         {
@@ -169,27 +382,9 @@ public class ProjectImpl implements Project
         }
     }
 
-    private void unzipDirectory(final Path archivePath, final Path targetDir) throws IOException
-    {
-        try (final ZipInputStream zis = new ZipInputStream(new BufferedInputStream(new FileInputStream(archivePath.toFile()))))
-        {
-            ZipEntry ze;
-            while ((ze = zis.getNextEntry()) != null)
-            {
-                if (!ze.isDirectory())
-                {
-                    doWrite(targetDir, zis, ze);
-                }
-            }
-        }
-    }
-
-    private void doWrite(final Path tmpWorkDir, final ZipInputStream zis, final ZipEntry ze) throws IOException
+    private void unzipDirectory(final Path archivePath, final Path targetDir, final Predicate<ZipEntry> filter) throws IOException
     {
-        final Path inTempTarget = tmpWorkDir.resolve(ze.getName());
-        Files.createDirectories(inTempTarget.getParent());
-        logger.debug("Unpacking {} to {}", ze.getName(), inTempTarget);
-        Files.copy(zis, inTempTarget, StandardCopyOption.REPLACE_EXISTING);
+        new ArchiveExtractor(lamebdaConfiguration.getExtractionParallelism()).extract(archivePath, targetDir, filter);
     }
 
     private List<URI> getLibUrls(Path path)
@@ -210,22 +405,317 @@ public class ProjectImpl implements Project
         }
     }
 
-    private void initialize()
+    private void initialize(final ProjectLoadTimer loadTimer)
     {
-        setupSpringChildContext();
-        createProjectConfigBean();
-        findBeans();
+        loadTimer.time(LoadPhase.BEAN_DEFINITIONS, () ->
+        {
+            setupSpringChildContext();
+            createProjectConfigBean();
+            createTaskExecutorBean();
+            findBeans();
+        });
+        loadTimer.time(LoadPhase.REFRESH, projectCtx::refresh);
+        loadTimer.setClassCount(getDefinedClassCount());
+        loadTimer.setBeanCount(projectCtx.getBeanDefinitionCount());
+    }
+
+    private int getDefinedClassCount()
+    {
+        if (classLoader instanceof ProjectClassLoader projectClassLoader)
+        {
+            return projectClassLoader.getDefinedClassCount();
+        }
+        else if (classLoader instanceof ArchiveClassLoader archiveClassLoader)
+        {
+            return archiveClassLoader.getDefinedClassCount();
+        }
+        return -1;
+    }
+
+    private Path getCacheDirectory(final String name)
+    {
+        return projectPath.resolve(ProjectManager.WORKDIR_DIRECTORY_NAME).resolve(ProjectManager.CACHE_DIRECTORY_NAME).resolve(name);
+    }
+
+    private void restoreSnapshot()
+    {
+        final JsonNode configuration;
+        try
+        {
+            configuration = new ObjectMapper().readTree(projectConfiguration.toPrettyString());
+        }
+        catch (JsonProcessingException exc)
+        {
+            throw new UncheckedIOException(exc);
+        }
 
-        parentContext.publishEvent(new ProjectLoadedEvent(projectConfiguration, projectCtx));
+        final String digest = getOrComputeArchiveDigest();
+        final String externalDigest = getOrComputeClasspathDigest();
+        this.snapshot = new ProjectSnapshotStore(getCacheDirectory(SNAPSHOT_CACHE_DIRECTORY))
+                .get(digest, externalDigest, configuration)
+                .orElseGet(() -> new ProjectSnapshot(digest, externalDigest, configuration));
+        if (snapshot.isRestored())
+        {
+            logger.debug("Restored snapshot of project {}", alias);
+        }
+    }
+
+    /**
+     * Store the snapshot of this load, so a later start with the same archive and configuration can restore it
+     */
+    void storeSnapshot()
+    {
+        if (snapshot != null && snapshot.isModified())
+        {
+            new ProjectSnapshotStore(getCacheDirectory(SNAPSHOT_CACHE_DIRECTORY)).put(snapshot);
+        }
     }
 
     private void findBeans()
     {
-        // Scan for beans
         final Set<String> basePackages = projectConfiguration.getProjectInfo().getBasePackages();
+        final Optional<AotDescriptor> aotDescriptor = findAotDescriptor(basePackages);
+        if (aotDescriptor.isPresent())
+        {
+            applyAotInitializer(aotDescriptor.get());
+        }
+        else if (snapshot != null && snapshot.isRestored() && snapshot.getComponents() != null && registerComponents(snapshot.getComponents()))
+        {
+            logger.info("Registered {} components from the snapshot of base packages: {}", snapshot.getComponents().size(), StringUtils.collectionToCommaDelimitedString(basePackages));
+        }
+        else if (lamebdaConfiguration.isComponentScanCacheEnabled())
+        {
+            final ComponentScanCache cache = new ComponentScanCache(getCacheDirectory(COMPONENT_CACHE_DIRECTORY));
+            final String key = ComponentScanCache.key(getOrComputeArchiveDigest(), getOrComputeClasspathDigest(), basePackages);
+            final Optional<List<String>> cached = cache.get(key);
+            if (cached.isPresent() && registerComponents(cached.get()))
+            {
+                logger.info("Registered {} cached components from base packages: {}", cached.get().size(), StringUtils.collectionToCommaDelimitedString(basePackages));
+                recordComponents(cached.get());
+            }
+            else
+            {
+                final List<String> components = scan(basePackages);
+                cache.put(key, components);
+                recordComponents(components);
+            }
+        }
+        else
+        {
+            recordComponents(scan(basePackages));
+        }
+
+        if (snapshot != null)
+        {
+            // The request mappings of the controllers are restored from, and recorded into, the snapshot
+            projectCtx.getBeanFactory().registerSingleton(ProjectSnapshot.BEAN_NAME, snapshot);
+        }
+
+        if (lamebdaConfiguration.isPropertiesReloadEnabled())
+        {
+            this.placeholderRoutes = new PlaceholderRoutes();
+            projectCtx.getBeanFactory().registerSingleton(PlaceholderRoutes.BEAN_NAME, placeholderRoutes);
+        }
+    }
+
+    /**
+     * Apply changed application properties to the running project, keeping its class loader, context and routes. The
+     * property source of the project is created again, the {@code @ConfigurationProperties} beans are bound to it and
+     * the {@link com.ethlo.lamebda.refresh.RefreshScope} beans are created again on their next use. Singletons that
+     * use {@code @Value} keep the values they were created with. Only to be called when nothing but the application
+     * properties of the project directory has changed.
+     *
+     * @return Whether the properties were applied, or false if properties were removed, routes depend on the
+     * properties or configuration properties are bound by constructor, so the project has to be loaded again
+     */
+    boolean reloadProperties()
+    {
+        if (placeholderRoutes == null || !placeholderRoutes.isEmpty())
+        {
+            logger.debug("Routes of project {} depend on its properties", alias);
+            return false;
+        }
+
+        // Only bound if the project enabled configuration properties
+        final Collection<ConfigurationPropertiesBean> propertiesBeans = projectCtx.getBeanFactory().containsBeanDefinition(ConfigurationPropertiesBindingPostProcessor.BEAN_NAME)
+                ? ConfigurationPropertiesBean.getAll(projectCtx).values()
+                : List.of();
+        if (propertiesBeans.stream().anyMatch(bean -> bean.asBindTarget().getBindMethod() == BindMethod.VALUE_OBJECT))
+        {
+            logger.debug("Project {} has configuration properties bound by constructor", alias);
+            return false;
+        }
+
+        final Resource[] configResources = getConfigResources();
+        final PropertySource<Properties> reloaded = configResources.length > 0 ? createPropertySource(configResources) : null;
+        final Set<Object> current = propertySource != null ? propertySource.getSource().keySet() : Set.of();
+        if (!current.isEmpty() && (reloaded == null || !reloaded.getSource().keySet().containsAll(current)))
+        {
+            // Bound values of removed properties would be kept, as binding only sets the properties that are present
+            logger.debug("Properties of project {} were removed", alias);
+            return false;
+        }
+
+        final MutablePropertySources propertySources = projectCtx.getEnvironment().getPropertySources();
+        if (propertySource != null)
+        {
+            propertySources.remove(propertySource.getName());
+            this.propertySource = null;
+        }
+        if (reloaded != null)
+        {
+            propertySources.addFirst(reloaded);
+            this.propertySource = reloaded;
+            prettyPrint(reloaded.getSource());
+        }
+
+        final Binder binder = Binder.get(projectCtx.getEnvironment());
+        for (final ConfigurationPropertiesBean bean : propertiesBeans)
+        {
+            binder.bind(bean.getAnnotation().prefix(), bean.asBindTarget(), getBindHandler(bean.getAnnotation()));
+        }
+        final int refreshed = refreshScope.refresh();
+        logger.info("Reloaded the properties of project {}: {} configuration properties beans bound, {} refresh scoped beans destroyed", alias, propertiesBeans.size(), refreshed);
+        return true;
+    }
+
+    private static BindHandler getBindHandler(final ConfigurationProperties annotation)
+    {
+        // As when the configuration properties were bound on load
+        BindHandler handler = new IgnoreTopLevelConverterNotFoundBindHandler();
+        if (annotation.ignoreInvalidFields())
+        {
+            handler = new IgnoreErrorsBindHandler(handler);
+        }
+        if (!annotation.ignoreUnknownFields())
+        {
+            handler = new NoUnboundElementsBindHandler(handler, new UnboundElementsSourceFilter());
+        }
+        return handler;
+    }
+
+    private void recordComponents(final List<String> components)
+    {
+        if (snapshot != null)
+        {
+            snapshot.setComponents(components);
+        }
+    }
+
+    private Optional<AotDescriptor> findAotDescriptor(final Set<String> basePackages)
+    {
+        // Only look in the project itself, not in the parent class loader
+        final URL url = classLoader.findResource(AotDescriptor.LOCATION);
+        if (url == null)
+        {
+            return Optional.empty();
+        }
+
+        try (final InputStream in = url.openStream())
+        {
+            final AotDescriptor descriptor = AotDescriptor.load(in);
+            final Set<String> expected = basePackages.stream().map(String::trim).collect(Collectors.toSet());
+            if (!descriptor.getBasePackages().equals(expected))
+            {
+                logger.warn("Ignoring AOT processed bean definitions in {}, as they were generated for base packages {}, not {}", url, descriptor.getBasePackages(), expected);
+                return Optional.empty();
+            }
+            return Optional.of(descriptor);
+        }
+        catch (IOException exc)
+        {
+            logger.warn("Ignoring AOT processed bean definitions in {}: {}", url, exc.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyAotInitializer(final AotDescriptor descriptor)
+    {
+        logger.info("Using AOT processed bean definitions from {}", descriptor.getInitializerClassName());
+
+        // The generated code replaces annotation processing, and registers the processors it still needs itself
+        for (final String processor : List.of(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME,
+                AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME,
+                AnnotationConfigUtils.COMMON_ANNOTATION_PROCESSOR_BEAN_NAME,
+                AnnotationConfigUtils.PERSISTENCE_ANNOTATION_PROCESSOR_BEAN_NAME,
+                AnnotationConfigUtils.EVENT_LISTENER_PROCESSOR_BEAN_NAME,
+                AnnotationConfigUtils.EVENT_LISTENER_FACTORY_BEAN_NAME))
+        {
+            if (projectCtx.containsBeanDefinition(processor))
+            {
+                projectCtx.removeBeanDefinition(processor);
+            }
+        }
+
+        final Class<?> initializerClass = ClassUtils.resolveClassName(descriptor.getInitializerClassName(), classLoader);
+        final ApplicationContextInitializer<GenericApplicationContext> initializer = (ApplicationContextInitializer<GenericApplicationContext>) BeanUtils.instantiateClass(initializerClass);
+        initializer.initialize(projectCtx);
+    }
+
+    /**
+     * Scan for beans
+     *
+     * @return The names of all component classes found, including those not registered due to unmet conditions
+     */
+    private List<String> scan(final Set<String> basePackages)
+    {
         logger.info("Scanning base packages: {}", StringUtils.collectionToCommaDelimitedString(basePackages));
-        projectCtx.scan(basePackages.toArray(new String[0]));
-        projectCtx.refresh();
+        final List<String> components = new ArrayList<>();
+        final TypeFilter componentFilter = new AnnotationTypeFilter(Component.class);
+        final ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(projectCtx);
+        scanner.addExcludeFilter((metadataReader, metadataReaderFactory) ->
+        {
+            // Record candidates before conditions are evaluated, as the conditions are evaluated again when registering from the cache
+            final AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+            if (metadata.isIndependent() && metadata.isConcrete() && componentFilter.match(metadataReader, metadataReaderFactory))
+            {
+                components.add(metadata.getClassName());
+            }
+            return false;
+        });
+        scanner.scan(basePackages.toArray(new String[0]));
+        return components;
+    }
+
+    private boolean registerComponents(final List<String> classNames)
+    {
+        final List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (final String className : classNames)
+        {
+            try
+            {
+                classes.add(ClassUtils.forName(className, classLoader));
+            }
+            catch (ClassNotFoundException | LinkageError exc)
+            {
+                logger.warn("Cached component {} could not be loaded, scanning instead: {}", className, exc.toString());
+                return false;
+            }
+        }
+        if (!classes.isEmpty())
+        {
+            projectCtx.register(classes.toArray(new Class<?>[0]));
+        }
+        return true;
+    }
+
+    private String getOrComputeArchiveDigest()
+    {
+        if (archiveDigest == null)
+        {
+            archiveDigest = IoUtil.sha256(archivePath);
+        }
+        return archiveDigest;
+    }
+
+    private String getOrComputeClasspathDigest()
+    {
+        if (classpathDigest == null)
+        {
+            classpathDigest = ClasspathDigest.of(projectConfiguration.getClasspath());
+        }
+        return classpathDigest;
     }
 
     private void setupSpringChildContext()
@@ -235,6 +725,11 @@ public class ProjectImpl implements Project
         this.projectCtx.setAllowBeanDefinitionOverriding(false);
         this.projectCtx.setClassLoader(classLoader);
         this.projectCtx.setId(projectConfiguration.getProjectInfo().getName());
+        if (classLoader instanceof ArchiveClassLoader archiveClassLoader)
+        {
+            // Allow scanning of the packages inside the nested jars
+            this.projectCtx.setResourceLoader(new ArchiveResourcePatternResolver(archiveClassLoader));
+        }
 
         final Resource[] configResources = getConfigResources();
 
@@ -249,7 +744,7 @@ public class ProjectImpl implements Project
             propertyConfigurer.setLocations(configResources);
             propertyConfigurer.setEnvironment(env);
 
-            final PropertySource<Properties> propertySource = createPropertySource(configResources);
+            this.propertySource = createPropertySource(configResources);
             env.getPropertySources().addFirst(propertySource);
 
             this.projectCtx.addBeanFactoryPostProcessor(propertyConfigurer);
@@ -260,6 +755,9 @@ public class ProjectImpl implements Project
 
         // Set the fully merged environment on the child context
         this.projectCtx.setEnvironment(env);
+
+        this.refreshScope = new RefreshableScope();
+        this.projectCtx.getBeanFactory().registerScope(RefreshableScope.SCOPE_NAME, refreshScope);
     }
 
     private Resource[] getConfigResources()
@@ -311,20 +809,57 @@ public class ProjectImpl implements Project
         bf.registerSingleton("projectConfiguration", bootstrapConfiguration);
     }
 
+    private void createTaskExecutorBean()
+    {
+        this.taskExecutor = new ProjectTaskExecutor(alias, classLoader, projectConfiguration.getTaskExecutorMaxConcurrency(), projectConfiguration.getTaskExecutorTerminationTimeoutMillis());
+        projectCtx.getBeanFactory().registerSingleton(ProjectTaskExecutor.BEAN_NAME, taskExecutor);
+    }
+
     @Override
     public void close()
     {
         parentContext.publishEvent(new ProjectClosingEvent(projectConfiguration, projectCtx));
 
+        // Tasks complete before the beans they use are destroyed
+        closeTaskExecutor();
+        if (refreshScope != null)
+        {
+            refreshScope.refresh();
+        }
+        projectCtx.close();
+        closeClassLoader();
+    }
+
+    private void closeTaskExecutor()
+    {
+        if (taskExecutor != null)
+        {
+            taskExecutor.close();
+        }
+    }
+
+    private void closeClassLoader()
+    {
         try
         {
-            projectCtx.close();
             classLoader.close();
         }
         catch (IOException e)
         {
             throw new UncheckedIOException(e);
         }
+        finally
+        {
+            if (sharedLibrariesLease != null)
+            {
+                sharedLibrariesLease.close();
+            }
+
+            if (classLoaderGeneration != null)
+            {
+                classLoaderGeneration.closed(projectConfiguration.getProjectInfo().getVersion());
+            }
+        }
     }
 
     @Override
@@ -333,6 +868,14 @@ public class ProjectImpl implements Project
         return projectCtx;
     }
 
+    /**
+     * @return The SHA-256 digest of the project archive, or null if the archive was not digested
+     */
+    public String getArchiveDigest()
+    {
+        return archiveDigest;
+    }
+
     @Override
     public String getAlias()
     {
@@ -27,9 +27,18 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,27 +46,55 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.FileSystemUtils;
 
 import com.ethlo.lamebda.dao.LocalProjectDao;
 import com.ethlo.lamebda.dao.LocalProjectDaoImpl;
+import com.ethlo.lamebda.io.ChangeCoalescer;
 import com.ethlo.lamebda.io.ChangeType;
 import com.ethlo.lamebda.io.WatchDir;
+import com.ethlo.lamebda.lifecycle.LoadPhase;
+import com.ethlo.lamebda.lifecycle.ProjectActivity;
+import com.ethlo.lamebda.lifecycle.ProjectDeferredEvent;
+import com.ethlo.lamebda.lifecycle.ProjectLoadCompletedEvent;
+import com.ethlo.lamebda.lifecycle.ProjectLoadHistory;
+import com.ethlo.lamebda.lifecycle.ProjectLoadReport;
+import com.ethlo.lamebda.lifecycle.ProjectLoadTimer;
+import com.ethlo.lamebda.lifecycle.ProjectLoadedEvent;
+import com.ethlo.lamebda.loader.ClassLoaderLeakDetector;
+import com.ethlo.lamebda.loader.SharedLibraries;
 
 public class ProjectManager
 {
     public static final String WORKDIR_DIRECTORY_NAME = "workdir";
+    public static final String CACHE_DIRECTORY_NAME = "cache";
+    public static final String INTERNAL_DIRECTORY_NAME = ".lamebda";
+    public static final String SHARED_LIBRARIES_DIRECTORY_NAME = "shared-libs";
     private static final Logger logger = LoggerFactory.getLogger(ProjectManager.class);
     private final Path rootDirectory;
     private final ApplicationContext parentContext;
     private final Map<String, Project> projects = new ConcurrentHashMap<>();
+    private final Map<String, Object> lifecycleLocks = new ConcurrentHashMap<>();
+    private final Set<String> deferred = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Project>> activations = new ConcurrentHashMap<>();
+    private final Map<String, ProjectActivity> activities = new ConcurrentHashMap<>();
+    private final Map<String, Set<Path>> changedPaths = new ConcurrentHashMap<>();
     private final LocalProjectDao localProjectDao;
     private final LamebdaConfiguration rootConfiguration;
+    private final ProjectLoadHistory loadHistory;
     private WatchDir watchDir;
+    private ChangeCoalescer changeCoalescer;
+    private SharedLibraries sharedLibraries;
+    private ClassLoaderLeakDetector classLoaderLeakDetector;
+    private ExecutorService lazyLoader;
+    private ScheduledExecutorService evictor;
 
     public ProjectManager(final LamebdaConfiguration lamebdaConfiguration, ConfigurableApplicationContext parentContext) throws IOException
     {
         this.rootConfiguration = lamebdaConfiguration;
+        this.loadHistory = new ProjectLoadHistory(lamebdaConfiguration.getLoadHistorySize());
 
         this.rootDirectory = lamebdaConfiguration.getRootDirectory();
         logger.info("Initializing Lamebda. Configuration:\n{}", lamebdaConfiguration.toPrettyString());
@@ -73,6 +110,16 @@ public class ProjectManager
 
         logger.debug("Parent application context ID: {}", parentContext.getId());
 
+        if (rootConfiguration.isSharedLibrariesEnabled())
+        {
+            this.sharedLibraries = new SharedLibraries(rootDirectory.resolve(INTERNAL_DIRECTORY_NAME).resolve(SHARED_LIBRARIES_DIRECTORY_NAME), parentContext.getClassLoader());
+        }
+
+        if (rootConfiguration.isClassLoaderLeakDetectionEnabled())
+        {
+            this.classLoaderLeakDetector = new ClassLoaderLeakDetector();
+        }
+
         if (rootConfiguration.isDirectoryWatchEnabled())
         {
             setupDirectoryWatcher();
@@ -84,30 +131,36 @@ public class ProjectManager
     }
 
     public static Path setupWorkDir(final Path projectPath)
+    {
+        final Path workDir = createWorkDir(projectPath);
+        deleteStaleWorkDirs(projectPath, workDir);
+        return workDir;
+    }
+
+    private static Path createWorkDir(final Path projectPath)
     {
         final Path parentWorkDir = projectPath.resolve(WORKDIR_DIRECTORY_NAME);
         try
         {
             final String prefix = Instant.now().getEpochSecond() + "_";
             Files.createDirectories(parentWorkDir);
-            final Path workDir = Files.createTempDirectory(parentWorkDir, prefix);
-            try (final Stream<Path> l = Files.list(parentWorkDir))
-            {
-                l.filter(Files::isDirectory)
-                        .filter(path -> !path.getFileName().toString().startsWith(prefix))
-                        .forEach(root ->
-                        {
-                            try
-                            {
-                                FileSystemUtils.deleteRecursively(root);
-                            }
-                            catch (IOException exc)
-                            {
-                                logger.warn("Could not delete temp directory " + workDir + ": " + exc.getMessage());
-                            }
-                        });
-            }
-            return workDir;
+            return Files.createTempDirectory(parentWorkDir, prefix);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteStaleWorkDirs(final Path projectPath, final Path currentWorkDir)
+    {
+        final Path parentWorkDir = projectPath.resolve(WORKDIR_DIRECTORY_NAME);
+        try (final Stream<Path> l = Files.list(parentWorkDir))
+        {
+            l.filter(Files::isDirectory)
+                    .filter(path -> !path.equals(currentWorkDir))
+                    .filter(path -> !path.getFileName().toString().equals(CACHE_DIRECTORY_NAME))
+                    .forEach(ProjectManager::deleteStaleWorkDir);
         }
         catch (IOException e)
         {
@@ -115,8 +168,22 @@ public class ProjectManager
         }
     }
 
+    private static void deleteStaleWorkDir(final Path workDir)
+    {
+        try
+        {
+            FileSystemUtils.deleteRecursively(workDir);
+        }
+        catch (IOException exc)
+        {
+            logger.warn("Could not delete temp directory " + workDir + ": " + exc.getMessage());
+        }
+    }
+
     private void setupDirectoryWatcher()
     {
+        this.changeCoalescer = new ChangeCoalescer(rootConfiguration.getReloadQuietPeriod(), rootConfiguration.getReloadMaxWait());
+
         // Register directory watcher to discover new project directories created in root directory
         try
         {
@@ -124,8 +191,14 @@ public class ProjectManager
             {
                 final Path path = e.path();
                 final Path projectPath = getProjectPath(path);
+                if (projectPath.getFileName().toString().startsWith("."))
+                {
+                    logger.debug("Skipping hidden path: {}", path);
+                    return;
+                }
                 final String alias = Project.toAlias(projectPath);
-                final boolean isWorkDirPath = path.toAbsolutePath().startsWith(projectPath.resolve(WORKDIR_DIRECTORY_NAME).toAbsolutePath());
+                final Path workDirPath = projectPath.resolve(WORKDIR_DIRECTORY_NAME).toAbsolutePath();
+                final boolean isWorkDirPath = path.toAbsolutePath().startsWith(workDirPath);
                 final boolean isProjectPath = projectPath.equals(path);
                 final boolean isProjectJar = projectPath.resolve(projectPath.getFileName().toString() + ".jar").equals(path);
                 final boolean isKnownType = isKnownType(path.getFileName().toString());
@@ -139,15 +212,19 @@ public class ProjectManager
                 else if (e.changeType() == ChangeType.DELETED && isProjectPath)
                 {
                     logger.info("Closing project due to deletion of project directory: {}", e.path());
-                    closeProject(alias);
+                    changeCoalescer.submit(alias, projectPath, p -> false, () -> closeProject(alias));
                 }
-                else if (e.changeType() == ChangeType.MODIFIED && (isKnownType || isProjectPath || isProjectJar))
+                else if (e.changeType() != ChangeType.DELETED && (isKnownType || isProjectPath || isProjectJar))
                 {
                     if (!reloadDisabledByFile && !rootConfiguration.getRequiredProjects().contains(alias))
                     {
-                        logger.info("Reloading project {} due to modification of {}", alias, path);
-                        closeProject(alias);
-                        loadProject(alias);
+                        logger.debug("Scheduling reload of project {} due to modification of {}", alias, path);
+                        changedPaths.computeIfAbsent(alias, k -> ConcurrentHashMap.newKeySet()).add(path);
+                        changeCoalescer.submit(alias, projectPath, p -> p.toAbsolutePath().startsWith(workDirPath), () ->
+                        {
+                            logger.info("Reloading project {}", alias);
+                            reloadProject(alias, changedPaths.remove(alias));
+                        });
                     }
                     else
                     {
@@ -189,9 +266,24 @@ public class ProjectManager
 
     public void initializeAll()
     {
-        for (Path projectPath : localProjectDao.getLocalProjectDirectories())
+        final List<String> aliases = new ArrayList<>();
+        for (final Path projectPath : localProjectDao.getLocalProjectDirectories())
+        {
+            final String alias = Project.toAlias(projectPath);
+            if (!defer(alias, false))
+            {
+                aliases.add(alias);
+            }
+        }
+
+        final int parallelism = Math.min(rootConfiguration.getLoadParallelism(), aliases.size());
+        if (parallelism > 1)
         {
-            loadProject(Project.toAlias(projectPath));
+            loadConcurrently(aliases, parallelism);
+        }
+        else
+        {
+            aliases.forEach(this::loadProject);
         }
 
         for (final String requiredProject : rootConfiguration.getRequiredProjects())
@@ -203,54 +295,546 @@ public class ProjectManager
         }
     }
 
-    private void closeProject(final String alias)
+    /**
+     * Defer the load of a lazy project until the first request to it, by only announcing its context path
+     *
+     * @param alias   The project alias
+     * @param evicted Whether the project was closed due to being idle, in which case it is deferred even if not lazy
+     * @return Whether the load of the project was deferred
+     */
+    private boolean defer(final String alias, final boolean evicted)
+    {
+        if (rootConfiguration.getRequiredProjects().contains(alias))
+        {
+            return false;
+        }
+
+        final Path projectDirectory = rootDirectory.resolve(alias);
+        final ProjectConfiguration cfg;
+        try
+        {
+            final BootstrapConfiguration bootstrapConfiguration = new BootstrapConfiguration(rootConfiguration.getRequestPath(), projectDirectory, System.getProperties());
+            cfg = ProjectConfiguration.loadFromArchive(bootstrapConfiguration, projectDirectory.resolve(alias + "." + ProjectImpl.JAR_EXTENSION));
+        }
+        catch (RuntimeException exc)
+        {
+            logger.debug("Unable to read the configuration of project {}, it is loaded eagerly", alias, exc);
+            return false;
+        }
+
+        if (!evicted && !Optional.ofNullable(cfg.getLazy()).orElse(rootConfiguration.isLazyLoadingEnabled()))
+        {
+            return false;
+        }
+
+        logger.info("Deferring load of project '{}' until the first request to it", alias);
+        deferred.add(alias);
+        parentContext.publishEvent(new ProjectDeferredEvent(alias, cfg));
+        return true;
+    }
+
+    /**
+     * Load a project that was deferred, unless it is already loaded. Concurrent calls for the same project share a
+     * single load
+     *
+     * @param alias The project alias
+     * @return The loaded project, or a future completing with null if the project is neither loaded nor deferred any
+     * longer, as when its directory was deleted
+     */
+    public CompletableFuture<Project> ensureLoaded(final String alias)
     {
-        final Project existing = projects.remove(alias);
+        final Project project = projects.get(alias);
+        if (project != null)
+        {
+            return CompletableFuture.completedFuture(project);
+        }
+
+        final CompletableFuture<Project> activation = new CompletableFuture<>();
+        final CompletableFuture<Project> existing = activations.putIfAbsent(alias, activation);
         if (existing != null)
         {
-            logger.info("Closing {}", alias);
-            existing.close();
+            return existing;
+        }
+
+        try
+        {
+            lazyLoader().execute(() ->
+            {
+                try
+                {
+                    activation.complete(loadDeferred(alias));
+                }
+                catch (Exception exc)
+                {
+                    activation.completeExceptionally(exc);
+                }
+                finally
+                {
+                    activations.remove(alias, activation);
+                }
+            });
+        }
+        catch (RuntimeException exc)
+        {
+            activations.remove(alias, activation);
+            activation.completeExceptionally(exc);
         }
+        return activation;
     }
 
-    private void loadProject(final String alias)
+    private Project loadDeferred(final String alias)
     {
-        logger.info("Loading project '{}'", alias);
+        synchronized (lifecycleLock(alias))
+        {
+            final Project existing = projects.get(alias);
+            if (existing != null || !deferred.contains(alias))
+            {
+                return existing;
+            }
+
+            try
+            {
+                return doLoadProject(alias);
+            }
+            catch (ProjectLoadException exc)
+            {
+                throw exc;
+            }
+            catch (RuntimeException exc)
+            {
+                throw new ProjectLoadException("Unable to load project " + alias, exc);
+            }
+        }
+    }
+
+    private synchronized ExecutorService lazyLoader()
+    {
+        if (lazyLoader == null)
+        {
+            final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("lamebda-lazy-");
+            threadFactory.setDaemon(true);
+            lazyLoader = Executors.newFixedThreadPool(rootConfiguration.getLoadParallelism(), threadFactory);
+        }
+        return lazyLoader;
+    }
 
-        Project project = null;
+    private void loadConcurrently(final List<String> aliases, final int parallelism)
+    {
+        logger.info("Loading {} projects using {} threads", aliases.size(), parallelism);
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("lamebda-loader-"));
+        final List<ProjectLoadTimer> loadTimers = aliases.stream().map(ProjectLoadTimer::new).toList();
+        final List<CompletableFuture<Project>> futures = loadTimers.stream()
+                .map(loadTimer -> CompletableFuture.supplyAsync(() -> createProject(loadTimer), executor))
+                .toList();
+
+        // Activate in directory order, so the project loaded events are always published in the same order
+        int unhandled = 0;
         try
         {
-            final Path projectDirectory = rootDirectory.resolve(alias);
-            final BootstrapConfiguration cfg = new BootstrapConfiguration(rootConfiguration.getRequestPath(), projectDirectory, System.getProperties());
-            final Path workDir = setupWorkDir(projectDirectory);
-            project = new ProjectImpl(alias, parentContext, cfg, workDir);
-            projects.put(alias, project);
+            for (int index = 0; index < aliases.size(); index++)
+            {
+                final String alias = aliases.get(index);
+                final ProjectLoadTimer loadTimer = loadTimers.get(index);
+                final Project project;
+                try
+                {
+                    project = futures.get(index).get();
+                }
+                catch (ExecutionException exc)
+                {
+                    unhandled = index + 1;
+                    final Exception cause = exc.getCause() instanceof Exception e ? e : exc;
+                    loadCompleted(loadTimer, cause);
+                    handleLoadFailure(alias, cause);
+                    continue;
+                }
+
+                // A project that fails to activate is closed by the activation
+                unhandled = index + 1;
+                try
+                {
+                    activate(project, loadTimer);
+                }
+                catch (RuntimeException exc)
+                {
+                    loadCompleted(loadTimer, exc);
+                    handleLoadFailure(alias, exc);
+                }
+            }
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+            throw new ProjectLoadException("Interrupted while loading projects", exc);
+        }
+        finally
+        {
+            // Discard projects that were loaded, but never activated due to halting on an error or an interruption
+            for (int i = unhandled; i < futures.size(); i++)
+            {
+                discard(futures.get(i));
+            }
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Close the project once it is loaded, without waiting for it, so it is closed even if the current thread is
+     * interrupted
+     */
+    private void discard(final CompletableFuture<Project> future)
+    {
+        future.whenComplete((project, exc) ->
+        {
+            if (project == null)
+            {
+                return;
+            }
+
+            try
+            {
+                project.close();
+            }
+            catch (Exception e)
+            {
+                logger.debug("Discarded project failed to close", e);
+            }
+        });
+    }
+
+    /**
+     * Serializes the loading and closing of a project, which can be triggered both by changes in the project directory
+     * and through {@link #load(String)} and {@link #unload(String)}. These only accept known aliases, so the number of
+     * locks is bounded by the project directories that have existed
+     */
+    private Object lifecycleLock(final String alias)
+    {
+        return lifecycleLocks.computeIfAbsent(alias, k -> new Object());
+    }
+
+    private void closeProject(final String alias)
+    {
+        synchronized (lifecycleLock(alias))
+        {
+            deferred.remove(alias);
+            final Project existing = projects.remove(alias);
+            if (existing != null)
+            {
+                logger.info("Closing {}", alias);
+                existing.close();
+            }
+        }
+    }
+
+    private void loadProject(final String alias)
+    {
+        try
+        {
+            doLoadProject(alias);
         }
         catch (Exception exc)
         {
+            handleLoadFailure(alias, exc);
+        }
+    }
+
+    private Project doLoadProject(final String alias)
+    {
+        synchronized (lifecycleLock(alias))
+        {
+            final ProjectLoadTimer loadTimer = new ProjectLoadTimer(alias);
             try
             {
-                if (project != null)
+                final Project project = createProject(loadTimer);
+                activate(project, loadTimer);
+                return project;
+            }
+            catch (RuntimeException exc)
+            {
+                loadCompleted(loadTimer, exc);
+                throw exc;
+            }
+        }
+    }
+
+    private void reloadProject(final String alias, @Nullable final Set<Path> changed)
+    {
+        try
+        {
+            if (!projects.containsKey(alias) && deferred.contains(alias))
+            {
+                // Not requested yet, so only the announced context path is refreshed, unless the project is no longer lazy
+                synchronized (lifecycleLock(alias))
                 {
-                    project.close();
+                    if (!projects.containsKey(alias) && !defer(alias, activities.containsKey(alias)))
+                    {
+                        deferred.remove(alias);
+                        doLoadProject(alias);
+                    }
                 }
+                return;
+            }
+
+            if (rootConfiguration.isPropertiesReloadEnabled() && isApplicationPropertiesOnly(alias, changed) && reloadProperties(alias))
+            {
+                return;
+            }
+            doReloadProject(alias);
+        }
+        catch (RuntimeException exc)
+        {
+            if (projects.containsKey(alias))
+            {
+                // A failed blue-green replacement keeps the current version
+                logger.warn(exc.getMessage(), exc.getCause());
+            }
+            else
+            {
+                handleLoadFailure(alias, exc);
+            }
+        }
+    }
+
+    private boolean isApplicationPropertiesOnly(final String alias, @Nullable final Set<Path> changed)
+    {
+        final Path applicationProperties = rootDirectory.resolve(alias).resolve(ProjectImpl.DEFAULT_CONFIG_FILENAME).toAbsolutePath().normalize();
+        return changed != null && !changed.isEmpty() && changed.stream().allMatch(path -> path.toAbsolutePath().normalize().equals(applicationProperties));
+    }
+
+    /**
+     * @return Whether the changed application properties were applied to the loaded project
+     */
+    private boolean reloadProperties(final String alias)
+    {
+        synchronized (lifecycleLock(alias))
+        {
+            if (!(projects.get(alias) instanceof ProjectImpl project))
+            {
+                return false;
+            }
+
+            try
+            {
+                return project.reloadProperties();
+            }
+            catch (RuntimeException exc)
+            {
+                logger.warn("Unable to reload the properties of project {}, loading it again: {}", alias, exc.getMessage(), exc);
+                return false;
+            }
+        }
+    }
+
+    private Project doReloadProject(final String alias)
+    {
+        synchronized (lifecycleLock(alias))
+        {
+            if (rootConfiguration.getReloadMode() == ReloadMode.BLUE_GREEN && projects.containsKey(alias))
+            {
+                return replaceProject(alias);
+            }
+
+            closeProject(alias);
+            return doLoadProject(alias);
+        }
+    }
+
+    /**
+     * @throws ProjectLoadException If the new version could not be loaded, in which case the current version is kept
+     */
+    private Project replaceProject(final String alias)
+    {
+        final Path projectDirectory = rootDirectory.resolve(alias);
+        final Path workDir = createWorkDir(projectDirectory);
+        final ProjectLoadTimer loadTimer = new ProjectLoadTimer(alias);
+        final Project replacement;
+        try
+        {
+            replacement = createProject(workDir, loadTimer);
+        }
+        catch (Exception exc)
+        {
+            loadCompleted(loadTimer, exc);
+            deleteStaleWorkDir(workDir);
+            throw new ProjectLoadException("Unable to load new version of project " + alias + ". The current version is kept", exc);
+        }
+
+        final Project existing = projects.get(alias);
+        try
+        {
+            activate(replacement, loadTimer);
+        }
+        catch (Exception exc)
+        {
+            // Closing the new version gives the routes it took over back to the current version
+            loadCompleted(loadTimer, exc);
+            throw new ProjectLoadException("Unable to activate new version of project " + alias + ". The current version is kept", exc);
+        }
+
+        logger.info("Closing replaced version of {}", alias);
+        existing.close();
+        deleteStaleWorkDirs(projectDirectory, workDir);
+        return replacement;
+    }
+
+    private Project createProject(final ProjectLoadTimer loadTimer)
+    {
+        return createProject(setupWorkDir(rootDirectory.resolve(loadTimer.getAlias())), loadTimer);
+    }
+
+    private Project createProject(final Path workDir, final ProjectLoadTimer loadTimer)
+    {
+        final String alias = loadTimer.getAlias();
+        logger.info("Loading project '{}'", alias);
+
+        final Path projectDirectory = rootDirectory.resolve(alias);
+        final BootstrapConfiguration cfg = new BootstrapConfiguration(rootConfiguration.getRequestPath(), projectDirectory, System.getProperties());
+        return new ProjectImpl(alias, parentContext, cfg, workDir, rootConfiguration, sharedLibraries, loadTimer, classLoaderLeakDetector);
+    }
+
+    private void activate(final Project project, final ProjectLoadTimer loadTimer)
+    {
+        try
+        {
+            trackActivity(project);
+            loadTimer.time(LoadPhase.ACTIVATION, () -> parentContext.publishEvent(new ProjectLoadedEvent(project.getProjectConfiguration(), project.getProjectContext())));
+            projects.put(project.getAlias(), project);
+            deferred.remove(project.getAlias());
+        }
+        catch (RuntimeException exc)
+        {
+            try
+            {
+                project.close();
             }
             catch (Exception e)
             {
                 logger.warn("An error occurred cleaning up failed project initialization", e);
             }
+            throw exc;
+        }
+        if (project instanceof ProjectImpl projectImpl)
+        {
+            // The project is active, so failing to store the snapshot only makes the next load slower
+            try
+            {
+                projectImpl.storeSnapshot();
+            }
+            catch (RuntimeException exc)
+            {
+                logger.warn("Unable to store the snapshot of project {}", project.getAlias(), exc);
+            }
+        }
+        loadCompleted(loadTimer, null);
+    }
+
+    /**
+     * Track the requests to the project if it is to be closed when idle. The activity is registered as a bean of the
+     * project, so the routes of the project can report their requests to it
+     */
+    private void trackActivity(final Project project)
+    {
+        final String alias = project.getAlias();
+        final long idleTimeoutMillis = Optional.ofNullable(project.getProjectConfiguration().getIdleTimeoutMillis()).orElse(rootConfiguration.getIdleTimeout().toMillis());
+        if (idleTimeoutMillis == 0 || rootConfiguration.getRequiredProjects().contains(alias))
+        {
+            activities.remove(alias);
+            return;
+        }
+
+        final ProjectActivity activity = activities.computeIfAbsent(alias, ProjectActivity::new);
+        activity.loaded(idleTimeoutMillis);
+        if (!project.getProjectContext().containsLocalBean(ProjectActivity.BEAN_NAME))
+        {
+            project.getProjectContext().getBeanFactory().registerSingleton(ProjectActivity.BEAN_NAME, activity);
+        }
+        startEvictor();
+    }
+
+    private synchronized void startEvictor()
+    {
+        if (evictor == null)
+        {
+            final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("lamebda-eviction-");
+            threadFactory.setDaemon(true);
+            evictor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            evictor.scheduleWithFixedDelay(this::evictIdleProjects, 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    private void evictIdleProjects()
+    {
+        final long now = System.currentTimeMillis();
+        for (final ProjectActivity activity : activities.values())
+        {
+            if (projects.containsKey(activity.getAlias()) && activity.isIdle(now))
+            {
+                try
+                {
+                    evict(activity);
+                }
+                catch (RuntimeException exc)
+                {
+                    logger.warn("Unable to close idle project {}", activity.getAlias(), exc);
+                }
+            }
+        }
+    }
+
+    /**
+     * Close an idle project, leaving its context path announced so the next request to it loads the project again
+     */
+    private void evict(final ProjectActivity activity)
+    {
+        final String alias = activity.getAlias();
+        synchronized (lifecycleLock(alias))
+        {
+            final Project project = projects.get(alias);
+            if (project == null || !activity.closing(System.currentTimeMillis()))
+            {
+                return;
+            }
 
-            if (rootConfiguration.haltOnError())
+            try
             {
-                throw new ProjectLoadException("Unable to load project " + alias, exc);
+                logger.info("Closing project '{}', as it has not been accessed since {}", alias, activity.getLastAccess());
+                // Announced before the project is closed, so there is no gap where requests to the project are not found
+                parentContext.publishEvent(new ProjectDeferredEvent(alias, project.getProjectConfiguration()));
+                projects.remove(alias);
+                deferred.add(alias);
+                project.close();
             }
-            else
+            finally
             {
-                logger.warn("Unable to load project {}", alias, exc);
+                activity.evicted();
             }
         }
     }
 
+    private void loadCompleted(final ProjectLoadTimer loadTimer, @Nullable final Exception failure)
+    {
+        final ProjectLoadReport report = loadTimer.complete(failure);
+        final String phases = report.getPhases().entrySet()
+                .stream()
+                .map(e -> e.getKey().getTagValue() + "=" + e.getValue().toMillis() + "ms")
+                .collect(Collectors.joining(", "));
+        logger.info("Load of project {} {} in {} ms ({})", report.getAlias(), report.isSuccessful() ? "completed" : "failed", report.getDuration().toMillis(), phases);
+        loadHistory.add(report);
+        parentContext.publishEvent(new ProjectLoadCompletedEvent(report));
+    }
+
+    private void handleLoadFailure(final String alias, final Exception exc)
+    {
+        if (rootConfiguration.haltOnError())
+        {
+            throw new ProjectLoadException("Unable to load project " + alias, exc);
+        }
+        else
+        {
+            logger.warn("Unable to load project {}", alias, exc);
+        }
+    }
+
     private boolean isKnownType(final String filename)
     {
         return filename.endsWith(ProjectImpl.PROPERTIES_EXTENSION);
@@ -261,6 +845,42 @@ public class ProjectManager
         return this.projects;
     }
 
+    /**
+     * @return The aliases of the lazy projects that are not loaded yet
+     */
+    public Set<String> getDeferredProjects()
+    {
+        return Set.copyOf(deferred);
+    }
+
+    /**
+     * @param alias The project alias
+     * @return The request activity of the project, or null if the project is not closed when idle
+     */
+    @Nullable
+    public ProjectActivity getActivity(final String alias)
+    {
+        return activities.get(alias);
+    }
+
+    /**
+     * @param alias The project alias
+     * @return The reports of the recent loads of the project, the most recent first
+     */
+    public List<ProjectLoadReport> getLoadHistory(final String alias)
+    {
+        return loadHistory.get(alias);
+    }
+
+    /**
+     * @return The tracker of the class loaders of closed projects, or null if class loader leak detection is disabled
+     */
+    @Nullable
+    public ClassLoaderLeakDetector getClassLoaderLeakDetector()
+    {
+        return classLoaderLeakDetector;
+    }
+
     public LamebdaConfiguration getRootConfiguration()
     {
         return rootConfiguration;
@@ -288,4 +908,48 @@ public class ProjectManager
     {
         closeProject(project.getAlias());
     }
+
+    /**
+     * Load the project with the given alias. A project that is already loaded is reloaded as configured by the reload
+     * mode. Blocks until the project is loaded and its routes are registered
+     *
+     * @param alias The project alias
+     * @return The loaded project
+     * @throws ProjectLoadException If the alias is not the name of a project directory, or the project could not be loaded
+     */
+    public Project load(final String alias)
+    {
+        // Only accept the names of project directories, so the alias cannot resolve to a path outside the root directory
+        if (!getProjectAliases().contains(alias))
+        {
+            throw new ProjectLoadException("No project directory found for project " + alias, null);
+        }
+
+        try
+        {
+            return doReloadProject(alias);
+        }
+        catch (ProjectLoadException exc)
+        {
+            throw exc;
+        }
+        catch (RuntimeException exc)
+        {
+            throw new ProjectLoadException("Unable to load project " + alias, exc);
+        }
+    }
+
+    /**
+     * Close the project with the given alias, if it is loaded. Blocks until the project is closed. Unknown aliases are
+     * ignored
+     *
+     * @param alias The project alias
+     */
+    public void unload(final String alias)
+    {
+        if (projects.containsKey(alias) || deferred.contains(alias) || getProjectAliases().contains(alias))
+        {
+            closeProject(alias);
+        }
+    }
 }
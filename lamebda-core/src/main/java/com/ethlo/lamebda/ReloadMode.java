@@ -0,0 +1,34 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+public enum ReloadMode
+{
+    /**
+     * Close the current version of the project before loading the new one
+     */
+    RESTART,
+
+    /**
+     * Load the new version of the project next to the current one, and only replace the current version once the new one has loaded successfully
+     */
+    BLUE_GREEN
+}
@@ -0,0 +1,88 @@
+package com.ethlo.lamebda.aot;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Describes the ahead-of-time processed bean definitions embedded in a project by the Lamebda Maven plugin
+ */
+public class AotDescriptor
+{
+    public static final String LOCATION = "META-INF/lamebda/aot.properties";
+    private static final String INITIALIZER = "initializer";
+    private static final String BASE_PACKAGES = "base-packages";
+
+    private final String initializerClassName;
+    private final Set<String> basePackages;
+
+    public AotDescriptor(final String initializerClassName, final Set<String> basePackages)
+    {
+        this.initializerClassName = Objects.requireNonNull(initializerClassName);
+        this.basePackages = new TreeSet<>(basePackages);
+    }
+
+    public static AotDescriptor load(final InputStream in) throws IOException
+    {
+        final Properties properties = new Properties();
+        properties.load(in);
+        final String initializer = properties.getProperty(INITIALIZER);
+        if (initializer == null)
+        {
+            throw new IOException("Missing property '" + INITIALIZER + "' in " + LOCATION);
+        }
+        final String[] basePackages = StringUtils.commaDelimitedListToStringArray(properties.getProperty(BASE_PACKAGES, ""));
+        return new AotDescriptor(initializer, new TreeSet<>(Arrays.asList(StringUtils.trimArrayElements(basePackages))));
+    }
+
+    public void store(final OutputStream out) throws IOException
+    {
+        final Properties properties = new Properties();
+        properties.setProperty(INITIALIZER, initializerClassName);
+        properties.setProperty(BASE_PACKAGES, StringUtils.collectionToCommaDelimitedString(basePackages));
+        properties.store(out, "Generated by the Lamebda Maven plugin");
+    }
+
+    /**
+     * @return The name of the generated <code>ApplicationContextInitializer</code> that registers the bean definitions
+     */
+    public String getInitializerClassName()
+    {
+        return initializerClassName;
+    }
+
+    /**
+     * @return The base packages that were scanned when the bean definitions were generated
+     */
+    public Set<String> getBasePackages()
+    {
+        return basePackages;
+    }
+}
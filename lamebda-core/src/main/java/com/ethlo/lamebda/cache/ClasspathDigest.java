@@ -0,0 +1,93 @@
+package com.ethlo.lamebda.cache;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Digests the state of the class path entries of a project that are not part of its archive, so what was cached for
+ * the archive is not used after such an entry is replaced. Files are identified by their size and modification time,
+ * and directories by those of the files they contain.
+ */
+public class ClasspathDigest
+{
+    private ClasspathDigest()
+    {
+    }
+
+    /**
+     * @param classpath The class path entries
+     * @return The digest of the entries and the files they point to
+     */
+    public static String of(final Collection<URI> classpath)
+    {
+        try
+        {
+            final MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (final URI uri : classpath.stream().sorted().toList())
+            {
+                md.update((uri + "\n").getBytes(StandardCharsets.UTF_8));
+                if ("file".equals(uri.getScheme()))
+                {
+                    for (final Path file : listFiles(Path.of(uri)))
+                    {
+                        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        md.update((file + " " + attributes.size() + " " + attributes.lastModifiedTime().toMillis() + "\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(md.digest());
+        }
+        catch (NoSuchAlgorithmException exc)
+        {
+            throw new IllegalStateException(exc);
+        }
+        catch (IOException exc)
+        {
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    private static List<Path> listFiles(final Path path) throws IOException
+    {
+        if (!Files.exists(path))
+        {
+            return List.of();
+        }
+
+        try (final Stream<Path> files = Files.walk(path))
+        {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ethlo.lamebda.cache;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.SpringVersion;
+
+/**
+ * Keeps the names of the component classes found when scanning the base packages of a project archive, so later
+ * loads of the same archive and external class path can register the components without scanning the class path.
+ */
+public class ComponentScanCache
+{
+    private static final Logger logger = LoggerFactory.getLogger(ComponentScanCache.class);
+    private static final String FORMAT_VERSION = "1";
+    private static final String EXTENSION = ".components";
+
+    private final Path cacheDirectory;
+
+    public ComponentScanCache(final Path cacheDirectory)
+    {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @param archiveDigest   The digest of the project archive
+     * @param classpathDigest The digest of the class path entries of the project that are not part of its archive
+     * @param basePackages    The packages that are scanned
+     * @return The cache key for the scan result
+     */
+    public static String key(final String archiveDigest, final String classpathDigest, final Collection<String> basePackages)
+    {
+        try
+        {
+            final MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update((FORMAT_VERSION + "\n" + SpringVersion.getVersion() + "\n" + archiveDigest + "\n" + classpathDigest + "\n").getBytes(StandardCharsets.UTF_8));
+            for (final String basePackage : new TreeSet<>(basePackages))
+            {
+                md.update((basePackage + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(md.digest());
+        }
+        catch (NoSuchAlgorithmException exc)
+        {
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    /**
+     * @param key The cache key
+     * @return The cached component class names, if any
+     */
+    public Optional<List<String>> get(final String key)
+    {
+        try
+        {
+            return Optional.of(Files.readAllLines(cacheDirectory.resolve(key + EXTENSION), StandardCharsets.UTF_8)
+                    .stream()
+                    .filter(line -> !line.isBlank())
+                    .toList());
+        }
+        catch (NoSuchFileException exc)
+        {
+            return Optional.empty();
+        }
+        catch (IOException exc)
+        {
+            logger.warn("Could not read cached component scan {}: {}", key, exc.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store the component class names for the given key. Entries for other keys are removed.
+     *
+     * @param key            The cache key
+     * @param componentNames The component class names
+     */
+    public void put(final String key, final List<String> componentNames)
+    {
+        try
+        {
+            Files.createDirectories(cacheDirectory);
+            final Path target = cacheDirectory.resolve(key + EXTENSION);
+            final Path tmp = Files.createTempFile(cacheDirectory, key, ".tmp");
+            try
+            {
+                Files.write(tmp, componentNames, StandardCharsets.UTF_8);
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(tmp);
+            }
+            prune(target);
+        }
+        catch (IOException exc)
+        {
+            logger.warn("Could not store component scan {}: {}", key, exc.getMessage());
+        }
+    }
+
+    private void prune(final Path current) throws IOException
+    {
+        try (final Stream<Path> entries = Files.list(cacheDirectory))
+        {
+            entries.filter(path -> !path.equals(current)).forEach(path ->
+            {
+                try
+                {
+                    Files.deleteIfExists(path);
+                }
+                catch (IOException exc)
+                {
+                    throw new UncheckedIOException(exc);
+                }
+            });
+        }
+        catch (UncheckedIOException exc)
+        {
+            throw exc.getCause();
+        }
+    }
+}
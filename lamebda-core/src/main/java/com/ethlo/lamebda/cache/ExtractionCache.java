@@ -0,0 +1,226 @@
+package com.ethlo.lamebda.cache;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Keeps the extracted content of a project archive, keyed by the digest of the archive. The cached tree is never
+ * modified after it has been extracted. Its files are made read-only and hard-linked into the work directory of each
+ * load, so writing to a linked file fails instead of changing the cached file. Where files cannot be made read-only,
+ * they are copied instead.
+ */
+public class ExtractionCache
+{
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionCache.class);
+
+    /**
+     * The age after which an extraction in progress is considered abandoned, and is removed when pruning
+     */
+    private static final Duration ABANDONED_EXTRACTION_AGE = Duration.ofHours(1);
+
+    private static final String TEMP_SEPARATOR = ".";
+    private static final Set<PosixFilePermission> WRITE_PERMISSIONS = EnumSet.of(PosixFilePermission.OWNER_WRITE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE);
+
+    private final Path cacheDirectory;
+    private final boolean readOnlySupported;
+
+    public ExtractionCache(final Path cacheDirectory)
+    {
+        this.cacheDirectory = cacheDirectory;
+        this.readOnlySupported = cacheDirectory.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * Get the extracted tree for the given digest, extracting it if it is not already cached. Entries for other
+     * digests are removed, except extractions still in progress.
+     *
+     * @param digest    The digest of the archive content
+     * @param extractor Extracts the archive into the directory it is given
+     * @return The directory holding the extracted archive
+     */
+    public Path get(final String digest, final Extractor extractor) throws IOException
+    {
+        final Path target = cacheDirectory.resolve(digest);
+        if (Files.isDirectory(target))
+        {
+            logger.debug("Using cached extraction {}", target);
+        }
+        else
+        {
+            Files.createDirectories(cacheDirectory);
+            final Path tmp = Files.createTempDirectory(cacheDirectory, digest + TEMP_SEPARATOR);
+            try
+            {
+                extractor.extract(tmp);
+                if (readOnlySupported)
+                {
+                    makeReadOnly(tmp);
+                }
+                move(tmp, target);
+            }
+            finally
+            {
+                FileSystemUtils.deleteRecursively(tmp);
+            }
+        }
+
+        prune(target);
+        return target;
+    }
+
+    private static void move(final Path tmp, final Path target) throws IOException
+    {
+        try
+        {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exc)
+        {
+            // Moving onto the directory of a concurrent extraction fails with a different exception depending on the platform
+            if (!Files.isDirectory(target))
+            {
+                throw exc;
+            }
+            logger.debug("Extraction {} was cached concurrently", target);
+        }
+    }
+
+    private static void makeReadOnly(final Path directory) throws IOException
+    {
+        Files.walkFileTree(directory, new SimpleFileVisitor<>()
+        {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException
+            {
+                final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(file);
+                permissions.removeAll(WRITE_PERMISSIONS);
+                Files.setPosixFilePermissions(file, permissions);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Populate the target directory with the content of the cached tree. Files are hard-linked when they are read-only
+     * and the file system supports links, and copied otherwise.
+     *
+     * @param source The cached tree
+     * @param target The directory to populate
+     */
+    public void copy(final Path source, final Path target) throws IOException
+    {
+        Files.walkFileTree(source, new SimpleFileVisitor<>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException
+            {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException
+            {
+                final Path targetFile = target.resolve(source.relativize(file).toString());
+                if (readOnlySupported)
+                {
+                    try
+                    {
+                        Files.createLink(targetFile, file);
+                        return FileVisitResult.CONTINUE;
+                    }
+                    catch (UnsupportedOperationException | IOException exc)
+                    {
+                        logger.debug("Could not link {}, copying it instead: {}", file, exc.getMessage());
+                    }
+                }
+                Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void prune(final Path current)
+    {
+        try (final Stream<Path> entries = Files.list(cacheDirectory))
+        {
+            entries.filter(path -> !path.equals(current) && !isExtractionInProgress(path)).forEach(path ->
+            {
+                try
+                {
+                    FileSystemUtils.deleteRecursively(path);
+                }
+                catch (IOException exc)
+                {
+                    logger.warn("Could not delete cached extraction {}: {}", path, exc.getMessage());
+                }
+            });
+        }
+        catch (IOException exc)
+        {
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    private static boolean isExtractionInProgress(final Path path)
+    {
+        if (!path.getFileName().toString().contains(TEMP_SEPARATOR))
+        {
+            return false;
+        }
+
+        try
+        {
+            final FileTime modified = Files.getLastModifiedTime(path);
+            return modified.toInstant().isAfter(Instant.now().minus(ABANDONED_EXTRACTION_AGE));
+        }
+        catch (IOException exc)
+        {
+            // Already moved into place or removed
+            return true;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Extractor
+    {
+        void extract(Path target) throws IOException;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ethlo.lamebda.cache;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * What a load of a project computed from its archive and its resolved configuration: the component classes found in
+ * the base packages, and the request mappings of each controller. A snapshot is only restored by later loads of an
+ * archive with the same digest, the same external class path and the same resolved configuration.
+ */
+public class ProjectSnapshot
+{
+    public static final String BEAN_NAME = "_snapshot";
+
+    private final String archiveDigest;
+    private final String classpathDigest;
+    private final JsonNode configuration;
+    private final boolean restored;
+    private final Map<String, List<MappingSnapshot>> requestMappings;
+    private volatile List<String> components;
+    private volatile boolean modified;
+
+    public ProjectSnapshot(final String archiveDigest, final String classpathDigest, final JsonNode configuration)
+    {
+        this(archiveDigest, classpathDigest, configuration, null, Map.of(), false);
+    }
+
+    ProjectSnapshot(final String archiveDigest, final String classpathDigest, final JsonNode configuration, @Nullable final List<String> components, final Map<String, List<MappingSnapshot>> requestMappings, final boolean restored)
+    {
+        this.archiveDigest = archiveDigest;
+        this.classpathDigest = classpathDigest;
+        this.configuration = configuration;
+        this.components = components;
+        this.requestMappings = new ConcurrentHashMap<>(requestMappings);
+        this.restored = restored;
+        this.modified = !restored;
+    }
+
+    public String getArchiveDigest()
+    {
+        return archiveDigest;
+    }
+
+    /**
+     * @return The digest of the class path entries of the project that are not part of its archive
+     */
+    public String getClasspathDigest()
+    {
+        return classpathDigest;
+    }
+
+    public JsonNode getConfiguration()
+    {
+        return configuration;
+    }
+
+    /**
+     * @return Whether this snapshot was stored by an earlier load
+     */
+    public boolean isRestored()
+    {
+        return restored;
+    }
+
+    /**
+     * @return Whether this snapshot has changed since it was stored
+     */
+    public boolean isModified()
+    {
+        return modified;
+    }
+
+    /**
+     * @return The names of the component classes, or null if they were not recorded
+     */
+    @Nullable
+    public List<String> getComponents()
+    {
+        return components;
+    }
+
+    public void setComponents(final List<String> components)
+    {
+        this.components = List.copyOf(components);
+        this.modified = true;
+    }
+
+    /**
+     * @param className The controller class name
+     * @return The request mappings of the controller, if recorded
+     */
+    public Optional<List<MappingSnapshot>> getRequestMappings(final String className)
+    {
+        return Optional.ofNullable(requestMappings.get(className));
+    }
+
+    /**
+     * @param className The controller class name
+     * @param mappings  The request mappings of the controller
+     */
+    public void putRequestMappings(final String className, final List<MappingSnapshot> mappings)
+    {
+        requestMappings.put(className, List.copyOf(mappings));
+        this.modified = true;
+    }
+
+    public Map<String, List<MappingSnapshot>> getRequestMappings()
+    {
+        return Map.copyOf(requestMappings);
+    }
+
+    /**
+     * The request mapping of a handler method, as computed from its annotations and the project context path
+     */
+    public record MappingSnapshot(String method, List<String> parameterTypes, List<String> patterns, List<String> methods, List<String> params, List<String> headers, List<String> consumes, List<String> produces, @Nullable String name)
+    {
+    }
+}
@@ -0,0 +1,129 @@
+package com.ethlo.lamebda.cache;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.SpringVersion;
+import org.springframework.lang.Nullable;
+
+import com.ethlo.lamebda.util.IoUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps the snapshot of the last load of a project, so the next start can restore it instead of computing it again.
+ * A snapshot is ignored if it was stored by another version of Lamebda or Spring, or for another archive, external
+ * class path or configuration.
+ */
+public class ProjectSnapshotStore
+{
+    private static final Logger logger = LoggerFactory.getLogger(ProjectSnapshotStore.class);
+    private static final String FORMAT_VERSION = "3";
+    private static final String LAMEBDA_VERSION = IoUtil.toString("lamebda-version.info").map(String::trim).orElse(null);
+    private static final String FILENAME = "snapshot.json";
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Path cacheDirectory;
+
+    public ProjectSnapshotStore(final Path cacheDirectory)
+    {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @param archiveDigest   The digest of the project archive
+     * @param classpathDigest The digest of the class path entries of the project that are not part of its archive
+     * @param configuration   The resolved project configuration
+     * @return The stored snapshot, if it was stored for the same archive, external class path and configuration
+     */
+    public Optional<ProjectSnapshot> get(final String archiveDigest, final String classpathDigest, final JsonNode configuration)
+    {
+        final Content content;
+        try (final InputStream in = Files.newInputStream(cacheDirectory.resolve(FILENAME)))
+        {
+            content = mapper.readValue(in, Content.class);
+        }
+        catch (NoSuchFileException exc)
+        {
+            return Optional.empty();
+        }
+        catch (IOException exc)
+        {
+            logger.warn("Could not read project snapshot in {}: {}", cacheDirectory, exc.getMessage());
+            return Optional.empty();
+        }
+
+        if (!FORMAT_VERSION.equals(content.formatVersion())
+                || !Objects.equals(LAMEBDA_VERSION, content.lamebdaVersion())
+                || !Objects.equals(SpringVersion.getVersion(), content.springVersion())
+                || !archiveDigest.equals(content.archiveDigest())
+                || !classpathDigest.equals(content.classpathDigest())
+                || !configuration.equals(content.configuration()))
+        {
+            logger.debug("Ignoring project snapshot in {}, as the versions, the archive, the class path or the configuration have changed", cacheDirectory);
+            return Optional.empty();
+        }
+        return Optional.of(new ProjectSnapshot(archiveDigest, classpathDigest, configuration, content.components(), Optional.ofNullable(content.requestMappings()).orElse(Map.of()), true));
+    }
+
+    /**
+     * Store the given snapshot, replacing the stored snapshot
+     *
+     * @param snapshot The snapshot
+     */
+    public void put(final ProjectSnapshot snapshot)
+    {
+        try
+        {
+            Files.createDirectories(cacheDirectory);
+            final Path tmp = Files.createTempFile(cacheDirectory, FILENAME, ".tmp");
+            try
+            {
+                mapper.writeValue(tmp.toFile(), new Content(FORMAT_VERSION, LAMEBDA_VERSION, SpringVersion.getVersion(), snapshot.getArchiveDigest(), snapshot.getClasspathDigest(), snapshot.getConfiguration(), snapshot.getComponents(), snapshot.getRequestMappings()));
+                Files.move(tmp, cacheDirectory.resolve(FILENAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        catch (IOException exc)
+        {
+            logger.warn("Could not store project snapshot in {}: {}", cacheDirectory, exc.getMessage());
+        }
+    }
+
+    private record Content(String formatVersion, @Nullable String lamebdaVersion, @Nullable String springVersion, String archiveDigest, String classpathDigest, JsonNode configuration, @Nullable List<String> components, Map<String, List<ProjectSnapshot.MappingSnapshot>> requestMappings)
+    {
+    }
+}
@@ -44,6 +44,7 @@ public class LocalProjectDaoImpl implements LocalProjectDao
         {
             return fs
                     .filter(this::isValidProjectDir)
+                    .sorted()
                     .collect(Collectors.toList());
         }
         catch (IOException e)
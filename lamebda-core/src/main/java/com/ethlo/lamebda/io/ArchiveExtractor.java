@@ -0,0 +1,189 @@
+package com.ethlo.lamebda.io;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Extracts zip archives using random access, so the entries can be written by multiple threads. All directories are
+ * created up front, before any file is written.
+ */
+public class ArchiveExtractor
+{
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveExtractor.class);
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism The maximum number of threads used to extract a single archive
+     */
+    public ArchiveExtractor(final int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("The extraction parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Extract the files of an archive
+     *
+     * @param archivePath The archive to extract
+     * @param targetDir   The directory to extract to
+     * @param filter      The entries to extract
+     */
+    public void extract(final Path archivePath, final Path targetDir, final Predicate<ZipEntry> filter) throws IOException
+    {
+        final Path target = targetDir.toAbsolutePath().normalize();
+        try (final ZipFile zipFile = new ZipFile(archivePath.toFile()))
+        {
+            final List<ZipEntry> entries = new ArrayList<>();
+            final TreeSet<Path> directories = new TreeSet<>();
+            for (final ZipEntry ze : Collections.list(zipFile.entries()))
+            {
+                if (!ze.isDirectory() && filter.test(ze))
+                {
+                    directories.add(resolve(target, ze).getParent());
+                    entries.add(ze);
+                }
+            }
+
+            for (final Path directory : directories)
+            {
+                Files.createDirectories(directory);
+            }
+
+            // Largest entries first, so a single large library does not end up last on one thread
+            entries.sort(Comparator.comparingLong(ZipEntry::getSize).reversed());
+
+            final int threads = Math.min(parallelism, entries.size());
+            if (threads <= 1)
+            {
+                for (final ZipEntry ze : entries)
+                {
+                    write(zipFile, ze, target);
+                }
+            }
+            else
+            {
+                extractConcurrently(zipFile, entries, target, threads);
+            }
+        }
+    }
+
+    private void extractConcurrently(final ZipFile zipFile, final List<ZipEntry> entries, final Path target, final int threads) throws IOException
+    {
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final Callable<Void> worker = () ->
+        {
+            int idx;
+            while (!failed.get() && (idx = next.getAndIncrement()) < entries.size())
+            {
+                try
+                {
+                    write(zipFile, entries.get(idx), target);
+                }
+                catch (IOException | RuntimeException exc)
+                {
+                    failed.set(true);
+                    throw exc;
+                }
+            }
+            return null;
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("lamebda-extract-"));
+        try
+        {
+            final List<Future<Void>> futures = executor.invokeAll(Collections.nCopies(threads, worker));
+            for (final Future<Void> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + zipFile.getName(), exc);
+        }
+        catch (ExecutionException exc)
+        {
+            if (exc.getCause() instanceof IOException ioException)
+            {
+                throw ioException;
+            }
+            if (exc.getCause() instanceof RuntimeException runtimeException)
+            {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to extract " + zipFile.getName(), exc.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void write(final ZipFile zipFile, final ZipEntry ze, final Path target) throws IOException
+    {
+        final Path file = resolve(target, ze);
+        logger.debug("Unpacking {} to {}", ze.getName(), file);
+        try (final InputStream in = zipFile.getInputStream(ze))
+        {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path resolve(final Path target, final ZipEntry ze) throws IOException
+    {
+        final Path file = target.resolve(ze.getName()).normalize();
+        if (!file.startsWith(target) || file.equals(target))
+        {
+            throw new IOException("Entry " + ze.getName() + " is outside of the target directory " + target);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,240 @@
+package com.ethlo.lamebda.io;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Coalesces bursts of file system changes per key into a single action. The action is performed once no changes have
+ * been reported for the quiet period and the size and modification time of all files in the watched directory are
+ * unchanged since the previous check, or when the max wait has passed since the first change.
+ *
+ * <p>The checks run on a single scheduler thread, and the actions on a separate pool, so a slow action does not delay
+ * the checks of other keys. Actions for the same key are performed one at a time.</p>
+ */
+public class ChangeCoalescer implements AutoCloseable
+{
+    private static final Logger logger = LoggerFactory.getLogger(ChangeCoalescer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService actionExecutor;
+    private final long quietPeriodNanos;
+    private final long maxWaitNanos;
+    private final Map<String, Pending> pending = new HashMap<>();
+    private final Set<String> running = new HashSet<>();
+
+    public ChangeCoalescer(final Duration quietPeriod, final Duration maxWait)
+    {
+        this.quietPeriodNanos = quietPeriod.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        final CustomizableThreadFactory schedulerThreadFactory = new CustomizableThreadFactory("lamebda-reload-scheduler-");
+        schedulerThreadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(schedulerThreadFactory);
+        final CustomizableThreadFactory actionThreadFactory = new CustomizableThreadFactory("lamebda-reload-");
+        actionThreadFactory.setDaemon(true);
+        this.actionExecutor = Executors.newCachedThreadPool(actionThreadFactory);
+    }
+
+    /**
+     * Register a change for the given key. Any action already pending for the key is replaced
+     *
+     * @param key       The key to coalesce changes for
+     * @param directory The directory that has to be stable before the action is performed
+     * @param exclude   Paths within the directory to ignore when checking for stability
+     * @param action    The action to perform
+     */
+    public void submit(final String key, final Path directory, final Predicate<Path> exclude, final Runnable action)
+    {
+        final long now = System.nanoTime();
+        scheduler.execute(() ->
+        {
+            final Pending existing = pending.get(key);
+            if (existing != null)
+            {
+                existing.lastChange = now;
+                existing.action = action;
+            }
+            else
+            {
+                pending.put(key, new Pending(directory, exclude, action, now));
+                scheduler.schedule(() -> check(key), quietPeriodNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void check(final String key)
+    {
+        final Pending p = pending.get(key);
+        final long now = System.nanoTime();
+        final boolean expired = now - p.firstChange >= maxWaitNanos;
+        final long quietRemaining = quietPeriodNanos - (now - p.lastChange);
+        if (running.contains(key))
+        {
+            // Wait for the previous action to complete, so the changes it did not see are acted on afterwards
+            scheduler.schedule(() -> check(key), quietPeriodNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        if (!expired && quietRemaining > 0)
+        {
+            scheduler.schedule(() -> check(key), quietRemaining, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        final Set<FileState> state = getState(p.directory, p.exclude);
+        if (!expired && (state == null || !state.equals(p.state)))
+        {
+            logger.debug("Files of {} are still changing", key);
+            p.state = state;
+            scheduler.schedule(() -> check(key), quietPeriodNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        pending.remove(key);
+        running.add(key);
+        try
+        {
+            actionExecutor.execute(() -> perform(key, p.action));
+        }
+        catch (RejectedExecutionException exc)
+        {
+            logger.debug("Not processing changes for {}, as the coalescer is closed", key);
+        }
+    }
+
+    private void perform(final String key, final Runnable action)
+    {
+        try
+        {
+            action.run();
+        }
+        catch (Exception exc)
+        {
+            logger.error("An error occurred processing changes for {}", key, exc);
+        }
+        finally
+        {
+            try
+            {
+                scheduler.execute(() -> running.remove(key));
+            }
+            catch (RejectedExecutionException exc)
+            {
+                // Closed while performing the action
+            }
+        }
+    }
+
+    private Set<FileState> getState(final Path directory, final Predicate<Path> exclude)
+    {
+        final Set<FileState> result = new HashSet<>();
+        try
+        {
+            // Excluded directories, such as the work directory of the project, are not walked at all
+            Files.walkFileTree(directory, new SimpleFileVisitor<>()
+            {
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs)
+                {
+                    if (exclude.test(dir))
+                    {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    result.add(new FileState(dir, attrs.size(), attrs.lastModifiedTime()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs)
+                {
+                    if (!exclude.test(file))
+                    {
+                        result.add(new FileState(file, attrs.size(), attrs.lastModifiedTime()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return result;
+        }
+        catch (NoSuchFileException exc)
+        {
+            // The directory itself is gone, or one of its files was deleted while walking
+            return Files.notExists(directory) ? Set.of() : null;
+        }
+        catch (IOException exc)
+        {
+            // The files are being modified while we are looking at them
+            return null;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        scheduler.shutdownNow();
+        actionExecutor.shutdownNow();
+    }
+
+    private record FileState(Path path, long size, FileTime modified)
+    {
+    }
+
+    private static class Pending
+    {
+        private final Path directory;
+        private final Predicate<Path> exclude;
+        private final long firstChange;
+        private long lastChange;
+        private Runnable action;
+        private Set<FileState> state;
+
+        private Pending(final Path directory, final Predicate<Path> exclude, final Runnable action, final long firstChange)
+        {
+            this.directory = directory;
+            this.exclude = exclude;
+            this.action = action;
+            this.firstChange = firstChange;
+            this.lastChange = firstChange;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ethlo.lamebda.lifecycle;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * The phases of loading a project, in the order they run
+ */
+public enum LoadPhase
+{
+    /**
+     * Extracting the project archive into the work directory
+     */
+    EXTRACT,
+
+    /**
+     * Reading the project configuration
+     */
+    CONFIGURATION,
+
+    /**
+     * Restoring the snapshot of a previous load of the same archive
+     */
+    SNAPSHOT,
+
+    /**
+     * Creating the class loader of the project
+     */
+    CLASS_LOADER,
+
+    /**
+     * Setting up the project context and registering the bean definitions of the project
+     */
+    BEAN_DEFINITIONS,
+
+    /**
+     * Refreshing the project context, which creates the beans of the project
+     */
+    REFRESH,
+
+    /**
+     * Publishing the project, which registers its routes
+     */
+    ACTIVATION;
+
+    /**
+     * @return The name of the phase as shown in the actuator endpoint and metrics
+     */
+    public String getTagValue()
+    {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,176 @@
+package com.ethlo.lamebda.lifecycle;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the requests to a project that is closed when idle. The time of the last access is only updated when it
+ * has changed by at least a second, so requests to the same project do not contend on it. The activity of a project
+ * is kept across its versions, so the number of evictions is not reset when the project is loaded again.
+ *
+ * <p>The number of requests in progress and the closing of the project share a single counter, so a project is only
+ * closed if no request has started, and no request can start once the project is closing.</p>
+ */
+public class ProjectActivity
+{
+    public static final String BEAN_NAME = "_project_activity";
+    private static final long RESOLUTION_MILLIS = 1_000;
+    private static final int CLOSING = -1;
+
+    private final String alias;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger evictions = new AtomicInteger();
+    private volatile CompletableFuture<Void> eviction = CompletableFuture.completedFuture(null);
+    private volatile long lastAccess = System.currentTimeMillis();
+    private volatile long idleTimeoutMillis;
+
+    public ProjectActivity(final String alias)
+    {
+        this.alias = alias;
+    }
+
+    /**
+     * Called when a new version of the project is loaded
+     *
+     * @param idleTimeoutMillis How long the project can go without requests before it is closed
+     */
+    public void loaded(final long idleTimeoutMillis)
+    {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.lastAccess = System.currentTimeMillis();
+        active.compareAndSet(CLOSING, 0);
+    }
+
+    /**
+     * Called when the handling of a request starts. A request that is not started must not be handled by the project,
+     * and is not to be reported as completed
+     *
+     * @return Whether the request was started, false if the project is being closed or has been closed
+     */
+    public boolean started()
+    {
+        int current;
+        do
+        {
+            current = active.get();
+            if (current == CLOSING)
+            {
+                return false;
+            }
+        } while (!active.compareAndSet(current, current + 1));
+
+        accessed();
+        return true;
+    }
+
+    /**
+     * Called when the handling of a request that was started has completed
+     */
+    public void completed()
+    {
+        active.decrementAndGet();
+        accessed();
+    }
+
+    private void accessed()
+    {
+        final long now = System.currentTimeMillis();
+        if (now - lastAccess >= RESOLUTION_MILLIS)
+        {
+            lastAccess = now;
+        }
+    }
+
+    /**
+     * @param now The current time in milliseconds
+     * @return Whether the project has no requests in progress, and has received none for the idle timeout
+     */
+    public boolean isIdle(final long now)
+    {
+        return now - lastAccess >= idleTimeoutMillis && active.get() == 0;
+    }
+
+    /**
+     * Mark the project as closing if it is idle. Once marked, no requests can start until a new version of the project
+     * is loaded
+     *
+     * @param now The current time in milliseconds
+     * @return Whether the project was idle and is now closing, in which case {@link #evicted()} must be called once it
+     * is closed
+     */
+    public boolean closing(final long now)
+    {
+        if (now - lastAccess < idleTimeoutMillis)
+        {
+            return false;
+        }
+
+        // Published before marking, so requests that are not started can wait for the eviction to complete
+        final CompletableFuture<Void> next = new CompletableFuture<>();
+        eviction = next;
+        if (active.compareAndSet(0, CLOSING))
+        {
+            return true;
+        }
+        next.complete(null);
+        return false;
+    }
+
+    /**
+     * Called when the project is closed due to being idle, or failed to close after {@link #closing(long)}
+     */
+    public void evicted()
+    {
+        evictions.incrementAndGet();
+        eviction.complete(null);
+    }
+
+    /**
+     * @return A future completing once the eviction of the project is done, if it is being closed
+     */
+    public CompletableFuture<Void> getEviction()
+    {
+        return eviction;
+    }
+
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    public Instant getLastAccess()
+    {
+        return Instant.ofEpochMilli(lastAccess);
+    }
+
+    public long getIdleTimeoutMillis()
+    {
+        return idleTimeoutMillis;
+    }
+
+    public int getEvictions()
+    {
+        return evictions.get();
+    }
+}
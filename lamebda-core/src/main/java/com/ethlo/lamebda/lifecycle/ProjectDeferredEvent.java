@@ -0,0 +1,49 @@
+package com.ethlo.lamebda.lifecycle;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.springframework.context.ApplicationEvent;
+
+import com.ethlo.lamebda.ProjectConfiguration;
+
+/**
+ * Published when the load of a lazy project is deferred until the first request to its context path
+ */
+public class ProjectDeferredEvent extends ApplicationEvent
+{
+    private final String alias;
+
+    public ProjectDeferredEvent(final String alias, final ProjectConfiguration cfg)
+    {
+        super(cfg);
+        this.alias = alias;
+    }
+
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    public ProjectConfiguration getProjectConfiguration()
+    {
+        return (ProjectConfiguration) getSource();
+    }
+}
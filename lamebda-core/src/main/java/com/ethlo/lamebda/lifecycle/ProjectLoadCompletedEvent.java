@@ -0,0 +1,39 @@
+package com.ethlo.lamebda.lifecycle;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when an attempt to load a project has completed, whether the project was loaded or not
+ */
+public class ProjectLoadCompletedEvent extends ApplicationEvent
+{
+    public ProjectLoadCompletedEvent(final ProjectLoadReport report)
+    {
+        super(report);
+    }
+
+    public ProjectLoadReport getReport()
+    {
+        return (ProjectLoadReport) getSource();
+    }
+}
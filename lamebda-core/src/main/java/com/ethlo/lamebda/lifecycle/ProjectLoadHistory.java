@@ -0,0 +1,69 @@
+package com.ethlo.lamebda.lifecycle;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the reports of the most recent loads of each project
+ */
+public class ProjectLoadHistory
+{
+    private final int size;
+    private final Map<String, Deque<ProjectLoadReport>> reports = new HashMap<>();
+
+    /**
+     * @param size The number of reports to keep per project
+     */
+    public ProjectLoadHistory(final int size)
+    {
+        this.size = size;
+    }
+
+    public synchronized void add(final ProjectLoadReport report)
+    {
+        if (size == 0)
+        {
+            return;
+        }
+
+        final Deque<ProjectLoadReport> projectReports = reports.computeIfAbsent(report.getAlias(), k -> new ArrayDeque<>(size));
+        if (projectReports.size() == size)
+        {
+            projectReports.removeLast();
+        }
+        projectReports.addFirst(report);
+    }
+
+    /**
+     * @param alias The project alias
+     * @return The reports of the recent loads of the project, the most recent first
+     */
+    public synchronized List<ProjectLoadReport> get(final String alias)
+    {
+        return new ArrayList<>(reports.getOrDefault(alias, new ArrayDeque<>(0)));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ethlo.lamebda.lifecycle;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * The timings and figures of a single load of a project. Figures that were not determined, as the load failed before
+ * reaching them, are -1
+ */
+public class ProjectLoadReport
+{
+    private final String alias;
+    private final String version;
+    private final OffsetDateTime started;
+    private final Duration duration;
+    private final Map<LoadPhase, Duration> phases;
+    private final long archiveSize;
+    private final int classCount;
+    private final int beanCount;
+    private final String error;
+
+    public ProjectLoadReport(final String alias, @Nullable final String version, final OffsetDateTime started, final Duration duration, final Map<LoadPhase, Duration> phases, final long archiveSize, final int classCount, final int beanCount, @Nullable final String error)
+    {
+        this.alias = alias;
+        this.version = version;
+        this.started = started;
+        this.duration = duration;
+        this.phases = Collections.unmodifiableMap(phases.isEmpty() ? new EnumMap<>(LoadPhase.class) : new EnumMap<>(phases));
+        this.archiveSize = archiveSize;
+        this.classCount = classCount;
+        this.beanCount = beanCount;
+        this.error = error;
+    }
+
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    @Nullable
+    public String getVersion()
+    {
+        return version;
+    }
+
+    public OffsetDateTime getStarted()
+    {
+        return started;
+    }
+
+    /**
+     * @return The total time of the load, including time not attributed to any phase
+     */
+    public Duration getDuration()
+    {
+        return duration;
+    }
+
+    /**
+     * @return The time spent in each phase that was reached, in phase order
+     */
+    public Map<LoadPhase, Duration> getPhases()
+    {
+        return phases;
+    }
+
+    public long getArchiveSize()
+    {
+        return archiveSize;
+    }
+
+    /**
+     * @return The number of classes defined by the class loader of the project
+     */
+    public int getClassCount()
+    {
+        return classCount;
+    }
+
+    public int getBeanCount()
+    {
+        return beanCount;
+    }
+
+    public boolean isSuccessful()
+    {
+        return error == null;
+    }
+
+    /**
+     * @return The error that made the load fail, or null if the project was loaded
+     */
+    @Nullable
+    public String getError()
+    {
+        return error;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ethlo.lamebda.lifecycle;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Measures the phases of a single load of a project, and collects the figures describing what was loaded
+ */
+public class ProjectLoadTimer
+{
+    private final String alias;
+    private final OffsetDateTime started = OffsetDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final Map<LoadPhase, Duration> phases = new EnumMap<>(LoadPhase.class);
+    private String version;
+    private long archiveSize = -1;
+    private int classCount = -1;
+    private int beanCount = -1;
+
+    public ProjectLoadTimer(final String alias)
+    {
+        this.alias = alias;
+    }
+
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    /**
+     * Run the given task, and add the time it took to the given phase
+     *
+     * @param phase The phase the task is part of
+     * @param task  The task to run
+     */
+    public void time(final LoadPhase phase, final Runnable task)
+    {
+        time(phase, () ->
+        {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the given task, and add the time it took to the given phase
+     *
+     * @param phase The phase the task is part of
+     * @param task  The task to run
+     * @return The result of the task
+     */
+    public <T> T time(final LoadPhase phase, final Supplier<T> task)
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            return task.get();
+        }
+        finally
+        {
+            phases.merge(phase, Duration.ofNanos(System.nanoTime() - start), Duration::plus);
+        }
+    }
+
+    public void setVersion(final String version)
+    {
+        this.version = version;
+    }
+
+    public void setArchiveSize(final long archiveSize)
+    {
+        this.archiveSize = archiveSize;
+    }
+
+    public void setClassCount(final int classCount)
+    {
+        this.classCount = classCount;
+    }
+
+    public void setBeanCount(final int beanCount)
+    {
+        this.beanCount = beanCount;
+    }
+
+    /**
+     * @param failure The error that made the load fail, or null if the project was loaded
+     * @return The report of the load
+     */
+    public ProjectLoadReport complete(@Nullable final Throwable failure)
+    {
+        final Duration duration = Duration.ofNanos(System.nanoTime() - startNanos);
+        return new ProjectLoadReport(alias, version, started, duration, phases, archiveSize, classCount, beanCount, failure != null ? failure.toString() : null);
+    }
+}
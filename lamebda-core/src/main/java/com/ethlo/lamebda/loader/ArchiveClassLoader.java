@@ -0,0 +1,431 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class loader that serves classes and resources from the jar files nested in the library directory of a project
+ * archive, without extracting them. The archive is memory-mapped, so stored (uncompressed) nested jars are read
+ * directly from the page cache, while compressed nested jars are inflated into memory once.
+ *
+ * <p>The mapping is only released when the loader is collected, and the archive must not be modified while it
+ * is mapped, as reading a truncated mapping fails with an {@link InternalError}. Pass a hard link to the deployed
+ * archive, so the deployed archive can be replaced by moving a new file into place, or a copy where links are not
+ * supported. On Windows, a mapped file cannot be deleted or replaced until the mapping is released, so the link may
+ * outlive the loader until it is collected.</p>
+ */
+public class ArchiveClassLoader extends URLClassLoader
+{
+    public static final String PROTOCOL = "lamebda-archive";
+    private static final String SEPARATOR = "!/";
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveClassLoader.class);
+
+    static
+    {
+        registerAsParallelCapable();
+    }
+
+    private final Path archivePath;
+    private final Map<String, NestedJar> jars = new LinkedHashMap<>();
+    private final Map<String, NestedJar> index = new HashMap<>();
+    private final URLStreamHandler handler = new ArchiveUrlStreamHandler();
+    private final AtomicInteger definedClasses = new AtomicInteger();
+
+    /**
+     * @param name         The name of the class loader, used in resource URLs
+     * @param archivePath  The project archive
+     * @param libDirectory The directory within the archive holding the library jars
+     * @param urls         Additional class path URLs, consulted after the nested jars
+     * @param parent       The parent class loader
+     */
+    public ArchiveClassLoader(final String name, final Path archivePath, final String libDirectory, final URL[] urls, final ClassLoader parent) throws IOException
+    {
+        super(Objects.requireNonNull(name), urls, parent);
+        this.archivePath = archivePath;
+
+        final MappedByteBuffer mapped;
+        try (final FileChannel channel = FileChannel.open(archivePath, StandardOpenOption.READ))
+        {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final ZipContent archive = new ZipContent(mapped);
+        final String prefix = libDirectory + "/";
+        final List<ZipContent.Entry> libraries = archive.getEntries().values().stream()
+                .filter(e -> e.name().startsWith(prefix) && e.name().indexOf('/', prefix.length()) == -1 && e.name().endsWith(".jar"))
+                .sorted(Comparator.comparing(ZipContent.Entry::name))
+                .toList();
+
+        for (final ZipContent.Entry library : libraries)
+        {
+            if (library.method() != 0)
+            {
+                logger.debug("Nested library {} in {} is compressed and will be inflated into memory", library.name(), archivePath);
+            }
+            final NestedJar jar = new NestedJar(library.name(), new ZipContent(archive.read(library)));
+            jars.put(jar.name, jar);
+            for (final String entryName : jar.names)
+            {
+                index.putIfAbsent(entryName, jar);
+            }
+            logger.debug("Adding library classpath {}", jar.baseUrl);
+        }
+    }
+
+    public Path getArchivePath()
+    {
+        return archivePath;
+    }
+
+    private Class<?> counted(final Class<?> type)
+    {
+        definedClasses.incrementAndGet();
+        return type;
+    }
+
+    /**
+     * @return The number of classes defined by this class loader
+     */
+    public int getDefinedClassCount()
+    {
+        return definedClasses.get();
+    }
+
+    /**
+     * @param directory The URL of a directory served by this class loader, as returned from {@link #findResources(String)}
+     * @return The URLs of all entries below the given directory within the same nested jar
+     */
+    public List<URL> list(final URL directory) throws IOException
+    {
+        final Location location = locate(directory);
+        final List<URL> result = new ArrayList<>();
+        for (final String entryName : location.jar.names)
+        {
+            if (entryName.startsWith(location.entryName) && entryName.length() > location.entryName.length())
+            {
+                result.add(location.jar.url(entryName));
+            }
+        }
+        return result;
+    }
+
+    private Location locate(final URL url) throws IOException
+    {
+        final String path = url.getPath();
+        final String loaderPrefix = "/" + getName() + "/";
+        final int separator = path.indexOf(SEPARATOR);
+        if (!PROTOCOL.equals(url.getProtocol()) || !path.startsWith(loaderPrefix) || separator == -1)
+        {
+            throw new MalformedURLException("Not a resource of " + this + ": " + url);
+        }
+
+        final NestedJar jar = jars.get(path.substring(loaderPrefix.length(), separator));
+        final String entryName = path.substring(separator + SEPARATOR.length());
+        if (jar == null || !jar.names.contains(entryName))
+        {
+            throw new FileNotFoundException(url.toString());
+        }
+        return new Location(jar, entryName);
+    }
+
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException
+    {
+        final String path = name.replace('.', '/') + ".class";
+        final NestedJar jar = index.get(path);
+        if (jar == null)
+        {
+            return counted(super.findClass(name));
+        }
+
+        try
+        {
+            final ByteBuffer bytes = jar.content.read(jar.content.getEntry(path));
+            definePackageIfNeeded(name, jar);
+            return counted(defineClass(name, bytes, jar.protectionDomain));
+        }
+        catch (IOException exc)
+        {
+            throw new ClassNotFoundException(name, exc);
+        }
+    }
+
+    private void definePackageIfNeeded(final String className, final NestedJar jar) throws IOException
+    {
+        final int lastDot = className.lastIndexOf('.');
+        if (lastDot == -1)
+        {
+            return;
+        }
+
+        final String packageName = className.substring(0, lastDot);
+        if (getDefinedPackage(packageName) != null)
+        {
+            return;
+        }
+
+        try
+        {
+            final Manifest manifest = jar.getManifest();
+            if (manifest != null)
+            {
+                definePackage(packageName, manifest, jar.baseUrl);
+            }
+            else
+            {
+                definePackage(packageName, null, null, null, null, null, null, null);
+            }
+        }
+        catch (IllegalArgumentException exc)
+        {
+            // Defined concurrently by another thread
+            if (getDefinedPackage(packageName) == null)
+            {
+                throw exc;
+            }
+        }
+    }
+
+    @Override
+    public URL findResource(final String name)
+    {
+        final NestedJar jar = index.get(name);
+        if (jar != null)
+        {
+            return jar.url(name);
+        }
+        return super.findResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> findResources(final String name) throws IOException
+    {
+        final List<URL> result = new ArrayList<>();
+        for (final NestedJar jar : jars.values())
+        {
+            if (jar.names.contains(name))
+            {
+                result.add(jar.url(name));
+            }
+        }
+        result.addAll(Collections.list(super.findResources(name)));
+        return Collections.enumeration(result);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "{name=" + getName() + ", archive=" + archivePath + "}";
+    }
+
+    private static Set<String> allNames(final ZipContent content)
+    {
+        // Include parent directories, as these are often not present as separate entries
+        final Set<String> result = new HashSet<>(content.getEntries().keySet());
+        for (final String entryName : content.getEntries().keySet())
+        {
+            int idx = entryName.indexOf('/');
+            while (idx != -1 && idx < entryName.length() - 1)
+            {
+                result.add(entryName.substring(0, idx + 1));
+                idx = entryName.indexOf('/', idx + 1);
+            }
+        }
+        return result;
+    }
+
+    private class NestedJar
+    {
+        private final String name;
+        private final ZipContent content;
+        private final Set<String> names;
+        private final URL baseUrl;
+        private final ProtectionDomain protectionDomain;
+        private volatile Manifest manifest;
+        private volatile boolean manifestRead;
+
+        NestedJar(final String name, final ZipContent content)
+        {
+            this.name = name;
+            this.content = content;
+            this.names = allNames(content);
+            this.baseUrl = createUrl(name + SEPARATOR);
+            this.protectionDomain = new ProtectionDomain(new CodeSource(baseUrl, (Certificate[]) null), null, ArchiveClassLoader.this, null);
+        }
+
+        URL url(final String entryName)
+        {
+            return createUrl(name + SEPARATOR + entryName);
+        }
+
+        private URL createUrl(final String path)
+        {
+            try
+            {
+                return new URL(PROTOCOL, null, -1, "/" + getName() + "/" + path, handler);
+            }
+            catch (MalformedURLException exc)
+            {
+                throw new UncheckedIOException(exc);
+            }
+        }
+
+        Manifest getManifest() throws IOException
+        {
+            if (!manifestRead)
+            {
+                final ZipContent.Entry entry = content.getEntry(JarFile.MANIFEST_NAME);
+                if (entry != null)
+                {
+                    try (final InputStream in = new ByteBufferInputStream(content.read(entry)))
+                    {
+                        final Manifest read = new Manifest(in);
+                        manifest = read.getMainAttributes().containsKey(Attributes.Name.MANIFEST_VERSION) ? read : null;
+                    }
+                }
+                manifestRead = true;
+            }
+            return manifest;
+        }
+    }
+
+    private class ArchiveUrlStreamHandler extends URLStreamHandler
+    {
+        @Override
+        protected URLConnection openConnection(final URL url) throws IOException
+        {
+            final Location location = locate(url);
+            return new EntryConnection(url, location.jar.content, location.jar.content.getEntry(location.entryName));
+        }
+    }
+
+    private record Location(NestedJar jar, String entryName)
+    {
+    }
+
+    private static class EntryConnection extends URLConnection
+    {
+        private final ZipContent content;
+        private final ZipContent.Entry entry;
+
+        EntryConnection(final URL url, final ZipContent content, final ZipContent.Entry entry)
+        {
+            super(url);
+            this.content = content;
+            this.entry = entry;
+        }
+
+        @Override
+        public void connect()
+        {
+            connected = true;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException
+        {
+            if (entry == null || entry.isDirectory())
+            {
+                throw new FileNotFoundException(url + " is a directory");
+            }
+            return new ByteBufferInputStream(content.read(entry));
+        }
+
+        @Override
+        public long getContentLengthLong()
+        {
+            return entry != null ? entry.size() : -1;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream
+    {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer)
+        {
+            this.buffer = buffer.duplicate();
+        }
+
+        @Override
+        public int read()
+        {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+            if (!buffer.hasRemaining())
+            {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available()
+        {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * Resource pattern resolver that can list the directories served by an {@link ArchiveClassLoader}, so that
+ * component scanning works for classes loaded directly from a project archive.
+ */
+public class ArchiveResourcePatternResolver extends PathMatchingResourcePatternResolver
+{
+    private final ArchiveClassLoader classLoader;
+
+    public ArchiveResourcePatternResolver(final ArchiveClassLoader classLoader)
+    {
+        super(classLoader);
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    protected Set<Resource> doFindPathMatchingFileResources(final Resource rootDirResource, final String subPattern) throws IOException
+    {
+        final URL rootDirUrl = rootDirResource.getURL();
+        if (!ArchiveClassLoader.PROTOCOL.equals(rootDirUrl.getProtocol()))
+        {
+            return super.doFindPathMatchingFileResources(rootDirResource, subPattern);
+        }
+
+        final String rootDirPath = rootDirUrl.getPath();
+        final Set<Resource> result = new LinkedHashSet<>();
+        for (final URL url : classLoader.list(rootDirUrl))
+        {
+            final String relativePath = url.getPath().substring(rootDirPath.length());
+            if (getPathMatcher().match(subPattern, relativePath))
+            {
+                result.add(new UrlResource(url));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,473 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.sql.DriverManager;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Tracks the class loaders of the projects, and reports the ones that are still reachable after the project was
+ * closed.
+ * <p>
+ * When a class loader is registered, a canary object is created alongside it, so it has the same age. When the class
+ * loader is closed, the canary is released. Once a garbage collection has reclaimed the canary, objects of the age of
+ * the class loader are collected, and a class loader that survives {@link #GRACE_CYCLES} more collections is reported
+ * as leaked. This avoids reporting class loaders that have simply not been reached by an old generation collection yet.
+ */
+public class ClassLoaderLeakDetector
+{
+    /**
+     * The number of garbage collections a closed class loader may survive after its canary was reclaimed
+     */
+    public static final int GRACE_CYCLES = 2;
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassLoaderLeakDetector.class);
+
+    private final Set<Generation> generations = ConcurrentHashMap.newKeySet();
+    private final AtomicLong collected = new AtomicLong();
+
+    public ClassLoaderLeakDetector()
+    {
+        GcListener.register(this);
+    }
+
+    /**
+     * Start tracking a class loader
+     *
+     * @param alias  The project alias
+     * @param loader The class loader of the project
+     * @return The handle to report the closing of the class loader to
+     */
+    public Generation register(final String alias, final ClassLoader loader)
+    {
+        final Generation generation = new Generation(alias, loader);
+        generations.add(generation);
+        return generation;
+    }
+
+    /**
+     * Update the state of the closed class loaders. Called after each garbage collection, where supported by the JVM
+     */
+    public synchronized void check()
+    {
+        final long gcCount = getGcCount();
+        for (final Generation generation : generations)
+        {
+            if (generation.update(gcCount))
+            {
+                logger.warn("The class loader of project {} version {}, closed at {}, is still reachable after being eligible for collection. Probable causes: {}",
+                        generation.alias, generation.version, generation.closedAt, findSuspects(generation));
+            }
+
+            if (generation.state == State.COLLECTED)
+            {
+                generations.remove(generation);
+                collected.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return The number of class loaders of projects that are not closed
+     */
+    public int getOpenCount()
+    {
+        return count(State.OPEN);
+    }
+
+    /**
+     * @return The number of class loaders of closed projects that are not collected yet, but not considered leaked
+     */
+    public int getPendingCount()
+    {
+        return count(State.PENDING);
+    }
+
+    /**
+     * @return The number of class loaders of closed projects considered leaked
+     */
+    public int getLeakedCount()
+    {
+        return count(State.LEAKED);
+    }
+
+    /**
+     * @return The number of class loaders of closed projects that have been collected
+     */
+    public long getCollectedCount()
+    {
+        check();
+        return collected.get();
+    }
+
+    private int count(final State state)
+    {
+        check();
+        return (int) generations.stream().filter(g -> g.state == state).count();
+    }
+
+    /**
+     * @return The class loaders considered leaked, with the probable reasons they are still reachable
+     */
+    public List<Leak> getLeaks()
+    {
+        check();
+        final List<Leak> leaks = new ArrayList<>();
+        for (final Generation generation : generations)
+        {
+            if (generation.state == State.LEAKED)
+            {
+                leaks.add(new Leak(generation.alias, generation.version, generation.closedAt, getGcCount() - generation.gcCountAtClose, findSuspects(generation)));
+            }
+        }
+        return leaks;
+    }
+
+    private static long getGcCount()
+    {
+        long count = 0;
+        for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static List<String> findSuspects(final Generation generation)
+    {
+        final ClassLoader loader = generation.loader.get();
+        final List<String> suspects = new ArrayList<>();
+        if (loader == null)
+        {
+            return suspects;
+        }
+
+        final Collection<Thread> threads = Thread.getAllStackTraces().keySet();
+        for (final Thread thread : threads)
+        {
+            if (thread.getContextClassLoader() == loader)
+            {
+                suspects.add("Thread '" + thread.getName() + "' has the project class loader as context class loader");
+            }
+            if (thread.getClass().getClassLoader() == loader)
+            {
+                suspects.add("Thread '" + thread.getName() + "' is an instance of project class " + thread.getClass().getName());
+            }
+        }
+
+        if (ThreadLocals.isAccessible())
+        {
+            for (final Thread thread : threads)
+            {
+                ThreadLocals.findValues(thread, loader).forEach(type -> suspects.add("Thread '" + thread.getName() + "' has a thread-local value of project class " + type));
+            }
+        }
+        else
+        {
+            suspects.add("Thread-locals were not inspected, as java.lang is not open to Lamebda (--add-opens java.base/java.lang=ALL-UNNAMED)");
+        }
+
+        if (Drivers.isAccessible())
+        {
+            Drivers.find(loader).forEach(type -> suspects.add("JDBC driver " + type + " is registered with the DriverManager"));
+        }
+        else
+        {
+            suspects.add("JDBC drivers were not inspected, as java.sql is not open to Lamebda (--add-opens java.sql/java.sql=ALL-UNNAMED)");
+        }
+        return suspects;
+    }
+
+    @Nullable
+    private static Field accessibleField(final Class<?> type, final String name)
+    {
+        try
+        {
+            final Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        }
+        catch (NoSuchFieldException | RuntimeException exc)
+        {
+            logger.debug("Field {} of {} is not accessible: {}", name, type.getName(), exc.toString());
+            return null;
+        }
+    }
+
+    private enum State
+    {
+        OPEN, PENDING, LEAKED, COLLECTED
+    }
+
+    /**
+     * The class loader of a single load of a project
+     */
+    public class Generation
+    {
+        private final String alias;
+        private final WeakReference<ClassLoader> loader;
+        private final WeakReference<Object> canary;
+        private Object canaryHolder = new Object();
+        private volatile State state = State.OPEN;
+        private String version;
+        private OffsetDateTime closedAt;
+        private long gcCountAtClose;
+        private long gcCountAtCanaryCollected = -1;
+
+        private Generation(final String alias, final ClassLoader loader)
+        {
+            this.alias = alias;
+            this.loader = new WeakReference<>(loader);
+            this.canary = new WeakReference<>(canaryHolder);
+        }
+
+        /**
+         * Report that the class loader was closed, and should be collected
+         *
+         * @param version The version of the project
+         */
+        public void closed(@Nullable final String version)
+        {
+            synchronized (ClassLoaderLeakDetector.this)
+            {
+                this.version = version;
+                this.closedAt = OffsetDateTime.now();
+                this.gcCountAtClose = getGcCount();
+                this.canaryHolder = null;
+                this.state = State.PENDING;
+            }
+        }
+
+        /**
+         * @return Whether the class loader is now considered leaked
+         */
+        private boolean update(final long gcCount)
+        {
+            if (state == State.OPEN)
+            {
+                return false;
+            }
+
+            if (loader.refersTo(null))
+            {
+                state = State.COLLECTED;
+                return false;
+            }
+
+            if (gcCountAtCanaryCollected == -1 && canary.refersTo(null))
+            {
+                gcCountAtCanaryCollected = gcCount;
+            }
+
+            if (state == State.PENDING && gcCountAtCanaryCollected != -1 && gcCount - gcCountAtCanaryCollected >= GRACE_CYCLES)
+            {
+                state = State.LEAKED;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A class loader of a closed project that is still reachable
+     *
+     * @param alias    The project alias
+     * @param version  The version of the project
+     * @param closedAt When the project was closed
+     * @param gcCycles The number of garbage collections since the project was closed
+     * @param suspects The probable reasons the class loader is still reachable
+     */
+    public record Leak(String alias, String version, OffsetDateTime closedAt, long gcCycles, List<String> suspects)
+    {
+    }
+
+    private static class ThreadLocals
+    {
+        private static final Field THREAD_LOCALS = accessibleField(Thread.class, "threadLocals");
+        private static final Field INHERITABLE_THREAD_LOCALS = accessibleField(Thread.class, "inheritableThreadLocals");
+
+        static boolean isAccessible()
+        {
+            return THREAD_LOCALS != null && INHERITABLE_THREAD_LOCALS != null;
+        }
+
+        static List<String> findValues(final Thread thread, final ClassLoader loader)
+        {
+            final List<String> types = new ArrayList<>();
+            try
+            {
+                for (final Field mapField : List.of(THREAD_LOCALS, INHERITABLE_THREAD_LOCALS))
+                {
+                    final Object map = mapField.get(thread);
+                    final Field tableField = map != null ? accessibleField(map.getClass(), "table") : null;
+                    final Object[] table = tableField != null ? (Object[]) tableField.get(map) : null;
+                    if (table == null)
+                    {
+                        continue;
+                    }
+
+                    for (final Object entry : table)
+                    {
+                        final Field valueField = entry != null ? accessibleField(entry.getClass(), "value") : null;
+                        if (valueField == null)
+                        {
+                            continue;
+                        }
+
+                        final Object key = ((WeakReference<?>) entry).get();
+                        final Object value = valueField.get(entry);
+                        if (key != null && key.getClass().getClassLoader() == loader)
+                        {
+                            types.add(key.getClass().getName());
+                        }
+                        else if (value == loader)
+                        {
+                            types.add(loader.getClass().getName());
+                        }
+                        else if (value instanceof Class<?> type && type.getClassLoader() == loader)
+                        {
+                            types.add(type.getName());
+                        }
+                        else if (value != null && value.getClass().getClassLoader() == loader)
+                        {
+                            types.add(value.getClass().getName());
+                        }
+                    }
+                }
+            }
+            catch (IllegalAccessException exc)
+            {
+                logger.debug("Unable to inspect the thread-locals of thread {}", thread.getName(), exc);
+            }
+            return types;
+        }
+    }
+
+    private static class Drivers
+    {
+        private static final Field REGISTERED_DRIVERS = accessibleField(DriverManager.class, "registeredDrivers");
+
+        static boolean isAccessible()
+        {
+            return REGISTERED_DRIVERS != null;
+        }
+
+        static List<String> find(final ClassLoader loader)
+        {
+            final List<String> types = new ArrayList<>();
+            try
+            {
+                for (final Object info : (Collection<?>) REGISTERED_DRIVERS.get(null))
+                {
+                    final Field driverField = accessibleField(info.getClass(), "driver");
+                    final Object driver = driverField != null ? driverField.get(info) : null;
+                    if (driver != null && driver.getClass().getClassLoader() == loader)
+                    {
+                        types.add(driver.getClass().getName());
+                    }
+                }
+            }
+            catch (IllegalAccessException exc)
+            {
+                logger.debug("Unable to inspect the registered JDBC drivers", exc);
+            }
+            return types;
+        }
+    }
+
+    /**
+     * Checks the class loaders after each garbage collection. Only weakly references the detector, and removes itself
+     * once the detector has been collected
+     */
+    private static class GcListener implements NotificationListener
+    {
+        private final WeakReference<ClassLoaderLeakDetector> detector;
+
+        private GcListener(final ClassLoaderLeakDetector detector)
+        {
+            this.detector = new WeakReference<>(detector);
+        }
+
+        static void register(final ClassLoaderLeakDetector detector)
+        {
+            final GcListener listener = new GcListener(detector);
+            for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            {
+                if (gc instanceof NotificationEmitter emitter)
+                {
+                    emitter.addNotificationListener(listener, null, null);
+                }
+            }
+        }
+
+        @Override
+        public void handleNotification(final Notification notification, final Object handback)
+        {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+            {
+                return;
+            }
+
+            final ClassLoaderLeakDetector target = detector.get();
+            if (target != null)
+            {
+                target.check();
+                return;
+            }
+
+            for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            {
+                if (gc instanceof NotificationEmitter emitter)
+                {
+                    try
+                    {
+                        emitter.removeNotificationListener(this);
+                    }
+                    catch (ListenerNotFoundException ignored)
+                    {
+                        // Not registered with this collector
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parallel capable class loader for the libraries of a project. An index from package to jar is built up front, so
+ * classes are read directly from the jar that holds them, and lookups for packages that are not in any of the jars
+ * fail without searching the class path. URLs that cannot be indexed, like directories, are searched as usual.
+ */
+public class ProjectClassLoader extends URLClassLoader
+{
+    private static final Logger logger = LoggerFactory.getLogger(ProjectClassLoader.class);
+
+    static
+    {
+        registerAsParallelCapable();
+    }
+
+    private final Map<String, List<IndexedJar>> packages = new HashMap<>();
+    private final List<IndexedJar> jars = new ArrayList<>();
+    private final boolean complete;
+    private final AtomicInteger definedClasses = new AtomicInteger();
+
+    /**
+     * @param name   The name of the class loader
+     * @param urls   The class path
+     * @param parent The parent class loader
+     */
+    public ProjectClassLoader(final String name, final URL[] urls, final ClassLoader parent) throws IOException
+    {
+        super(name, urls, parent);
+
+        boolean allIndexed = true;
+        try
+        {
+            for (final URL url : urls)
+            {
+                final File file = toFile(url);
+                if (file != null && file.isFile())
+                {
+                    index(url, file);
+                }
+                else if (file == null || file.exists())
+                {
+                    logger.debug("Class path entry {} is not a jar file and will not be indexed", url);
+                    allIndexed = false;
+                }
+            }
+        }
+        catch (IOException | RuntimeException exc)
+        {
+            close();
+            throw exc;
+        }
+        this.complete = allIndexed;
+    }
+
+    private static File toFile(final URL url)
+    {
+        if (!"file".equals(url.getProtocol()))
+        {
+            return null;
+        }
+        try
+        {
+            return new File(url.toURI());
+        }
+        catch (URISyntaxException | IllegalArgumentException exc)
+        {
+            return null;
+        }
+    }
+
+    private void index(final URL url, final File file) throws IOException
+    {
+        final JarFile jarFile = new JarFile(file, true, ZipFile.OPEN_READ, JarFile.runtimeVersion());
+        final IndexedJar jar = new IndexedJar(url, jarFile);
+        jars.add(jar);
+        jarFile.versionedStream()
+                .map(entry -> directoryOf(entry.getName()))
+                .distinct()
+                .forEach(directory -> packages.computeIfAbsent(directory, k -> new ArrayList<>(1)).add(jar));
+    }
+
+    private static String directoryOf(final String name)
+    {
+        final int end = name.endsWith("/") ? name.length() - 1 : name.length();
+        final int idx = name.lastIndexOf('/', end - 1);
+        return idx == -1 ? "" : name.substring(0, idx);
+    }
+
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException
+    {
+        final String path = name.replace('.', '/').concat(".class");
+        final List<IndexedJar> candidates = packages.get(directoryOf(path));
+        if (candidates != null)
+        {
+            for (final IndexedJar jar : candidates)
+            {
+                final JarEntry entry = jar.file.getJarEntry(path);
+                if (entry != null)
+                {
+                    return define(name, jar, entry);
+                }
+            }
+        }
+
+        if (complete)
+        {
+            throw new ClassNotFoundException(name);
+        }
+        return counted(super.findClass(name));
+    }
+
+    private Class<?> define(final String name, final IndexedJar jar, final JarEntry entry) throws ClassNotFoundException
+    {
+        try
+        {
+            final byte[] bytes;
+            try (final InputStream in = jar.file.getInputStream(entry))
+            {
+                bytes = in.readAllBytes();
+            }
+            definePackageIfNeeded(name, jar);
+            return counted(defineClass(name, bytes, 0, bytes.length, new CodeSource(jar.url, entry.getCodeSigners())));
+        }
+        catch (IOException exc)
+        {
+            throw new ClassNotFoundException(name, exc);
+        }
+    }
+
+    private void definePackageIfNeeded(final String className, final IndexedJar jar) throws IOException
+    {
+        final int lastDot = className.lastIndexOf('.');
+        if (lastDot == -1)
+        {
+            return;
+        }
+
+        final String packageName = className.substring(0, lastDot);
+        if (getDefinedPackage(packageName) != null)
+        {
+            return;
+        }
+
+        try
+        {
+            final Manifest manifest = jar.file.getManifest();
+            if (manifest != null)
+            {
+                definePackage(packageName, manifest, jar.url);
+            }
+            else
+            {
+                definePackage(packageName, null, null, null, null, null, null, null);
+            }
+        }
+        catch (IllegalArgumentException exc)
+        {
+            // Defined concurrently by another thread
+            if (getDefinedPackage(packageName) == null)
+            {
+                throw exc;
+            }
+        }
+    }
+
+    @Override
+    public URL findResource(final String name)
+    {
+        if (complete && !packages.containsKey(directoryOf(name)))
+        {
+            return null;
+        }
+        return super.findResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> findResources(final String name) throws IOException
+    {
+        if (complete && !packages.containsKey(directoryOf(name)))
+        {
+            return Collections.emptyEnumeration();
+        }
+        return super.findResources(name);
+    }
+
+    private Class<?> counted(final Class<?> type)
+    {
+        definedClasses.incrementAndGet();
+        return type;
+    }
+
+    /**
+     * @return The number of classes defined by this class loader
+     */
+    public int getDefinedClassCount()
+    {
+        return definedClasses.get();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            for (final IndexedJar jar : jars)
+            {
+                jar.file.close();
+            }
+        }
+        finally
+        {
+            super.close();
+        }
+    }
+
+    private record IndexedJar(URL url, JarFile file)
+    {
+    }
+}
@@ -0,0 +1,229 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+import com.ethlo.lamebda.util.IoUtil;
+
+/**
+ * Reference counted class loaders for library jars shared by several projects. Projects with byte-identical sets of
+ * library jars get the same class loader, so the library classes are only loaded and compiled once. Sharing is by the
+ * whole set: projects whose libraries differ by a single jar get separate class loaders, as a library jar may depend
+ * on any of the others, and a class loader per jar would need the dependencies between them to be known. The jars are
+ * copied to a storage directory, so the shared class loader does not depend on the work directory of any project.
+ */
+public class SharedLibraries
+{
+    private static final Logger logger = LoggerFactory.getLogger(SharedLibraries.class);
+
+    private final Path storageDirectory;
+    private final ClassLoader parent;
+    private final Map<String, SharedLibrary> libraries = new HashMap<>();
+
+    /**
+     * @param storageDirectory The directory to keep the shared jars in. Any existing content is removed
+     * @param parent           The parent class loader of the shared class loaders
+     */
+    public SharedLibraries(final Path storageDirectory, final ClassLoader parent)
+    {
+        this.storageDirectory = storageDirectory;
+        this.parent = parent;
+        try
+        {
+            FileSystemUtils.deleteRecursively(storageDirectory);
+        }
+        catch (IOException exc)
+        {
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    /**
+     * Acquire a class loader for the given library jars. The lease must be closed when the class loader is no longer
+     * in use.
+     *
+     * @param jars The library jars
+     * @return A lease of a class loader for the jars
+     */
+    public Lease acquire(final List<Path> jars) throws IOException
+    {
+        final TreeMap<String, Path> byDigest = new TreeMap<>();
+        for (final Path jar : jars)
+        {
+            byDigest.putIfAbsent(IoUtil.sha256(jar), jar);
+        }
+        return acquire(key(byDigest.keySet()), byDigest);
+    }
+
+    private synchronized Lease acquire(final String key, final TreeMap<String, Path> byDigest) throws IOException
+    {
+        SharedLibrary library = libraries.get(key);
+        if (library == null)
+        {
+            library = create(key, byDigest);
+            libraries.put(key, library);
+        }
+        else
+        {
+            logger.debug("Reusing shared library class loader {}", library.classLoader.getName());
+        }
+        library.references++;
+        return new Lease(library);
+    }
+
+    /**
+     * @return The number of projects using each shared class loader, by class loader name
+     */
+    public synchronized Map<String, Integer> getReferenceCounts()
+    {
+        final Map<String, Integer> result = new TreeMap<>();
+        libraries.values().forEach(library -> result.put(library.classLoader.getName(), library.references));
+        return result;
+    }
+
+    private SharedLibrary create(final String key, final TreeMap<String, Path> byDigest) throws IOException
+    {
+        final Path directory = storageDirectory.resolve(key);
+        Files.createDirectories(directory);
+        final List<URL> urls = new ArrayList<>();
+        for (final Map.Entry<String, Path> e : byDigest.entrySet())
+        {
+            final Path target = directory.resolve(e.getKey() + ".jar");
+            if (!Files.exists(target))
+            {
+                try
+                {
+                    Files.createLink(target, e.getValue());
+                }
+                catch (UnsupportedOperationException | IOException exc)
+                {
+                    Files.copy(e.getValue(), target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            urls.add(target.toUri().toURL());
+        }
+
+        final String name = "lamebda-shared-" + key.substring(0, 12);
+        logger.info("Created shared library class loader {} with {} jars", name, urls.size());
+        return new SharedLibrary(key, directory, new ProjectClassLoader(name, urls.toArray(new URL[0]), parent));
+    }
+
+    private synchronized void release(final SharedLibrary library)
+    {
+        if (--library.references > 0)
+        {
+            return;
+        }
+
+        libraries.remove(library.key);
+        logger.info("Closing shared library class loader {} as it is no longer in use", library.classLoader.getName());
+        try
+        {
+            library.classLoader.close();
+            FileSystemUtils.deleteRecursively(library.directory);
+        }
+        catch (IOException exc)
+        {
+            logger.warn("Could not clean up shared library {}: {}", library.directory, exc.getMessage());
+        }
+    }
+
+    private static String key(final Iterable<String> digests)
+    {
+        try
+        {
+            final MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (final String digest : digests)
+            {
+                md.update(digest.getBytes(StandardCharsets.US_ASCII));
+            }
+            return HexFormat.of().formatHex(md.digest());
+        }
+        catch (NoSuchAlgorithmException exc)
+        {
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    private static class SharedLibrary
+    {
+        private final String key;
+        private final Path directory;
+        private final URLClassLoader classLoader;
+        private int references;
+
+        SharedLibrary(final String key, final Path directory, final URLClassLoader classLoader)
+        {
+            this.key = key;
+            this.directory = directory;
+            this.classLoader = classLoader;
+        }
+    }
+
+    public class Lease implements AutoCloseable
+    {
+        private final SharedLibrary library;
+        private boolean closed;
+
+        private Lease(final SharedLibrary library)
+        {
+            this.library = library;
+        }
+
+        public ClassLoader getClassLoader()
+        {
+            return library.classLoader;
+        }
+
+        @Override
+        public void close()
+        {
+            synchronized (SharedLibraries.this)
+            {
+                if (!closed)
+                {
+                    closed = true;
+                    release(library);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Read-only view of a zip archive held in a {@link ByteBuffer}, typically a memory-mapped file or a slice of one.
+ * Only the central directory is parsed up front; entry data is read on demand. Stored entries are returned as
+ * slices of the underlying buffer without copying, deflated entries are inflated into a heap buffer.
+ */
+public class ZipContent
+{
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries;
+
+    public ZipContent(final ByteBuffer buffer) throws ZipException
+    {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.entries = Collections.unmodifiableMap(readCentralDirectory());
+    }
+
+    public Map<String, Entry> getEntries()
+    {
+        return entries;
+    }
+
+    public Entry getEntry(final String name)
+    {
+        return entries.get(name);
+    }
+
+    /**
+     * @param entry The entry to read
+     * @return The uncompressed content of the entry. The returned buffer must not be modified
+     */
+    public ByteBuffer read(final Entry entry) throws ZipException
+    {
+        final int localHeaderOffset = entry.localHeaderOffset();
+        if (buffer.getInt(localHeaderOffset) != LOCAL_HEADER_SIGNATURE)
+        {
+            throw new ZipException("Invalid local header for entry " + entry.name());
+        }
+        final int nameLength = Short.toUnsignedInt(buffer.getShort(localHeaderOffset + 26));
+        final int extraLength = Short.toUnsignedInt(buffer.getShort(localHeaderOffset + 28));
+        final ByteBuffer data = buffer.slice(localHeaderOffset + LOCAL_HEADER_SIZE + nameLength + extraLength, entry.compressedSize());
+
+        switch (entry.method())
+        {
+            case STORED:
+                return data.asReadOnlyBuffer();
+            case DEFLATED:
+                return ByteBuffer.wrap(inflate(entry, data));
+            default:
+                throw new ZipException("Unsupported compression method " + entry.method() + " for entry " + entry.name());
+        }
+    }
+
+    private byte[] inflate(final Entry entry, final ByteBuffer data) throws ZipException
+    {
+        final byte[] result = new byte[entry.size()];
+        final Inflater inflater = new Inflater(true);
+        try
+        {
+            inflater.setInput(data);
+            int offset = 0;
+            while (offset < result.length)
+            {
+                final int read = inflater.inflate(result, offset, result.length - offset);
+                if (read == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    throw new ZipException("Unexpected end of data for entry " + entry.name());
+                }
+                offset += read;
+            }
+            return result;
+        }
+        catch (DataFormatException exc)
+        {
+            final ZipException zipException = new ZipException("Corrupt data for entry " + entry.name());
+            zipException.initCause(exc);
+            throw zipException;
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+
+    private Map<String, Entry> readCentralDirectory() throws ZipException
+    {
+        final int endOffset = findEndOfCentralDirectory();
+        final int entryCount = Short.toUnsignedInt(buffer.getShort(endOffset + 10));
+        final long directoryOffset = Integer.toUnsignedLong(buffer.getInt(endOffset + 16));
+        if (entryCount == 0xFFFF || directoryOffset == 0xFFFFFFFFL)
+        {
+            throw new ZipException("ZIP64 archives are not supported");
+        }
+
+        final Map<String, Entry> result = new LinkedHashMap<>(entryCount * 2);
+        int offset = (int) directoryOffset;
+        for (int i = 0; i < entryCount; i++)
+        {
+            if (buffer.getInt(offset) != CENTRAL_DIRECTORY_SIGNATURE)
+            {
+                throw new ZipException("Invalid central directory header at offset " + offset);
+            }
+            final int method = Short.toUnsignedInt(buffer.getShort(offset + 10));
+            final long compressedSize = Integer.toUnsignedLong(buffer.getInt(offset + 20));
+            final long size = Integer.toUnsignedLong(buffer.getInt(offset + 24));
+            final int nameLength = Short.toUnsignedInt(buffer.getShort(offset + 28));
+            final int extraLength = Short.toUnsignedInt(buffer.getShort(offset + 30));
+            final int commentLength = Short.toUnsignedInt(buffer.getShort(offset + 32));
+            final long localHeaderOffset = Integer.toUnsignedLong(buffer.getInt(offset + 42));
+            if (compressedSize > Integer.MAX_VALUE || size > Integer.MAX_VALUE || localHeaderOffset > Integer.MAX_VALUE)
+            {
+                throw new ZipException("ZIP64 archives are not supported");
+            }
+
+            final byte[] nameBytes = new byte[nameLength];
+            buffer.get(offset + CENTRAL_DIRECTORY_HEADER_SIZE, nameBytes);
+            final String name = new String(nameBytes, StandardCharsets.UTF_8);
+            result.putIfAbsent(name, new Entry(name, method, (int) compressedSize, (int) size, (int) localHeaderOffset));
+
+            offset += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return result;
+    }
+
+    private int findEndOfCentralDirectory() throws ZipException
+    {
+        final int last = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        final int first = Math.max(0, last - MAX_COMMENT_LENGTH);
+        for (int offset = last; offset >= first; offset--)
+        {
+            if (buffer.getInt(offset) == END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+            {
+                return offset;
+            }
+        }
+        throw new ZipException("End of central directory not found");
+    }
+
+    public record Entry(String name, int method, int compressedSize, int size, int localHeaderOffset)
+    {
+        public boolean isDirectory()
+        {
+            return name.endsWith("/");
+        }
+    }
+}
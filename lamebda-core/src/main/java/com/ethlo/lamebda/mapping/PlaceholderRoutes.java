@@ -0,0 +1,50 @@
+package com.ethlo.lamebda.mapping;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The controllers of a project with request mappings that contain placeholders. These are resolved from the
+ * properties of the project when the routes are registered, so a change to the properties loads the project again.
+ */
+public class PlaceholderRoutes
+{
+    public static final String BEAN_NAME = "_placeholder_routes";
+
+    private final Set<String> controllers = ConcurrentHashMap.newKeySet();
+
+    public void add(final String controller)
+    {
+        controllers.add(controller);
+    }
+
+    public boolean isEmpty()
+    {
+        return controllers.isEmpty();
+    }
+
+    public Set<String> getControllers()
+    {
+        return Set.copyOf(controllers);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ethlo.lamebda.refresh;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.lang.NonNull;
+
+/**
+ * The scope of the {@link RefreshScope} beans of a project. An instance is kept until the scope is refreshed, and is
+ * then destroyed, so the next call through its proxy creates it again from the current properties.
+ */
+public class RefreshableScope implements Scope
+{
+    public static final String SCOPE_NAME = "refresh";
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshableScope.class);
+
+    private final Map<String, Object> instances = new ConcurrentHashMap<>();
+    private final Map<String, Runnable> destructionCallbacks = new ConcurrentHashMap<>();
+
+    @NonNull
+    @Override
+    public Object get(@NonNull final String name, @NonNull final ObjectFactory<?> objectFactory)
+    {
+        final Object instance = instances.get(name);
+        if (instance != null)
+        {
+            return instance;
+        }
+
+        // Not computeIfAbsent, as creating the instance may create other beans of this scope
+        synchronized (this)
+        {
+            Object current = instances.get(name);
+            if (current == null)
+            {
+                current = objectFactory.getObject();
+                instances.put(name, current);
+            }
+            return current;
+        }
+    }
+
+    @Override
+    public Object remove(@NonNull final String name)
+    {
+        destructionCallbacks.remove(name);
+        return instances.remove(name);
+    }
+
+    @Override
+    public void registerDestructionCallback(@NonNull final String name, @NonNull final Runnable callback)
+    {
+        destructionCallbacks.put(name, callback);
+    }
+
+    @Override
+    public Object resolveContextualObject(@NonNull final String key)
+    {
+        return null;
+    }
+
+    @Override
+    public String getConversationId()
+    {
+        return null;
+    }
+
+    /**
+     * Destroy the current instances, so they are created again on their next use
+     *
+     * @return The number of instances destroyed
+     */
+    public synchronized int refresh()
+    {
+        final List<String> names = new ArrayList<>(instances.keySet());
+        for (final String name : names)
+        {
+            instances.remove(name);
+            final Runnable callback = destructionCallbacks.remove(name);
+            if (callback != null)
+            {
+                try
+                {
+                    callback.run();
+                }
+                catch (RuntimeException exc)
+                {
+                    logger.warn("Failed to destroy bean {}: {}", name, exc.getMessage(), exc);
+                }
+            }
+        }
+        return names.size();
+    }
+}
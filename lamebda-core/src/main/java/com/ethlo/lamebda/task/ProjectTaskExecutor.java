@@ -0,0 +1,161 @@
+package com.ethlo.lamebda.task;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * The task executor of a project, registered in the project context as <code>taskExecutor</code>, so it is used for
+ * <code>@Async</code> methods and can be injected as a {@link org.springframework.core.task.TaskExecutor} or
+ * {@link org.springframework.core.task.AsyncTaskExecutor}.
+ * <p>
+ * Each task runs on a new virtual thread, or on a new daemon platform thread where the JVM does not support virtual
+ * threads, with the project class loader as context class loader. The executor is closed with the project, waiting
+ * for the running tasks to complete, so no thread started through it outlives the project. Without virtual threads,
+ * the number of tasks running at the same time is limited to four per processor unless a limit is configured, so a
+ * burst of tasks does not start a platform thread for each.
+ */
+public class ProjectTaskExecutor extends SimpleAsyncTaskExecutor
+{
+    public static final String BEAN_NAME = "taskExecutor";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectTaskExecutor.class);
+    private static final int PLATFORM_THREADS_PER_PROCESSOR = 4;
+
+    private final String alias;
+    private final ClassLoader classLoader;
+    private final boolean virtualThreads;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+
+    /**
+     * @param alias                    The project alias
+     * @param classLoader              The project class loader
+     * @param maxConcurrency           The maximum number of tasks running at the same time, or 0 for no limit with
+     *                                 virtual threads, and a limit of four per processor without. Submitting a task
+     *                                 blocks while the limit is reached
+     * @param terminationTimeoutMillis How long to wait for running tasks when closing
+     */
+    public ProjectTaskExecutor(final String alias, final ClassLoader classLoader, final int maxConcurrency, final long terminationTimeoutMillis)
+    {
+        super("lamebda-" + alias + "-");
+        this.alias = alias;
+        this.classLoader = classLoader;
+        this.virtualThreads = enableVirtualThreads();
+        setDaemon(true);
+        setConcurrencyLimit(maxConcurrency > 0 ? maxConcurrency : getDefaultConcurrencyLimit());
+        setTaskTerminationTimeout(terminationTimeoutMillis);
+        // Runs inside the tracking of running tasks, so a task is no longer counted once closing has waited for it
+        setTaskDecorator(this::decorate);
+    }
+
+    private int getDefaultConcurrencyLimit()
+    {
+        return virtualThreads ? UNBOUNDED_CONCURRENCY : PLATFORM_THREADS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors();
+    }
+
+    private boolean enableVirtualThreads()
+    {
+        if (Runtime.version().feature() < 21)
+        {
+            return false;
+        }
+
+        try
+        {
+            setVirtualThreads(true);
+            return true;
+        }
+        catch (UnsupportedOperationException exc)
+        {
+            logger.debug("Virtual threads are not available: {}", exc.getMessage());
+            return false;
+        }
+    }
+
+    private Runnable decorate(final Runnable task)
+    {
+        return () -> run(task);
+    }
+
+    private void run(final Runnable task)
+    {
+        active.incrementAndGet();
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            thread.setContextClassLoader(previous);
+            active.decrementAndGet();
+            completed.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        super.close();
+        final int running = active.get();
+        if (running > 0)
+        {
+            logger.warn("{} task(s) of project {} are still running after the project was closed", running, alias);
+        }
+    }
+
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    /**
+     * @return Whether tasks run on virtual threads
+     */
+    public boolean isVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
+    /**
+     * @return The number of tasks currently running
+     */
+    public int getActiveCount()
+    {
+        return active.get();
+    }
+
+    /**
+     * @return The number of tasks that have completed
+     */
+    public long getCompletedCount()
+    {
+        return completed.get();
+    }
+}
@@ -32,6 +32,9 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -142,6 +145,29 @@ public class IoUtil
         return Optional.of(filename.substring(lastIndex + 1));
     }
 
+    public static String sha256(final Path file)
+    {
+        try (final InputStream in = Files.newInputStream(file))
+        {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buf = new byte[65_536];
+            int len;
+            while ((len = in.read(buf)) > 0)
+            {
+                digest.update(buf, 0, len);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+        catch (IOException exc)
+        {
+            throw new UncheckedIOException(exc);
+        }
+        catch (NoSuchAlgorithmException exc)
+        {
+            throw new IllegalStateException(exc);
+        }
+    }
+
     public static void copy(final InputStream src, final OutputStream target)
     {
         try
@@ -0,0 +1,100 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+class LamebdaConfigurationTest
+{
+    @Test
+    void bindsTheLamebdaProperties()
+    {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("lamebda.request-path", "/gateway");
+        properties.put("lamebda.root-directory", "/tmp/lamebda");
+        properties.put("lamebda.halt-on-error", "false");
+        properties.put("lamebda.required-projects", "a,b");
+        properties.put("lamebda.load-parallelism", "4");
+        properties.put("lamebda.reload-mode", "blue-green");
+        properties.put("lamebda.reload-quiet-period", "250ms");
+        properties.put("lamebda.archive-class-loading-enabled", "true");
+        properties.put("lamebda.idle-timeout", "10m");
+        properties.put("lamebda.properties-reload-enabled", "true");
+
+        final LamebdaConfiguration configuration = bind(properties);
+
+        assertThat(configuration.getRequestPath()).isEqualTo("/gateway");
+        assertThat(configuration.getRootDirectory()).isEqualTo(Path.of("/tmp/lamebda"));
+        assertThat(configuration.haltOnError()).isFalse();
+        assertThat(configuration.getRequiredProjects()).containsExactlyInAnyOrder("a", "b");
+        assertThat(configuration.getLoadParallelism()).isEqualTo(4);
+        assertThat(configuration.getReloadMode()).isEqualTo(ReloadMode.BLUE_GREEN);
+        assertThat(configuration.getReloadQuietPeriod()).isEqualTo(Duration.ofMillis(250));
+        assertThat(configuration.isArchiveClassLoadingEnabled()).isTrue();
+        assertThat(configuration.getIdleTimeout()).isEqualTo(Duration.ofMinutes(10));
+        assertThat(configuration.isPropertiesReloadEnabled()).isTrue();
+    }
+
+    @Test
+    void unboundPropertiesHaveTheirDefaults()
+    {
+        final LamebdaConfiguration bound = bind(Map.of("lamebda.root-directory", "/tmp/lamebda"));
+        final LamebdaConfiguration built = LamebdaConfiguration.builder(Path.of("/tmp/lamebda")).build();
+        final LamebdaConfiguration constructed = new LamebdaConfiguration(null, null, Path.of("/tmp/lamebda"), null, null, Set.of());
+
+        for (final LamebdaConfiguration configuration : new LamebdaConfiguration[]{bound, built, constructed})
+        {
+            assertThat(configuration.isEnabled()).isTrue();
+            assertThat(configuration.isDirectoryWatchEnabled()).isTrue();
+            assertThat(configuration.haltOnError()).isTrue();
+            assertThat(configuration.getRequiredProjects()).isEmpty();
+            assertThat(configuration.getLoadParallelism()).isEqualTo(1);
+            assertThat(configuration.getReloadMode()).isEqualTo(ReloadMode.RESTART);
+            assertThat(configuration.getReloadQuietPeriod()).isEqualTo(Duration.ofSeconds(1));
+            assertThat(configuration.getLazyLoadTimeout()).isEqualTo(Duration.ofSeconds(30));
+            assertThat(configuration.getIdleTimeout()).isZero();
+            assertThat(configuration.isArchiveClassLoadingEnabled()).isFalse();
+            assertThat(configuration.isDedicatedHandlerMappingEnabled()).isFalse();
+            assertThat(configuration.isLazyLoadingEnabled()).isFalse();
+            assertThat(configuration.isPropertiesReloadEnabled()).isFalse();
+            assertThat(configuration.isSnapshotEnabled()).isFalse();
+            assertThat(configuration.isClassLoaderLeakDetectionEnabled()).isFalse();
+            assertThat(configuration.isEndpointMetricsEnabled()).isFalse();
+            assertThat(configuration.isComponentScanCacheEnabled()).isFalse();
+            assertThat(configuration.isExtractionCacheEnabled()).isFalse();
+        }
+    }
+
+    private static LamebdaConfiguration bind(final Map<String, String> properties)
+    {
+        return new Binder(new MapConfigurationPropertySource(properties)).bind("lamebda", LamebdaConfiguration.class).get();
+    }
+}
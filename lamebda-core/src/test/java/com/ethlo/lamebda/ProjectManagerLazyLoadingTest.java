@@ -0,0 +1,119 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.ethlo.lamebda.lazy.BlockingComponent;
+
+class ProjectManagerLazyLoadingTest
+{
+    private final GenericApplicationContext parentContext = new GenericApplicationContext();
+
+    @TempDir
+    Path rootDirectory;
+
+    private ProjectManager projectManager;
+
+    @BeforeEach
+    void createProjectManager() throws IOException
+    {
+        parentContext.refresh();
+        createProject(rootDirectory, "p1", BlockingComponent.class.getPackageName());
+        final LamebdaConfiguration configuration = LamebdaConfiguration.builder(rootDirectory)
+                .directoryWatchEnabled(false)
+                .lazyLoadingEnabled(true)
+                .lazyLoadTimeout(Duration.ofMillis(100))
+                .build();
+        projectManager = new ProjectManager(configuration, parentContext);
+        projectManager.initializeAll();
+    }
+
+    @AfterEach
+    void close()
+    {
+        BlockingComponent.release.countDown();
+        projectManager.unload("p1");
+        parentContext.close();
+    }
+
+    @Test
+    void lazyProjectIsDeferred()
+    {
+        assertThat(projectManager.getDeferredProjects()).containsExactly("p1");
+        assertThat(projectManager.getProjects()).isEmpty();
+    }
+
+    @Test
+    void concurrentRequestsShareASingleLoad() throws Exception
+    {
+        BlockingComponent.reset(true);
+        final CompletableFuture<Project> first = projectManager.ensureLoaded("p1");
+        assertThat(BlockingComponent.started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        final long timeout = projectManager.getRootConfiguration().getLazyLoadTimeout().toMillis();
+        assertThatThrownBy(() -> first.get(timeout, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        final CompletableFuture<Project> second = projectManager.ensureLoaded("p1");
+        assertThat(second).isSameAs(first);
+
+        BlockingComponent.release.countDown();
+        final Project project = first.get(10, TimeUnit.SECONDS);
+        assertThat(project.getAlias()).isEqualTo("p1");
+        assertThat(BlockingComponent.instances).hasValue(1);
+        assertThat(projectManager.getDeferredProjects()).isEmpty();
+        assertThat(projectManager.ensureLoaded("p1")).isCompletedWithValue(project);
+    }
+
+    @Test
+    void unknownProjectCompletesWithNull() throws Exception
+    {
+        assertThat(projectManager.ensureLoaded("unknown").get(10, TimeUnit.SECONDS)).isNull();
+    }
+
+    static void createProject(final Path rootDirectory, final String alias, final String basePackage) throws IOException
+    {
+        final Path projectDirectory = Files.createDirectories(rootDirectory.resolve(alias));
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(projectDirectory.resolve(alias + ".jar"))))
+        {
+            out.putNextEntry(new ZipEntry("project.properties"));
+            out.write(("project.base-packages=" + basePackage + "\n").getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.ethlo.lamebda.properties.GreetingProperties;
+import com.ethlo.lamebda.properties.RefreshedGreeting;
+
+class ProjectPropertiesReloadTest
+{
+    private final GenericApplicationContext parentContext = new GenericApplicationContext();
+
+    @TempDir
+    Path rootDirectory;
+
+    private ProjectManager projectManager;
+
+    @AfterEach
+    void close()
+    {
+        projectManager.unload("p1");
+        parentContext.close();
+    }
+
+    @Test
+    void changedApplicationPropertiesAreAppliedToTheLoadedProject() throws Exception
+    {
+        final Project project = start(true, "greeting.message=hello\n");
+        assertThat(message(project)).isEqualTo("hello");
+        assertThat(refreshedMessage(project)).isEqualTo("hello");
+
+        writeApplicationProperties("greeting.message=hi\n");
+
+        assertThat(waitFor(() -> "hi".equals(message(project)))).isTrue();
+        assertThat(refreshedMessage(project)).isEqualTo("hi");
+        assertThat(projectManager.getProjects().get("p1")).isSameAs(project);
+        assertThat(project.getProjectContext().isActive()).isTrue();
+    }
+
+    @Test
+    void removedPropertyLoadsTheProjectAgain() throws Exception
+    {
+        final Project project = start(true, "greeting.message=hello\ngreeting.unused=true\n");
+
+        writeApplicationProperties("greeting.message=hi\n");
+
+        assertThat(waitFor(() -> projectManager.getProjects().get("p1") != project && projectManager.getProjects().get("p1") != null)).isTrue();
+        assertThat(message(projectManager.getProjects().get("p1"))).isEqualTo("hi");
+    }
+
+    @Test
+    void changedApplicationPropertiesLoadTheProjectAgainUnlessEnabled() throws Exception
+    {
+        final Project project = start(false, "greeting.message=hello\n");
+
+        writeApplicationProperties("greeting.message=hi\n");
+
+        assertThat(waitFor(() -> projectManager.getProjects().get("p1") != project && projectManager.getProjects().get("p1") != null)).isTrue();
+        assertThat(project.getProjectContext().isActive()).isFalse();
+        assertThat(message(projectManager.getProjects().get("p1"))).isEqualTo("hi");
+    }
+
+    private Project start(final boolean propertiesReloadEnabled, final String applicationProperties) throws IOException
+    {
+        parentContext.refresh();
+        ProjectManagerLazyLoadingTest.createProject(rootDirectory, "p1", GreetingProperties.class.getPackageName());
+        writeApplicationProperties(applicationProperties);
+        final LamebdaConfiguration configuration = LamebdaConfiguration.builder(rootDirectory)
+                .reloadQuietPeriod(Duration.ofMillis(50))
+                .propertiesReloadEnabled(propertiesReloadEnabled)
+                .build();
+        projectManager = new ProjectManager(configuration, parentContext);
+        projectManager.initializeAll();
+        return projectManager.getProjects().get("p1");
+    }
+
+    private void writeApplicationProperties(final String content) throws IOException
+    {
+        Files.writeString(rootDirectory.resolve("p1").resolve(ProjectImpl.DEFAULT_CONFIG_FILENAME), content);
+    }
+
+    private static String message(final Project project)
+    {
+        return project.getProjectContext().getBean(GreetingProperties.class).getMessage();
+    }
+
+    private static String refreshedMessage(final Project project)
+    {
+        return project.getProjectContext().getBean(RefreshedGreeting.class).getMessage();
+    }
+
+    private static boolean waitFor(final BooleanSupplier condition) throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean())
+        {
+            if (System.nanoTime() > deadline)
+            {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
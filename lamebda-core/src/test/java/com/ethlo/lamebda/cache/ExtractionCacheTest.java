@@ -0,0 +1,136 @@
+package com.ethlo.lamebda.cache;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExtractionCacheTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    void extractsOnceAndReusesTheEntry() throws IOException
+    {
+        final AtomicInteger extractions = new AtomicInteger();
+        final ExtractionCache.Extractor extractor = target ->
+        {
+            extractions.incrementAndGet();
+            write(target.resolve("lib/a.jar"), "a");
+        };
+
+        final Path first = new ExtractionCache(cache()).get("abc", extractor);
+        final Path second = new ExtractionCache(cache()).get("abc", extractor);
+
+        assertThat(second).isEqualTo(first).isEqualTo(cache().resolve("abc"));
+        assertThat(first.resolve("lib/a.jar")).hasContent("a");
+        assertThat(extractions).hasValue(1);
+    }
+
+    @Test
+    void cachedFilesAreReadOnlyAndLinked() throws IOException
+    {
+        final ExtractionCache cache = new ExtractionCache(cache());
+        final Path entry = cache.get("abc", target -> write(target.resolve("lib/a.jar"), "a"));
+        final Path workDir = Files.createDirectories(directory.resolve("work"));
+
+        cache.copy(entry, workDir);
+
+        final Path linked = workDir.resolve("lib/a.jar");
+        assertThat(linked).hasContent("a");
+        assertThat(Files.getPosixFilePermissions(entry.resolve("lib/a.jar"))).doesNotContain(PosixFilePermission.OWNER_WRITE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE);
+        assertThat(Files.isSameFile(linked, entry.resolve("lib/a.jar"))).isTrue();
+    }
+
+    @Test
+    void usesTheEntryOfAConcurrentExtraction() throws IOException
+    {
+        final Path entry = new ExtractionCache(cache()).get("abc", target ->
+        {
+            // Another load of the same archive completes first, so moving this extraction into place fails
+            new ExtractionCache(cache()).get("abc", other -> write(other.resolve("winner.txt"), "winner"));
+            write(target.resolve("loser.txt"), "loser");
+        });
+
+        assertThat(entry.resolve("winner.txt")).hasContent("winner");
+        assertThat(entry.resolve("loser.txt")).doesNotExist();
+        try (var entries = Files.list(cache()))
+        {
+            assertThat(entries).containsExactly(entry);
+        }
+    }
+
+    @Test
+    void failedExtractionLeavesNothingBehind() throws IOException
+    {
+        final ExtractionCache cache = new ExtractionCache(cache());
+
+        assertThatThrownBy(() -> cache.get("abc", target ->
+        {
+            write(target.resolve("partial.txt"), "partial");
+            throw new IOException("Corrupt archive");
+        })).hasMessage("Corrupt archive");
+        try (var entries = Files.list(cache()))
+        {
+            assertThat(entries).isEmpty();
+        }
+    }
+
+    @Test
+    void prunesOtherEntriesButNotExtractionsInProgress() throws IOException
+    {
+        Files.createDirectories(cache().resolve("old"));
+        final Path inProgress = Files.createDirectories(cache().resolve("def.123"));
+        final Path abandoned = Files.createDirectories(cache().resolve("ghi.456"));
+        Files.setLastModifiedTime(abandoned, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        final Path entry = new ExtractionCache(cache()).get("abc", target -> write(target.resolve("a.txt"), "a"));
+
+        try (var entries = Files.list(cache()))
+        {
+            assertThat(entries).containsExactlyInAnyOrder(entry, inProgress);
+        }
+    }
+
+    private Path cache()
+    {
+        return directory.resolve("cache");
+    }
+
+    private static void write(final Path file, final String content) throws IOException
+    {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
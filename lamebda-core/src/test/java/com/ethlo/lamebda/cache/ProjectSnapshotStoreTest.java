@@ -0,0 +1,120 @@
+package com.ethlo.lamebda.cache;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ProjectSnapshotStoreTest
+{
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void restoresTheStoredSnapshot()
+    {
+        final ProjectSnapshotStore store = new ProjectSnapshotStore(tempDir.resolve("cache"));
+        final JsonNode configuration = configuration("v1");
+        store.put(snapshot("archive", "classpath", configuration));
+
+        final ProjectSnapshot restored = store.get("archive", "classpath", configuration).orElseThrow();
+        assertThat(restored.isRestored()).isTrue();
+        assertThat(restored.isModified()).isFalse();
+        assertThat(restored.getComponents()).containsExactly("acme.HelloController");
+        assertThat(restored.getRequestMappings("acme.HelloController")).hasValueSatisfying(mappings -> assertThat(mappings).singleElement().satisfies(mapping -> assertThat(mapping.patterns()).containsExactly("/hello")));
+    }
+
+    @Test
+    void ignoresTheSnapshotOfAnotherArchiveOrConfiguration()
+    {
+        final ProjectSnapshotStore store = new ProjectSnapshotStore(tempDir.resolve("cache"));
+        store.put(snapshot("archive", "classpath", configuration("v1")));
+
+        assertThat(store.get("other", "classpath", configuration("v1"))).isEmpty();
+        assertThat(store.get("archive", "classpath", configuration("v2"))).isEmpty();
+    }
+
+    @Test
+    void ignoresTheSnapshotWhenTheClassPathChanges() throws IOException
+    {
+        final Path lib = Files.createDirectories(tempDir.resolve("lib"));
+        final Path library = Files.writeString(lib.resolve("library.jar"), "v1");
+        final List<URI> classpath = List.of(lib.toUri());
+        final ProjectSnapshotStore store = new ProjectSnapshotStore(tempDir.resolve("cache"));
+        final String before = ClasspathDigest.of(classpath);
+        store.put(snapshot("archive", before, configuration("v1")));
+        assertThat(store.get("archive", ClasspathDigest.of(classpath), configuration("v1"))).isPresent();
+
+        Files.writeString(library, "v2");
+        Files.setLastModifiedTime(library, FileTime.from(Instant.now().plusSeconds(60)));
+        assertThat(store.get("archive", ClasspathDigest.of(classpath), configuration("v1"))).isEmpty();
+
+        Files.writeString(library, "v1");
+        Files.setLastModifiedTime(library, FileTime.from(Instant.now().minusSeconds(60)));
+        Files.writeString(lib.resolve("added.jar"), "v1");
+        assertThat(ClasspathDigest.of(classpath)).isNotEqualTo(before);
+        assertThat(store.get("archive", ClasspathDigest.of(classpath), configuration("v1"))).isEmpty();
+    }
+
+    @Test
+    void ignoresAnUnreadableSnapshot() throws IOException
+    {
+        final Path cache = Files.createDirectories(tempDir.resolve("cache"));
+        Files.writeString(cache.resolve("snapshot.json"), "{ not json");
+
+        assertThat(new ProjectSnapshotStore(cache).get("archive", "classpath", configuration("v1"))).isEmpty();
+    }
+
+    @Test
+    void missingSnapshotIsEmpty()
+    {
+        assertThat(new ProjectSnapshotStore(tempDir.resolve("cache")).get("archive", "classpath", configuration("v1"))).isEmpty();
+    }
+
+    private static ProjectSnapshot snapshot(final String archiveDigest, final String classpathDigest, final JsonNode configuration)
+    {
+        final ProjectSnapshot snapshot = new ProjectSnapshot(archiveDigest, classpathDigest, configuration);
+        snapshot.setComponents(List.of("acme.HelloController"));
+        snapshot.putRequestMappings("acme.HelloController", List.of(new ProjectSnapshot.MappingSnapshot("hello", List.of(), List.of("/hello"), List.of("GET"), List.of(), List.of(), List.of(), List.of(), null)));
+        return snapshot;
+    }
+
+    private static JsonNode configuration(final String version)
+    {
+        return mapper.valueToTree(Map.of("version", version));
+    }
+}
@@ -0,0 +1,106 @@
+package com.ethlo.lamebda.io;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArchiveExtractorTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void extractsTheFilteredEntries() throws IOException
+    {
+        final Path archive = archive("a.txt", "b/c.txt", "b/d/e.txt", "skipped.txt");
+        final Path target = tempDir.resolve("target");
+
+        new ArchiveExtractor(4).extract(archive, target, ze -> !ze.getName().startsWith("skipped"));
+
+        assertThat(target.resolve("a.txt")).hasContent("a.txt");
+        assertThat(target.resolve("b/c.txt")).hasContent("b/c.txt");
+        assertThat(target.resolve("b/d/e.txt")).hasContent("b/d/e.txt");
+        assertThat(target.resolve("skipped.txt")).doesNotExist();
+    }
+
+    @Test
+    void rejectsEntryOutsideOfTheTargetDirectory() throws IOException
+    {
+        final Path archive = archive("a.txt", "../evil.txt");
+        final Path target = tempDir.resolve("target");
+
+        assertThatThrownBy(() -> new ArchiveExtractor(1).extract(archive, target, ze -> true))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("../evil.txt");
+        assertThat(tempDir.resolve("evil.txt")).doesNotExist();
+        assertThat(target.resolve("a.txt")).doesNotExist();
+    }
+
+    @Test
+    void rejectsNestedEntryEscapingTheTargetDirectory() throws IOException
+    {
+        final Path archive = archive("b/../../evil.txt");
+        final Path target = tempDir.resolve("target");
+
+        assertThatThrownBy(() -> new ArchiveExtractor(4).extract(archive, target, ze -> true))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("outside of the target directory");
+        assertThat(tempDir.resolve("evil.txt")).doesNotExist();
+    }
+
+    @Test
+    void rejectsInvalidParallelism()
+    {
+        assertThatThrownBy(() -> new ArchiveExtractor(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path archive(final String... names) throws IOException
+    {
+        final Path archive = tempDir.resolve("archive.zip");
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(archive)))
+        {
+            for (final String name : names)
+            {
+                out.putNextEntry(new ZipEntry(name));
+                write(out, name);
+                out.closeEntry();
+            }
+        }
+        return archive;
+    }
+
+    private static void write(final OutputStream out, final String content) throws IOException
+    {
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,254 @@
+package com.ethlo.lamebda.io;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChangeCoalescerTest
+{
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(200);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void performsActionOnceAfterQuietPeriod() throws InterruptedException
+    {
+        final AtomicInteger actions = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(1);
+        try (final ChangeCoalescer coalescer = new ChangeCoalescer(QUIET_PERIOD, Duration.ofSeconds(30)))
+        {
+            final long start = System.nanoTime();
+            for (int i = 0; i < 5; i++)
+            {
+                coalescer.submit("p1", directory, path -> false, () ->
+                {
+                    actions.incrementAndGet();
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(QUIET_PERIOD.toNanos());
+            Thread.sleep(QUIET_PERIOD.toMillis() * 3);
+            assertThat(actions).hasValue(1);
+        }
+    }
+
+    @Test
+    void latestActionReplacesPendingAction() throws InterruptedException
+    {
+        final AtomicInteger performed = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(1);
+        try (final ChangeCoalescer coalescer = new ChangeCoalescer(QUIET_PERIOD, Duration.ofSeconds(30)))
+        {
+            for (int i = 1; i <= 3; i++)
+            {
+                final int value = i;
+                coalescer.submit("p1", directory, path -> false, () ->
+                {
+                    performed.set(value);
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(performed).hasValue(3);
+        }
+    }
+
+    @Test
+    void keysAreCoalescedSeparately() throws InterruptedException
+    {
+        final CountDownLatch done = new CountDownLatch(2);
+        try (final ChangeCoalescer coalescer = new ChangeCoalescer(QUIET_PERIOD, Duration.ofSeconds(30)))
+        {
+            coalescer.submit("p1", directory, path -> false, done::countDown);
+            coalescer.submit("p2", directory, path -> false, done::countDown);
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void slowActionDoesNotDelayOtherKeys() throws InterruptedException
+    {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch slowStarted = new CountDownLatch(1);
+        final CountDownLatch fastDone = new CountDownLatch(1);
+        try (final ChangeCoalescer coalescer = new ChangeCoalescer(QUIET_PERIOD, Duration.ofSeconds(30)))
+        {
+            coalescer.submit("p1", directory, path -> false, () ->
+            {
+                slowStarted.countDown();
+                await(release);
+            });
+            assertThat(slowStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            final long start = System.nanoTime();
+            coalescer.submit("p2", directory, path -> false, fastDone::countDown);
+
+            assertThat(fastDone.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(System.nanoTime() - start).isLessThan(QUIET_PERIOD.toNanos() * 5);
+            release.countDown();
+        }
+    }
+
+    @Test
+    void actionsForTheSameKeyDoNotOverlap() throws InterruptedException
+    {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch secondDone = new CountDownLatch(1);
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        try (final ChangeCoalescer coalescer = new ChangeCoalescer(QUIET_PERIOD, Duration.ofSeconds(30)))
+        {
+            coalescer.submit("p1", directory, path -> false, () ->
+            {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                firstStarted.countDown();
+                await(release);
+                concurrent.decrementAndGet();
+            });
+            assertThat(firstStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            coalescer.submit("p1", directory, path -> false, () ->
+            {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                concurrent.decrementAndGet();
+                secondDone.countDown();
+            });
+            assertThat(secondDone.await(QUIET_PERIOD.toMillis() * 3, TimeUnit.MILLISECONDS)).isFalse();
+
+            release.countDown();
+            assertThat(secondDone.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(maxConcurrent).hasValue(1);
+        }
+    }
+
+    @Test
+    void waitsWhileFilesAreChanging() throws Exception
+    {
+        final Path file = directory.resolve("project.jar");
+        Files.writeString(file, "0");
+        final AtomicLong performedAt = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(1);
+        try (final ChangeCoalescer coalescer = new ChangeCoalescer(QUIET_PERIOD, Duration.ofSeconds(30)))
+        {
+            coalescer.submit("p1", directory, path -> false, () ->
+            {
+                performedAt.set(System.nanoTime());
+                done.countDown();
+            });
+
+            // Keep growing the file without reporting changes, as a slow copy does
+            final long writesEnd = System.nanoTime() + QUIET_PERIOD.toNanos() * 4;
+            while (System.nanoTime() < writesEnd)
+            {
+                append(file);
+                Thread.sleep(QUIET_PERIOD.toMillis() / 4);
+            }
+            final long lastWrite = System.nanoTime();
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(performedAt.get()).isGreaterThan(lastWrite);
+        }
+    }
+
+    @Test
+    void ignoresChangesInExcludedDirectories() throws Exception
+    {
+        final Path workDir = Files.createDirectories(directory.resolve("workdir"));
+        final Path file = workDir.resolve("extracted.class");
+        Files.writeString(file, "0");
+        final AtomicLong performedAt = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(1);
+        try (final ChangeCoalescer coalescer = new ChangeCoalescer(QUIET_PERIOD, Duration.ofSeconds(30)))
+        {
+            final long start = System.nanoTime();
+            coalescer.submit("p1", directory, path -> path.startsWith(workDir), () ->
+            {
+                performedAt.set(System.nanoTime());
+                done.countDown();
+            });
+
+            final long writesEnd = System.nanoTime() + QUIET_PERIOD.toNanos() * 10;
+            while (done.getCount() > 0 && System.nanoTime() < writesEnd)
+            {
+                append(file);
+                Thread.sleep(QUIET_PERIOD.toMillis() / 4);
+            }
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(performedAt.get() - start).isLessThan(QUIET_PERIOD.toNanos() * 6);
+        }
+    }
+
+    @Test
+    void performsActionAfterMaxWaitEvenIfChangesContinue() throws InterruptedException
+    {
+        final Duration maxWait = QUIET_PERIOD.multipliedBy(3);
+        final CountDownLatch done = new CountDownLatch(1);
+        try (final ChangeCoalescer coalescer = new ChangeCoalescer(QUIET_PERIOD, maxWait))
+        {
+            final long start = System.nanoTime();
+            final long changesEnd = start + maxWait.toNanos() * 10;
+            while (done.getCount() > 0 && System.nanoTime() < changesEnd)
+            {
+                coalescer.submit("p1", directory, path -> false, done::countDown);
+                Thread.sleep(QUIET_PERIOD.toMillis() / 4);
+            }
+
+            assertThat(done.getCount()).isZero();
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(maxWait.toNanos());
+        }
+    }
+
+    private static void await(final CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void append(final Path file) throws IOException
+    {
+        Files.writeString(file, Files.readString(file) + "0");
+    }
+}
@@ -0,0 +1,55 @@
+package com.ethlo.lamebda.lazy;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * A project component that blocks the load of its project until released
+ */
+@Component
+public class BlockingComponent
+{
+    public static final AtomicInteger instances = new AtomicInteger();
+    public static volatile CountDownLatch started = new CountDownLatch(1);
+    public static volatile CountDownLatch release = new CountDownLatch(0);
+
+    public BlockingComponent() throws InterruptedException
+    {
+        instances.incrementAndGet();
+        started.countDown();
+        if (!release.await(10, TimeUnit.SECONDS))
+        {
+            throw new IllegalStateException("Not released");
+        }
+    }
+
+    public static void reset(final boolean block)
+    {
+        instances.set(0);
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(block ? 1 : 0);
+    }
+}
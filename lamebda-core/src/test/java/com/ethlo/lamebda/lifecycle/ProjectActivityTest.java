@@ -0,0 +1,148 @@
+package com.ethlo.lamebda.lifecycle;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ProjectActivityTest
+{
+    private static final long IDLE_TIMEOUT_MILLIS = 1_000;
+
+    private final ProjectActivity activity = new ProjectActivity("p1");
+
+    @Test
+    void projectWithRequestInProgressIsNotClosed()
+    {
+        activity.loaded(IDLE_TIMEOUT_MILLIS);
+        assertThat(activity.started()).isTrue();
+
+        assertThat(activity.isIdle(idle())).isFalse();
+        assertThat(activity.closing(idle())).isFalse();
+        assertThat(activity.getEviction()).isDone();
+
+        activity.completed();
+        assertThat(activity.isIdle(System.currentTimeMillis() + 2 * IDLE_TIMEOUT_MILLIS)).isTrue();
+    }
+
+    @Test
+    void recentlyAccessedProjectIsNotClosed()
+    {
+        activity.loaded(IDLE_TIMEOUT_MILLIS);
+
+        assertThat(activity.isIdle(System.currentTimeMillis())).isFalse();
+        assertThat(activity.closing(System.currentTimeMillis())).isFalse();
+    }
+
+    @Test
+    void requestArrivingWhileClosingWaitsForTheEviction()
+    {
+        activity.loaded(IDLE_TIMEOUT_MILLIS);
+        assertThat(activity.closing(idle())).isTrue();
+
+        assertThat(activity.started()).isFalse();
+        assertThat(activity.getEviction()).isNotDone();
+
+        activity.evicted();
+        assertThat(activity.getEviction()).isDone();
+        assertThat(activity.getEvictions()).isEqualTo(1);
+        assertThat(activity.started()).isFalse();
+
+        activity.loaded(IDLE_TIMEOUT_MILLIS);
+        assertThat(activity.started()).isTrue();
+        assertThat(activity.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void projectIsOnlyClosedWithoutRequestsInProgress() throws Exception
+    {
+        activity.loaded(IDLE_TIMEOUT_MILLIS);
+        final AtomicInteger inProgress = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final AtomicBoolean done = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+            {
+                requests.add(executor.submit(() ->
+                {
+                    while (!done.get())
+                    {
+                        if (activity.started())
+                        {
+                            inProgress.incrementAndGet();
+                            inProgress.decrementAndGet();
+                            activity.completed();
+                        }
+                        else
+                        {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+
+            int closed = 0;
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (closed < 100 && System.nanoTime() < deadline)
+            {
+                if (activity.closing(idle()))
+                {
+                    assertThat(inProgress).hasValue(0);
+                    closed++;
+                    activity.evicted();
+                    activity.loaded(IDLE_TIMEOUT_MILLIS);
+                }
+            }
+            done.set(true);
+            for (final Future<?> request : requests)
+            {
+                request.get(5, TimeUnit.SECONDS);
+            }
+
+            assertThat(closed).isPositive();
+            assertThat(activity.getEvictions()).isEqualTo(closed);
+            assertThat(activity.getEviction()).isDone();
+        }
+        finally
+        {
+            done.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    private static long idle()
+    {
+        return System.currentTimeMillis() + 2 * IDLE_TIMEOUT_MILLIS;
+    }
+}
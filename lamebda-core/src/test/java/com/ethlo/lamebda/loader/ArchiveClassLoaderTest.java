@@ -0,0 +1,156 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArchiveClassLoaderTest
+{
+    private static final String CLASS_ENTRY = Greeting.class.getName().replace('.', '/') + ".class";
+
+    @TempDir
+    Path directory;
+
+    private Path archive;
+
+    @BeforeEach
+    void createArchive() throws IOException
+    {
+        final byte[] classBytes;
+        try (final InputStream in = Greeting.class.getClassLoader().getResourceAsStream(CLASS_ENTRY))
+        {
+            classBytes = in.readAllBytes();
+        }
+
+        final Map<String, byte[]> a = new LinkedHashMap<>();
+        a.put(CLASS_ENTRY, classBytes);
+        a.put("shared.txt", bytes("a"));
+        a.put("data/x.txt", bytes("x"));
+
+        final Map<String, byte[]> b = new LinkedHashMap<>();
+        b.put("shared.txt", bytes("b"));
+
+        final Map<String, byte[]> archiveEntries = new LinkedHashMap<>();
+        archiveEntries.put("project.properties", bytes("project.name=test"));
+        // Stored jars are read in place, compressed ones are inflated
+        archiveEntries.put("lib/b.jar", ZipContentTest.zip(b));
+        archiveEntries.put("lib/a.jar", ZipContentTest.zip(a));
+        archiveEntries.put("lib/nested/c.jar", ZipContentTest.zip(Map.of("nested.txt", bytes("c"))));
+        archive = Files.write(directory.resolve("test.jar"), ZipContentTest.zip(archiveEntries, "lib/a.jar"));
+    }
+
+    @Test
+    void definesClassesOfNestedJars() throws Exception
+    {
+        try (final ArchiveClassLoader loader = create())
+        {
+            final Class<?> type = loader.loadClass(Greeting.class.getName());
+
+            assertThat(type.getClassLoader()).isSameAs(loader);
+            assertThat(type.getDeclaredConstructor().newInstance()).hasToString("hello");
+            assertThat(type.getPackage().getName()).isEqualTo(Greeting.class.getPackageName());
+            assertThat(loader.getDefinedClassCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void resourcesAreFoundInJarNameOrder() throws IOException
+    {
+        try (final ArchiveClassLoader loader = create())
+        {
+            final URL first = loader.findResource("shared.txt");
+            final List<URL> all = Collections.list(loader.findResources("shared.txt"));
+
+            assertThat(first.getProtocol()).isEqualTo(ArchiveClassLoader.PROTOCOL);
+            assertThat(read(first)).isEqualTo("a");
+            assertThat(all).hasSize(2);
+            assertThat(read(all.get(0))).isEqualTo("a");
+            assertThat(read(all.get(1))).isEqualTo("b");
+        }
+    }
+
+    @Test
+    void listsEntriesOfDirectories() throws IOException
+    {
+        try (final ArchiveClassLoader loader = create())
+        {
+            final URL dataDirectory = loader.findResource("data/");
+
+            assertThat(dataDirectory).isNotNull();
+            assertThat(loader.list(dataDirectory)).singleElement().satisfies(url -> assertThat(read(url)).isEqualTo("x"));
+        }
+    }
+
+    @Test
+    void ignoresJarsOutsideTheLibraryDirectory() throws IOException
+    {
+        try (final ArchiveClassLoader loader = create())
+        {
+            assertThat(loader.findResource("nested.txt")).isNull();
+            assertThat(loader.findResource("project.properties")).isNull();
+        }
+    }
+
+    @Test
+    void missingClassIsNotFound() throws IOException
+    {
+        try (final ArchiveClassLoader loader = create())
+        {
+            assertThat(loader.findResource("com/example/Missing.class")).isNull();
+            assertThatThrownBy(() -> loader.loadClass("com.example.Missing"))
+                    .isInstanceOf(ClassNotFoundException.class);
+        }
+    }
+
+    private ArchiveClassLoader create() throws IOException
+    {
+        return new ArchiveClassLoader("test", archive, "lib", new URL[0], ClassLoader.getPlatformClassLoader());
+    }
+
+    private static byte[] bytes(final String value)
+    {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(final URL url) throws IOException
+    {
+        try (final InputStream in = url.openStream())
+        {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+class ClassLoaderLeakDetectorTest
+{
+    private static final int MAX_COLLECTIONS = 50;
+
+    @Test
+    void registeredClassLoaderIsOpen()
+    {
+        final ClassLoaderLeakDetector detector = new ClassLoaderLeakDetector();
+        final ClassLoader loader = new URLClassLoader(new URL[0], null);
+        detector.register("p1", loader);
+
+        collect(() -> false, 3);
+
+        assertThat(detector.getOpenCount()).isEqualTo(1);
+        assertThat(detector.getPendingCount()).isZero();
+        assertThat(detector.getLeakedCount()).isZero();
+        assertThat(loader).isNotNull();
+    }
+
+    @Test
+    void closedClassLoaderThatIsReleasedIsCollected()
+    {
+        final ClassLoaderLeakDetector detector = new ClassLoaderLeakDetector();
+        detector.register("p1", new URLClassLoader(new URL[0], null)).closed("1.0");
+
+        assertThat(collect(() -> detector.getCollectedCount() == 1, MAX_COLLECTIONS)).isTrue();
+        assertThat(detector.getOpenCount()).isZero();
+        assertThat(detector.getPendingCount()).isZero();
+        assertThat(detector.getLeakedCount()).isZero();
+    }
+
+    @Test
+    void closedClassLoaderThatIsStillReachableIsPendingThenLeaked()
+    {
+        final ClassLoaderLeakDetector detector = new ClassLoaderLeakDetector();
+        final ClassLoader loader = new URLClassLoader(new URL[0], null);
+        final ClassLoaderLeakDetector.Generation generation = detector.register("p1", loader);
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try
+        {
+            generation.closed("1.0");
+            assertThat(detector.getOpenCount()).isZero();
+            assertThat(detector.getPendingCount()).isEqualTo(1);
+
+            assertThat(collect(() -> detector.getLeakedCount() == 1, MAX_COLLECTIONS)).isTrue();
+            assertThat(detector.getPendingCount()).isZero();
+            assertThat(detector.getLeaks()).singleElement().satisfies(leak ->
+            {
+                assertThat(leak.alias()).isEqualTo("p1");
+                assertThat(leak.version()).isEqualTo("1.0");
+                assertThat(leak.gcCycles()).isGreaterThanOrEqualTo(ClassLoaderLeakDetector.GRACE_CYCLES);
+                assertThat(leak.suspects()).contains("Thread '" + thread.getName() + "' has the project class loader as context class loader");
+            });
+        }
+        finally
+        {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private static boolean collect(final BooleanSupplier condition, final int maxCollections)
+    {
+        for (int i = 0; i < maxCollections; i++)
+        {
+            if (condition.getAsBoolean())
+            {
+                return true;
+            }
+            System.gc();
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,136 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProjectClassLoaderTest
+{
+    private static final String CLASS_ENTRY = Greeting.class.getName().replace('.', '/') + ".class";
+
+    @TempDir
+    Path directory;
+
+    private URL first;
+    private URL second;
+
+    @BeforeEach
+    void createJars() throws IOException
+    {
+        final byte[] classBytes;
+        try (final InputStream in = Greeting.class.getClassLoader().getResourceAsStream(CLASS_ENTRY))
+        {
+            classBytes = in.readAllBytes();
+        }
+
+        final Map<String, byte[]> a = new LinkedHashMap<>();
+        a.put(CLASS_ENTRY, classBytes);
+        a.put("config/shared.txt", bytes("first"));
+        a.put("root.txt", bytes("root"));
+        first = Files.write(directory.resolve("first.jar"), ZipContentTest.zip(a)).toUri().toURL();
+        second = Files.write(directory.resolve("second.jar"), ZipContentTest.zip(Map.of("config/shared.txt", bytes("second")))).toUri().toURL();
+    }
+
+    @Test
+    void definesClassesFromTheIndexedJar() throws Exception
+    {
+        try (final ProjectClassLoader loader = create(second, first))
+        {
+            final Class<?> type = loader.loadClass(Greeting.class.getName());
+
+            assertThat(type.getClassLoader()).isSameAs(loader);
+            assertThat(type.getProtectionDomain().getCodeSource().getLocation()).isEqualTo(first);
+            assertThat(type.getDeclaredConstructor().newInstance()).hasToString("hello");
+            assertThat(loader.getDefinedClassCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void resourcesFollowTheClassPathOrder() throws IOException
+    {
+        try (final ProjectClassLoader loader = create(second, first))
+        {
+            final List<URL> all = Collections.list(loader.findResources("config/shared.txt"));
+
+            assertThat(read(loader.findResource("config/shared.txt"))).isEqualTo("second");
+            assertThat(all).hasSize(2);
+            assertThat(read(all.get(1))).isEqualTo("first");
+            assertThat(read(loader.findResource("root.txt"))).isEqualTo("root");
+        }
+    }
+
+    @Test
+    void unknownPackagesFailWithoutSearching() throws IOException
+    {
+        try (final ProjectClassLoader loader = create(first, second))
+        {
+            assertThatThrownBy(() -> loader.loadClass("com.example.Missing")).isInstanceOf(ClassNotFoundException.class);
+            assertThat(loader.findResource("com/example/missing.txt")).isNull();
+            assertThat(loader.findResources("com/example/missing.txt").hasMoreElements()).isFalse();
+        }
+    }
+
+    @Test
+    void directoriesOnTheClassPathAreSearched() throws IOException
+    {
+        final Path classes = Files.createDirectories(directory.resolve("classes/com/example"));
+        Files.writeString(classes.resolve("extra.txt"), "extra");
+        try (final ProjectClassLoader loader = create(first, directory.resolve("classes").toUri().toURL()))
+        {
+            assertThat(read(loader.findResource("com/example/extra.txt"))).isEqualTo("extra");
+            assertThat(read(loader.findResource("config/shared.txt"))).isEqualTo("first");
+        }
+    }
+
+    private ProjectClassLoader create(final URL... urls) throws IOException
+    {
+        return new ProjectClassLoader("test", urls, ClassLoader.getPlatformClassLoader());
+    }
+
+    private static byte[] bytes(final String value)
+    {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(final URL url) throws IOException
+    {
+        try (final InputStream in = url.openStream())
+        {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ethlo.lamebda.loader;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+class ZipContentTest
+{
+    @Test
+    void readsStoredAndDeflatedEntries() throws IOException
+    {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("stored.txt", "stored content".getBytes(StandardCharsets.UTF_8));
+        entries.put("dir/deflated.txt", "deflated content ".repeat(100).getBytes(StandardCharsets.UTF_8));
+        final ZipContent content = new ZipContent(ByteBuffer.wrap(zip(entries, "stored.txt")));
+
+        assertThat(content.getEntries()).containsOnlyKeys("stored.txt", "dir/deflated.txt");
+        assertThat(content.getEntry("stored.txt").method()).isZero();
+        assertThat(content.getEntry("dir/deflated.txt").method()).isEqualTo(ZipEntry.DEFLATED);
+        assertThat(read(content, "stored.txt")).isEqualTo("stored content");
+        assertThat(read(content, "dir/deflated.txt")).isEqualTo("deflated content ".repeat(100));
+    }
+
+    @Test
+    void missingEntryIsNull() throws IOException
+    {
+        final ZipContent content = new ZipContent(ByteBuffer.wrap(zip(Map.of("a.txt", new byte[]{1}), "a.txt")));
+
+        assertThat(content.getEntry("b.txt")).isNull();
+    }
+
+    @Test
+    void directoryEntries() throws IOException
+    {
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("dir/", new byte[0]);
+        entries.put("dir/a.txt", new byte[]{1});
+        final ZipContent content = new ZipContent(ByteBuffer.wrap(zip(entries, "dir/")));
+
+        assertThat(content.getEntry("dir/").isDirectory()).isTrue();
+        assertThat(content.getEntry("dir/a.txt").isDirectory()).isFalse();
+    }
+
+    @Test
+    void rejectsDataWithoutCentralDirectory()
+    {
+        assertThatThrownBy(() -> new ZipContent(ByteBuffer.wrap(new byte[64])))
+                .isInstanceOf(ZipException.class);
+    }
+
+    /**
+     * @param entries The entries by name
+     * @param stored  The name of an entry to store uncompressed, the others are deflated
+     * @return The zip archive
+     */
+    static byte[] zip(final Map<String, byte[]> entries, final String... stored) throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final ZipOutputStream zip = new ZipOutputStream(out))
+        {
+            for (final Map.Entry<String, byte[]> e : entries.entrySet())
+            {
+                final ZipEntry entry = new ZipEntry(e.getKey());
+                if (Arrays.asList(stored).contains(e.getKey()))
+                {
+                    final CRC32 crc = new CRC32();
+                    crc.update(e.getValue());
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(e.getValue().length);
+                    entry.setCompressedSize(e.getValue().length);
+                    entry.setCrc(crc.getValue());
+                }
+                zip.putNextEntry(entry);
+                zip.write(e.getValue());
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static String read(final ZipContent content, final String name) throws ZipException
+    {
+        final ByteBuffer buffer = content.read(content.getEntry(name));
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
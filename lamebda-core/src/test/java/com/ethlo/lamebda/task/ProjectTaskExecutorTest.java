@@ -0,0 +1,157 @@
+package com.ethlo.lamebda.task;
+
+/*-
+ * #%L
+ * Lamebda Core
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+class ProjectTaskExecutorTest
+{
+    private final ClassLoader classLoader = new URLClassLoader(new URL[0], null);
+
+    @Test
+    void tasksRunWithTheProjectClassLoader() throws Exception
+    {
+        try (final ProjectTaskExecutor executor = new ProjectTaskExecutor("p1", classLoader, 0, 1_000))
+        {
+            final CompletableFuture<ClassLoader> contextClassLoader = new CompletableFuture<>();
+            executor.execute(() -> contextClassLoader.complete(Thread.currentThread().getContextClassLoader()));
+
+            assertThat(contextClassLoader.get(5, TimeUnit.SECONDS)).isSameAs(classLoader);
+        }
+    }
+
+    @Test
+    void submittingBlocksWhileTheConcurrencyLimitIsReached() throws Exception
+    {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(2);
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final Runnable task = () ->
+        {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            await(release);
+            running.decrementAndGet();
+        };
+
+        try (final ProjectTaskExecutor executor = new ProjectTaskExecutor("p1", classLoader, 2, 5_000))
+        {
+            executor.execute(task);
+            executor.execute(task);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(executor.getActiveCount()).isEqualTo(2);
+
+            final CompletableFuture<Void> third = CompletableFuture.runAsync(() -> executor.execute(task));
+            Thread.sleep(200);
+            assertThat(third).isNotDone();
+
+            release.countDown();
+            third.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    @Test
+    void closingWaitsForTheRunningTasks() throws Exception
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final ProjectTaskExecutor executor = new ProjectTaskExecutor("p1", classLoader, 0, 5_000);
+        executor.execute(() ->
+        {
+            started.countDown();
+            sleep(200);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        executor.close();
+
+        assertThat(executor.getActiveCount()).isZero();
+        assertThat(executor.getCompletedCount()).isEqualTo(1);
+        assertThatThrownBy(() -> executor.execute(() -> { })).isInstanceOf(TaskRejectedException.class);
+    }
+
+    @Test
+    void closingGivesUpOnTasksRunningPastTheTerminationTimeout() throws Exception
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ProjectTaskExecutor executor = new ProjectTaskExecutor("p1", classLoader, 0, 100);
+        executor.execute(() ->
+        {
+            started.countDown();
+            awaitUninterruptibly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final long start = System.nanoTime();
+        executor.close();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        assertThat(executor.getActiveCount()).isEqualTo(1);
+        release.countDown();
+    }
+
+    private static void await(final CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch)
+    {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (latch.getCount() > 0 && System.nanoTime() < deadline)
+        {
+            await(latch);
+            Thread.interrupted();
+        }
+    }
+
+    private static void sleep(final long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.ethlo.lamebda.maven;
+
+/*-
+ * #%L
+ * Lamebda Maven Plugin
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.FileSystemGeneratedFiles;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.aot.ApplicationContextAotGenerator;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.SpringVersion;
+import org.springframework.javapoet.ClassName;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import com.ethlo.lamebda.aot.AotDescriptor;
+
+/**
+ * Runs Spring ahead-of-time processing on the components of a Lamebda project, compiles the generated bean
+ * definition code into the project classes and adds a descriptor that Lamebda uses to skip component scanning and
+ * configuration class parsing when the project is loaded.
+ *
+ * <p>Conditions are evaluated at build time, so the generated bean definitions do not react to configuration
+ * changes at runtime.</p>
+ */
+@Mojo(name = "process-aot", defaultPhase = LifecyclePhase.PREPARE_PACKAGE, requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class ProcessAotMojo extends AbstractMojo
+{
+    private static final String BASE_PACKAGES_PROPERTY = "project.base-packages";
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The packages to scan for components. Read from the project properties file if not set
+     */
+    @Parameter
+    private List<String> basePackages;
+
+    /**
+     * The Lamebda project properties file, used to find the base packages if they are not set explicitly
+     */
+    @Parameter(defaultValue = "${project.basedir}/project.properties")
+    private File projectPropertiesFile;
+
+    /**
+     * The directory holding the compiled project classes. The generated classes are added to this directory
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File classesDirectory;
+
+    /**
+     * The directory to write the generated sources to
+     */
+    @Parameter(defaultValue = "${project.build.directory}/lamebda-aot", required = true)
+    private File generatedDirectory;
+
+    /**
+     * The Java release to compile the generated sources for
+     */
+    @Parameter(property = "lamebda.aot.release", defaultValue = "17")
+    private String release;
+
+    @Parameter(property = "lamebda.aot.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException
+    {
+        if (skip)
+        {
+            getLog().info("Skipping AOT processing");
+            return;
+        }
+
+        final Set<String> packages = resolveBasePackages();
+        final List<String> classpath = getClasspath();
+        final Path outputRoot = generatedDirectory.toPath();
+
+        final Thread currentThread = Thread.currentThread();
+        final ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+        try (final URLClassLoader projectClassLoader = new URLClassLoader(toUrls(classpath), getClass().getClassLoader()))
+        {
+            currentThread.setContextClassLoader(projectClassLoader);
+            FileSystemUtils.deleteRecursively(outputRoot);
+
+            final ClassName initializer = generate(projectClassLoader, packages, outputRoot);
+            // Generated classes, like configuration class proxies, are referenced by the generated sources
+            copyGeneratedClasses(outputRoot.resolve("classes"));
+            compile(outputRoot.resolve("sources"), classpath);
+            writeDescriptor(new AotDescriptor(initializer.canonicalName(), packages));
+
+            getLog().info("Generated " + initializer.canonicalName() + " for base packages " + packages);
+        }
+        catch (IOException exc)
+        {
+            throw new MojoExecutionException("AOT processing failed: " + exc.getMessage(), exc);
+        }
+        finally
+        {
+            currentThread.setContextClassLoader(previousClassLoader);
+        }
+    }
+
+    private ClassName generate(final ClassLoader classLoader, final Set<String> packages, final Path outputRoot)
+    {
+        final GenericApplicationContext context = new GenericApplicationContext();
+        context.setClassLoader(classLoader);
+        AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+        new ClassPathBeanDefinitionScanner(context).scan(packages.toArray(new String[0]));
+
+        final String targetPackage = packages.iterator().next();
+        final DefaultGenerationContext generationContext = new DefaultGenerationContext(new ClassNameGenerator(ClassName.get(targetPackage, "Lamebda")), new FileSystemGeneratedFiles(outputRoot));
+        final ClassName initializer = new ApplicationContextAotGenerator().processAheadOfTime(context, generationContext);
+        generationContext.writeGeneratedContent();
+        return initializer;
+    }
+
+    private void compile(final Path sourceDirectory, final List<String> classpath) throws IOException, MojoExecutionException
+    {
+        final List<File> sources;
+        try (final Stream<Path> files = Files.walk(sourceDirectory))
+        {
+            sources = files.filter(p -> p.toString().endsWith(".java")).map(Path::toFile).toList();
+        }
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null)
+        {
+            throw new MojoExecutionException("No Java compiler available. AOT processing requires a JDK");
+        }
+
+        // The generated code needs the Spring version the plugin generated it with, even if the project only has a subset
+        final Set<String> compileClasspath = new LinkedHashSet<>(classpath);
+        for (final Class<?> type : List.of(SpringVersion.class, BeanFactory.class, GenericApplicationContext.class))
+        {
+            compileClasspath.add(getLocation(type));
+        }
+
+        try (final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null))
+        {
+            final Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sources);
+            final List<String> options = List.of("--release", release, "-proc:none", "-nowarn", "-classpath", String.join(File.pathSeparator, compileClasspath), "-d", classesDirectory.getAbsolutePath());
+            if (!compiler.getTask(null, fileManager, null, options, null, units).call())
+            {
+                throw new MojoExecutionException("Compilation of the generated sources in " + sourceDirectory + " failed");
+            }
+        }
+    }
+
+    private static String getLocation(final Class<?> type) throws MojoExecutionException
+    {
+        try
+        {
+            return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+        }
+        catch (URISyntaxException exc)
+        {
+            throw new MojoExecutionException("Unable to determine the location of " + type.getName(), exc);
+        }
+    }
+
+    private void copyGeneratedClasses(final Path generatedClasses) throws IOException
+    {
+        if (!Files.isDirectory(generatedClasses))
+        {
+            return;
+        }
+
+        final Path target = classesDirectory.toPath();
+        try (final Stream<Path> files = Files.walk(generatedClasses))
+        {
+            for (final Path file : files.filter(Files::isRegularFile).toList())
+            {
+                final Path targetFile = target.resolve(generatedClasses.relativize(file).toString());
+                Files.createDirectories(targetFile.getParent());
+                Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private void writeDescriptor(final AotDescriptor descriptor) throws IOException
+    {
+        final Path file = classesDirectory.toPath().resolve(AotDescriptor.LOCATION);
+        Files.createDirectories(file.getParent());
+        try (final OutputStream out = Files.newOutputStream(file))
+        {
+            descriptor.store(out);
+        }
+    }
+
+    private Set<String> resolveBasePackages() throws MojoExecutionException
+    {
+        final Set<String> result = new LinkedHashSet<>();
+        if (basePackages != null && !basePackages.isEmpty())
+        {
+            basePackages.forEach(p -> result.add(p.trim()));
+        }
+        else if (projectPropertiesFile != null && projectPropertiesFile.isFile())
+        {
+            final Properties properties = new Properties();
+            try (final InputStream in = Files.newInputStream(projectPropertiesFile.toPath()))
+            {
+                properties.load(in);
+            }
+            catch (IOException exc)
+            {
+                throw new MojoExecutionException("Unable to read " + projectPropertiesFile, exc);
+            }
+            StringUtils.commaDelimitedListToSet(properties.getProperty(BASE_PACKAGES_PROPERTY, "")).forEach(p -> result.add(p.trim()));
+        }
+
+        result.remove("");
+        if (result.isEmpty())
+        {
+            throw new MojoExecutionException("No base packages configured. Set 'basePackages' or '" + BASE_PACKAGES_PROPERTY + "' in " + projectPropertiesFile);
+        }
+        return result;
+    }
+
+    private List<String> getClasspath() throws MojoExecutionException
+    {
+        try
+        {
+            return new ArrayList<>(project.getCompileClasspathElements());
+        }
+        catch (DependencyResolutionRequiredException exc)
+        {
+            throw new MojoExecutionException("Unable to resolve the project class path", exc);
+        }
+    }
+
+    private static URL[] toUrls(final List<String> classpath) throws MalformedURLException
+    {
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; i++)
+        {
+            urls[i] = new File(classpath.get(i)).toURI().toURL();
+        }
+        return urls;
+    }
+}
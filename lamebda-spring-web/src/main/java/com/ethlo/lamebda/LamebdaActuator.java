@@ -35,17 +35,28 @@ import java.util.stream.Collectors;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 
+import com.ethlo.lamebda.bulkhead.BulkheadRegistry;
+import com.ethlo.lamebda.lifecycle.ProjectActivity;
+import com.ethlo.lamebda.lifecycle.ProjectLoadReport;
+import com.ethlo.lamebda.loader.ClassLoaderLeakDetector;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
+import com.ethlo.lamebda.task.ProjectTaskExecutor;
 import com.ethlo.lamebda.util.IoUtil;
 
 @WebEndpoint(id = "lamebda")
 public class LamebdaActuator
 {
     private final ProjectManager projectManager;
+    private final EndpointMetricsRegistry endpointMetrics;
+    private final BulkheadRegistry bulkheads;
 
-    public LamebdaActuator(final ProjectManager projectManager)
+    public LamebdaActuator(final ProjectManager projectManager, @Nullable final EndpointMetricsRegistry endpointMetrics, final BulkheadRegistry bulkheads)
     {
         this.projectManager = projectManager;
+        this.endpointMetrics = endpointMetrics;
+        this.bulkheads = bulkheads;
     }
 
     private static String getIso8601Duration(OffsetDateTime start, OffsetDateTime end)
@@ -90,7 +101,36 @@ public class LamebdaActuator
         down.removeAll(projectManager.getProjects()
                 .keySet()
                 .stream().toList());
+        final List<String> deferred = down.stream().filter(projectManager.getDeferredProjects()::contains).sorted().toList();
+        down.removeAll(deferred);
+        res.put("projects_deferred", deferred);
+        res.put("projects_evicted", deferred.stream()
+                .map(projectManager::getActivity)
+                .filter(activity -> activity != null && activity.getEvictions() > 0)
+                .map(activity ->
+                {
+                    final Map<String, Object> evictedInfo = new LinkedHashMap<>();
+                    evictedInfo.put("alias", activity.getAlias());
+                    evictedInfo.putAll(getActivityInfo(activity));
+                    return evictedInfo;
+                })
+                .toList());
         res.put("projects_down", down);
+        final Map<String, Object> downHistory = new LinkedHashMap<>();
+        for (final String alias : down)
+        {
+            final List<ProjectLoadReport> history = projectManager.getLoadHistory(alias);
+            if (!history.isEmpty())
+            {
+                downHistory.put(alias, history.stream().map(this::getLoadInfo).toList());
+            }
+        }
+        res.put("projects_down_load_history", downHistory);
+        final ClassLoaderLeakDetector leakDetector = projectManager.getClassLoaderLeakDetector();
+        if (leakDetector != null)
+        {
+            res.put("class_loaders", getClassLoaderInfo(leakDetector));
+        }
         return ResponseEntity.ok(res);
     }
 
@@ -105,6 +145,90 @@ public class LamebdaActuator
         projectInfo.put("context_path", projectConfiguration.getContextPath());
         projectInfo.put("version", projectConfiguration.getProjectInfo().getVersion());
         projectInfo.put("request_mappings", project.getProjectContext().getBean("_all_mappings"));
+        if (project.getProjectContext().containsBean("_handler_counts"))
+        {
+            projectInfo.put("handlers", project.getProjectContext().getBean("_handler_counts"));
+        }
+        if (endpointMetrics != null)
+        {
+            projectInfo.put("endpoint_metrics", endpointMetrics.getSummary(project.getAlias()));
+        }
+        final Map<String, Object> bulkhead = bulkheads.getSummary(project.getAlias());
+        if (bulkhead != null)
+        {
+            projectInfo.put("bulkhead", bulkhead);
+        }
+        if (project.getProjectContext().containsLocalBean(ProjectTaskExecutor.BEAN_NAME))
+        {
+            final ProjectTaskExecutor taskExecutor = project.getProjectContext().getBean(ProjectTaskExecutor.BEAN_NAME, ProjectTaskExecutor.class);
+            final Map<String, Object> taskExecutorInfo = new LinkedHashMap<>();
+            taskExecutorInfo.put("virtual_threads", taskExecutor.isVirtualThreads());
+            taskExecutorInfo.put("max_concurrency", projectConfiguration.getTaskExecutorMaxConcurrency());
+            taskExecutorInfo.put("active", taskExecutor.getActiveCount());
+            taskExecutorInfo.put("completed", taskExecutor.getCompletedCount());
+            projectInfo.put("task_executor", taskExecutorInfo);
+        }
+        final ProjectActivity activity = projectManager.getActivity(project.getAlias());
+        if (activity != null)
+        {
+            projectInfo.put("activity", getActivityInfo(activity));
+        }
+        projectInfo.put("load_history", projectManager.getLoadHistory(project.getAlias())
+                .stream()
+                .map(this::getLoadInfo)
+                .toList());
         return projectInfo;
     }
+
+    private Map<String, Object> getClassLoaderInfo(ClassLoaderLeakDetector leakDetector)
+    {
+        final Map<String, Object> classLoaderInfo = new LinkedHashMap<>();
+        classLoaderInfo.put("open", leakDetector.getOpenCount());
+        classLoaderInfo.put("pending", leakDetector.getPendingCount());
+        classLoaderInfo.put("leaked", leakDetector.getLeakedCount());
+        classLoaderInfo.put("collected", leakDetector.getCollectedCount());
+        classLoaderInfo.put("leaks", leakDetector.getLeaks()
+                .stream()
+                .map(leak ->
+                {
+                    final Map<String, Object> leakInfo = new LinkedHashMap<>();
+                    leakInfo.put("alias", leak.alias());
+                    leakInfo.put("version", leak.version());
+                    leakInfo.put("closed", leak.closedAt().truncatedTo(ChronoUnit.SECONDS));
+                    leakInfo.put("gc_cycles", leak.gcCycles());
+                    leakInfo.put("suspects", leak.suspects());
+                    return leakInfo;
+                })
+                .toList());
+        return classLoaderInfo;
+    }
+
+    private Map<String, Object> getActivityInfo(final ProjectActivity activity)
+    {
+        final Map<String, Object> activityInfo = new LinkedHashMap<>();
+        activityInfo.put("last_access", OffsetDateTime.ofInstant(activity.getLastAccess(), ZoneId.systemDefault()).truncatedTo(ChronoUnit.SECONDS));
+        activityInfo.put("idle_timeout_ms", activity.getIdleTimeoutMillis());
+        activityInfo.put("evictions", activity.getEvictions());
+        return activityInfo;
+    }
+
+    private Map<String, Object> getLoadInfo(ProjectLoadReport report)
+    {
+        final Map<String, Object> loadInfo = new LinkedHashMap<>();
+        loadInfo.put("started", report.getStarted().truncatedTo(ChronoUnit.SECONDS));
+        loadInfo.put("version", report.getVersion());
+        loadInfo.put("successful", report.isSuccessful());
+        loadInfo.put("duration_ms", report.getDuration().toMillis());
+        final Map<String, Object> phases = new LinkedHashMap<>();
+        report.getPhases().forEach((phase, duration) -> phases.put(phase.getTagValue() + "_ms", duration.toMillis()));
+        loadInfo.put("phases", phases);
+        loadInfo.put("archive_size", report.getArchiveSize());
+        loadInfo.put("classes", report.getClassCount());
+        loadInfo.put("beans", report.getBeanCount());
+        if (!report.isSuccessful())
+        {
+            loadInfo.put("error", report.getError());
+        }
+        return loadInfo;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.ethlo.lamebda.aop;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.BeanFactoryAspectJAdvisorsBuilder;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+/**
+ * Holds the AspectJ advisors of the parent application context, so they are not built again for every controller
+ * of every project that is loaded. The advisors are built again after the parent context is refreshed.
+ */
+public class AspectJAdvisorCache implements ApplicationListener<ContextRefreshedEvent>
+{
+    private final ApplicationContext parentContext;
+    private volatile List<Advisor> advisors;
+
+    public AspectJAdvisorCache(final ApplicationContext parentContext)
+    {
+        this.parentContext = parentContext;
+    }
+
+    /**
+     * @return The AspectJ advisors of the parent context
+     */
+    public List<Advisor> getAdvisors()
+    {
+        List<Advisor> result = advisors;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                result = advisors;
+                if (result == null)
+                {
+                    result = List.copyOf(new BeanFactoryAspectJAdvisorsBuilder(parentContext).buildAspectJAdvisors());
+                    advisors = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param targetClass The class to advise
+     * @return The AspectJ advisors of the parent context that can apply to the given class
+     */
+    public List<Advisor> getAdvisors(final Class<?> targetClass)
+    {
+        return AopUtils.findAdvisorsThatCanApply(getAdvisors(), targetClass);
+    }
+
+    public synchronized void invalidate()
+    {
+        advisors = null;
+    }
+
+    @Override
+    public void onApplicationEvent(final ContextRefreshedEvent event)
+    {
+        // Events of the project contexts are propagated to the parent context as well
+        if (event.getApplicationContext() == parentContext)
+        {
+            invalidate();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ethlo.lamebda.bulkhead;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Limits the number of requests a project handles concurrently, using a {@link Semaphore} with one permit per request.
+ * A request that may wait for a permit is queued on the semaphore until one is released or the maximum wait time has
+ * passed.
+ */
+public class Bulkhead
+{
+    private final String alias;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+    private final Semaphore permits;
+
+    public Bulkhead(final String alias, final int maxConcurrent, final long maxWaitMillis, final Counter rejected)
+    {
+        if (maxConcurrent < 1)
+        {
+            throw new IllegalArgumentException("The maximum number of concurrent requests must be at least 1");
+        }
+        this.alias = alias;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.rejected = rejected;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Take a permit, to be returned with {@link #release()} when the request has completed
+     *
+     * @param mayWait Whether the calling thread may wait for a permit to become available
+     * @throws BulkheadFullException If no permit is available
+     */
+    public void acquire(final boolean mayWait)
+    {
+        if (permits.tryAcquire() || (mayWait && maxWaitNanos > 0 && tryAcquireWaiting()))
+        {
+            return;
+        }
+
+        rejected.increment();
+        throw new BulkheadFullException(alias, maxConcurrent);
+    }
+
+    private boolean tryAcquireWaiting()
+    {
+        try
+        {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Return a permit taken with {@link #acquire(boolean)}
+     */
+    public void release()
+    {
+        permits.release();
+    }
+
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    public int getMaxConcurrent()
+    {
+        return maxConcurrent;
+    }
+
+    public int getActive()
+    {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public long getRejectedCount()
+    {
+        return (long) rejected.count();
+    }
+
+    Counter getRejected()
+    {
+        return rejected;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ethlo.lamebda.bulkhead;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Thrown when a project is handling the maximum number of concurrent requests it is configured for. Results in a
+ * <code>503 Service Unavailable</code> response.
+ */
+public class BulkheadFullException extends ResponseStatusException
+{
+    public BulkheadFullException(final String alias, final int maxConcurrent)
+    {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Project " + alias + " is handling its maximum of " + maxConcurrent + " concurrent requests");
+    }
+}
@@ -0,0 +1,112 @@
+package com.ethlo.lamebda.bulkhead;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.lang.Nullable;
+
+import com.ethlo.lamebda.ProjectConfiguration;
+
+/**
+ * Keeps the bulkheads of the projects that limit their number of concurrent requests. The rejected requests are
+ * counted per project, across versions of the project.
+ */
+public class BulkheadRegistry
+{
+    public static final String REJECTED = "lamebda.bulkhead.rejected";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<ApplicationContext, Bulkhead> bulkheads = new IdentityHashMap<>();
+
+    public BulkheadRegistry(final MeterRegistry meterRegistry)
+    {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Create the bulkhead of a project
+     *
+     * @param projectCtx           The project context
+     * @param projectConfiguration The project configuration
+     * @return The bulkhead, or null if the number of concurrent requests of the project is not limited
+     */
+    @Nullable
+    public synchronized Bulkhead register(final ApplicationContext projectCtx, final ProjectConfiguration projectConfiguration)
+    {
+        bulkheads.remove(projectCtx);
+        if (projectConfiguration.getMaxConcurrentRequests() == 0)
+        {
+            return null;
+        }
+
+        final String alias = projectConfiguration.getPath().getFileName().toString();
+        final Counter rejected = Counter.builder(REJECTED)
+                .description("Requests rejected as a Lamebda project was handling its maximum number of concurrent requests")
+                .tag("project", alias)
+                .register(meterRegistry);
+        final Bulkhead bulkhead = new Bulkhead(alias, projectConfiguration.getMaxConcurrentRequests(), projectConfiguration.getMaxRequestWaitMillis(), rejected);
+        bulkheads.put(projectCtx, bulkhead);
+        return bulkhead;
+    }
+
+    /**
+     * Remove the bulkhead of the given project. The rejection counter is removed if no other version of the project
+     * has a bulkhead
+     *
+     * @param projectCtx The project context
+     */
+    public synchronized void remove(final ApplicationContext projectCtx)
+    {
+        final Bulkhead bulkhead = bulkheads.remove(projectCtx);
+        if (bulkhead != null && bulkheads.values().stream().noneMatch(other -> other.getAlias().equals(bulkhead.getAlias())))
+        {
+            meterRegistry.remove(bulkhead.getRejected());
+        }
+    }
+
+    /**
+     * @param alias The project alias
+     * @return A summary of the bulkhead of the project, or null if the project has none
+     */
+    @Nullable
+    public synchronized Map<String, Object> getSummary(final String alias)
+    {
+        for (final Bulkhead bulkhead : bulkheads.values())
+        {
+            if (bulkhead.getAlias().equals(alias))
+            {
+                final Map<String, Object> result = new LinkedHashMap<>();
+                result.put("max_concurrent", bulkhead.getMaxConcurrent());
+                result.put("active", bulkhead.getActive());
+                result.put("rejected", bulkhead.getRejectedCount());
+                return result;
+            }
+        }
+        return null;
+    }
+}
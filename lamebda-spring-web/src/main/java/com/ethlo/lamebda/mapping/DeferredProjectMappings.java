@@ -0,0 +1,76 @@
+package com.ethlo.lamebda.mapping;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.Nullable;
+
+import com.ethlo.lamebda.Project;
+import com.ethlo.lamebda.ProjectConfiguration;
+import com.ethlo.lamebda.lifecycle.ProjectDeferredEvent;
+import com.ethlo.lamebda.lifecycle.ProjectLoadedEvent;
+
+/**
+ * Holds the context path of each lazy project that is not loaded yet, so the first request to it can trigger the
+ * load. The context path of a project is removed when the project is loaded, and its routes are served as usual.
+ */
+public class DeferredProjectMappings implements ApplicationListener<ApplicationEvent>
+{
+    private final ProjectMappings<String> mappings = new ProjectMappings<>();
+
+    @Override
+    public void onApplicationEvent(final ApplicationEvent event)
+    {
+        if (event instanceof ProjectDeferredEvent deferredEvent)
+        {
+            final ProjectConfiguration cfg = deferredEvent.getProjectConfiguration();
+            mappings.put(deferredEvent.getAlias(), cfg.getRootContextPath() + "/" + cfg.getContextPath(), deferredEvent.getAlias());
+        }
+        else if (event instanceof ProjectLoadedEvent loadedEvent)
+        {
+            remove(Project.toAlias(loadedEvent.getProjectConfiguration().getPath()));
+        }
+    }
+
+    /**
+     * @param path The request path
+     * @return The alias of the deferred project serving the path, or null if the path belongs to no deferred project
+     */
+    @Nullable
+    public String find(final String path)
+    {
+        final List<String> aliases = mappings.find(path);
+        return aliases.isEmpty() ? null : aliases.get(0);
+    }
+
+    /**
+     * Stop announcing the context path of a project
+     *
+     * @param alias The project alias
+     */
+    public void remove(final String alias)
+    {
+        mappings.remove(alias);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ethlo.lamebda.mapping;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * The number of handler methods of a project that are invoked through an AOP proxy, and the number that are invoked
+ * directly on the controller because no advice applies to them
+ */
+public class HandlerCounts
+{
+    private int proxied;
+    private int direct;
+
+    public void increment(final boolean isProxied)
+    {
+        if (isProxied)
+        {
+            proxied++;
+        }
+        else
+        {
+            direct++;
+        }
+    }
+
+    public int getProxied()
+    {
+        return proxied;
+    }
+
+    public int getDirect()
+    {
+        return direct;
+    }
+}
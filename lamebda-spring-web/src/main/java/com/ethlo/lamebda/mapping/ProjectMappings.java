@@ -0,0 +1,152 @@
+package com.ethlo.lamebda.mapping;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the handler mapping of each project by the path prefix it serves. Lookups walk a prefix trie of path
+ * segments, so the cost of finding the mappings for a request path does not depend on the number of projects or
+ * routes. The trie is rebuilt and swapped when a project is added or removed, so lookups never block.
+ *
+ * @param <M> The handler mapping type
+ */
+public class ProjectMappings<M>
+{
+    private final Map<Object, Registration<M>> registrations = new LinkedHashMap<>();
+    private volatile Node<M> root = new Node<>();
+
+    /**
+     * Add the handler mapping of a project. A mapping added later takes precedence over earlier mappings for the same
+     * prefix, so a new version of a project can be added before the previous version is removed.
+     *
+     * @param key     The key of the mapping, typically the project context
+     * @param prefix  The path prefix of the project routes
+     * @param mapping The handler mapping holding the project routes
+     */
+    public synchronized void put(final Object key, final String prefix, final M mapping)
+    {
+        registrations.remove(key);
+        registrations.put(key, new Registration<>(segments(prefix), mapping));
+        rebuild();
+    }
+
+    /**
+     * Remove the handler mapping of a project
+     *
+     * @param key The key of the mapping
+     * @return The mapping that was removed, or null if the project has no mapping
+     */
+    public synchronized M remove(final Object key)
+    {
+        final Registration<M> registration = registrations.remove(key);
+        if (registration == null)
+        {
+            return null;
+        }
+        rebuild();
+        return registration.mapping();
+    }
+
+    /**
+     * @param path The request path
+     * @return The mappings with a prefix that matches the path, the longest prefix and the latest added first
+     */
+    public List<M> find(final String path)
+    {
+        Node<M> node = root;
+        List<M> result = node.mappings;
+        int start = 0;
+        final int length = path.length();
+        while (start < length)
+        {
+            if (path.charAt(start) == '/')
+            {
+                start++;
+                continue;
+            }
+
+            int end = path.indexOf('/', start);
+            end = end == -1 ? length : end;
+            node = node.children.get(path.substring(start, end));
+            if (node == null)
+            {
+                break;
+            }
+            if (!node.mappings.isEmpty())
+            {
+                result = result.isEmpty() ? node.mappings : concat(node.mappings, result);
+            }
+            start = end;
+        }
+        return result;
+    }
+
+    private static <M> List<M> concat(final List<M> first, final List<M> second)
+    {
+        final List<M> result = new ArrayList<>(first.size() + second.size());
+        result.addAll(first);
+        result.addAll(second);
+        return result;
+    }
+
+    private void rebuild()
+    {
+        final Node<M> newRoot = new Node<>();
+        registrations.values().forEach(registration ->
+        {
+            Node<M> node = newRoot;
+            for (final String segment : registration.prefix())
+            {
+                node = node.children.computeIfAbsent(segment, k -> new Node<>());
+            }
+            node.mappings.add(0, registration.mapping());
+        });
+        root = newRoot;
+    }
+
+    private static List<String> segments(final String path)
+    {
+        final List<String> result = new ArrayList<>();
+        for (final String segment : path.split("/"))
+        {
+            if (!segment.isEmpty())
+            {
+                result.add(segment);
+            }
+        }
+        return result;
+    }
+
+    private record Registration<M>(List<String> prefix, M mapping)
+    {
+    }
+
+    private static class Node<M>
+    {
+        private final Map<String, Node<M>> children = new HashMap<>();
+        private final List<M> mappings = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ethlo.lamebda.mapping;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Keeps track of the request mappings each project has registered in the handler mappings of the application, so
+ * they can be unregistered without scanning all the handler methods of the application.
+ *
+ * <p>A mapping belongs to the project that registered it last. When a new version of a project registers the same
+ * mapping, the mapping is no longer unregistered when the previous version is closed. When the new version is closed
+ * while the previous version is still registered, for example because activating it failed, the mapping is given back
+ * to the previous version.</p>
+ *
+ * @param <H> The handler mapping type
+ * @param <I> The request mapping info type
+ */
+public class RouteRegistry<H, I>
+{
+    private final Map<ApplicationContext, Map<Route<H, I>, Handler>> routes = new IdentityHashMap<>();
+    private final Map<Route<H, I>, List<ApplicationContext>> registrants = new HashMap<>();
+
+    /**
+     * Record that the given project has registered the mapping info in the handler mapping
+     *
+     * @param projectCtx     The project context
+     * @param handlerMapping The handler mapping
+     * @param info           The request mapping info
+     * @param handler        The handler the mapping info is registered for
+     * @param method         The handler method
+     */
+    public synchronized void register(final ApplicationContext projectCtx, final H handlerMapping, final I info, final Object handler, final Method method)
+    {
+        final Route<H, I> route = new Route<>(handlerMapping, info);
+        routes.computeIfAbsent(projectCtx, k -> new LinkedHashMap<>()).put(route, new Handler(handler, method));
+        final List<ApplicationContext> projects = registrants.computeIfAbsent(route, k -> new ArrayList<>(1));
+        projects.remove(projectCtx);
+        projects.add(projectCtx);
+    }
+
+    /**
+     * Forget all mappings of the given project
+     *
+     * @param projectCtx The project context
+     * @return The mapping infos to unregister, as the project still owns them, and the mappings to give back to the
+     * projects that registered them before
+     */
+    public synchronized Removal<H, I> remove(final ApplicationContext projectCtx)
+    {
+        final Map<Route<H, I>, Handler> registered = routes.remove(projectCtx);
+        if (registered == null)
+        {
+            return new Removal<>(Map.of(), List.of());
+        }
+
+        final Map<H, List<I>> unregistered = new LinkedHashMap<>();
+        final List<RestoredRoute<H, I>> restored = new ArrayList<>();
+        registered.keySet().forEach(route ->
+        {
+            final List<ApplicationContext> projects = registrants.get(route);
+            final boolean owner = projects.get(projects.size() - 1) == projectCtx;
+            projects.remove(projectCtx);
+            if (!owner)
+            {
+                return;
+            }
+
+            if (projects.isEmpty())
+            {
+                registrants.remove(route);
+                unregistered.computeIfAbsent(route.handlerMapping(), k -> new ArrayList<>()).add(route.info());
+            }
+            else
+            {
+                final Handler previous = routes.get(projects.get(projects.size() - 1)).get(route);
+                restored.add(new RestoredRoute<>(route.handlerMapping(), route.info(), previous.handler(), previous.method()));
+            }
+        });
+        return new Removal<>(unregistered, restored);
+    }
+
+    /**
+     * The changes to make to the handler mappings when a project is removed
+     *
+     * @param unregistered The mapping infos to unregister, per handler mapping
+     * @param restored     The mappings to register again for the project that registered them before
+     */
+    public record Removal<H, I>(Map<H, List<I>> unregistered, List<RestoredRoute<H, I>> restored)
+    {
+    }
+
+    /**
+     * A mapping to register again for the project that registered it before the removed project took it over
+     */
+    public record RestoredRoute<H, I>(H handlerMapping, I info, Object handler, Method method)
+    {
+    }
+
+    private record Route<H, I>(H handlerMapping, I info)
+    {
+    }
+
+    private record Handler(Object handler, Method method)
+    {
+    }
+}
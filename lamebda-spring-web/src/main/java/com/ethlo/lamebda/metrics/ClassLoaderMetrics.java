@@ -0,0 +1,59 @@
+package com.ethlo.lamebda.metrics;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.ethlo.lamebda.loader.ClassLoaderLeakDetector;
+
+/**
+ * Publishes the number of project class loaders that are open, closed but not yet collected, and leaked, as well as
+ * the number of class loaders that have been collected
+ */
+public class ClassLoaderMetrics
+{
+    public static final String CLASS_LOADERS = "lamebda.classloaders";
+    public static final String COLLECTED = "lamebda.classloaders.collected";
+
+    public ClassLoaderMetrics(final ClassLoaderLeakDetector leakDetector, final MeterRegistry meterRegistry)
+    {
+        Objects.requireNonNull(leakDetector, "Class loader leak detection is not enabled");
+        gauge(meterRegistry, leakDetector, "open", ClassLoaderLeakDetector::getOpenCount);
+        gauge(meterRegistry, leakDetector, "pending", ClassLoaderLeakDetector::getPendingCount);
+        gauge(meterRegistry, leakDetector, "leaked", ClassLoaderLeakDetector::getLeakedCount);
+        FunctionCounter.builder(COLLECTED, leakDetector, ClassLoaderLeakDetector::getCollectedCount)
+                .description("Class loaders of closed Lamebda projects that have been garbage collected")
+                .register(meterRegistry);
+    }
+
+    private static void gauge(final MeterRegistry meterRegistry, final ClassLoaderLeakDetector leakDetector, final String state, final ToDoubleFunction<ClassLoaderLeakDetector> count)
+    {
+        Gauge.builder(CLASS_LOADERS, leakDetector, count)
+                .description("Class loaders of Lamebda projects, by state")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
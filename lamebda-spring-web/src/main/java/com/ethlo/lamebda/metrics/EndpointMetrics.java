@@ -0,0 +1,215 @@
+package com.ethlo.lamebda.metrics;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import com.ethlo.lamebda.HttpMethod;
+
+/**
+ * The request metrics of a single route of a project. The meters are created up front, or on the first request with
+ * a given HTTP method, so recording a request does not allocate.
+ */
+public class EndpointMetrics
+{
+    public static final String REQUESTS = "lamebda.requests";
+    public static final String ERRORS = "lamebda.requests.errors";
+    public static final String ACTIVE = "lamebda.requests.active";
+
+    private static final HttpMethod[] HTTP_METHODS = HttpMethod.values();
+    private static final String OTHER = "OTHER";
+
+    private final MeterRegistry meterRegistry;
+    private final String alias;
+    private final String pattern;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Gauge activeGauge;
+    private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(HTTP_METHODS.length + 1);
+    private final AtomicReferenceArray<Counter> errors = new AtomicReferenceArray<>(HTTP_METHODS.length + 1);
+
+    public EndpointMetrics(final MeterRegistry meterRegistry, final String alias, final String pattern)
+    {
+        this.meterRegistry = meterRegistry;
+        this.alias = alias;
+        this.pattern = pattern;
+        this.activeGauge = Gauge.builder(ACTIVE, active, AtomicInteger::get)
+                .description("Requests currently handled by a Lamebda project route")
+                .tag("project", alias)
+                .tag("uri", pattern)
+                .register(meterRegistry);
+    }
+
+    public String getAlias()
+    {
+        return alias;
+    }
+
+    public String getPattern()
+    {
+        return pattern;
+    }
+
+    /**
+     * Called when the handling of a request starts
+     */
+    public void started()
+    {
+        active.incrementAndGet();
+    }
+
+    /**
+     * Called when the handling of a request has completed
+     *
+     * @param httpMethod    The HTTP method of the request
+     * @param durationNanos The time it took to handle the request
+     * @param failed        Whether the request failed
+     */
+    public void completed(final String httpMethod, final long durationNanos, final boolean failed)
+    {
+        active.decrementAndGet();
+        final int index = indexOf(httpMethod);
+        timer(index).record(durationNanos, TimeUnit.NANOSECONDS);
+        if (failed)
+        {
+            errorCounter(index).increment();
+        }
+    }
+
+    private static int indexOf(final String httpMethod)
+    {
+        for (int i = 0; i < HTTP_METHODS.length; i++)
+        {
+            if (HTTP_METHODS[i].name().equals(httpMethod))
+            {
+                return i;
+            }
+        }
+        return HTTP_METHODS.length;
+    }
+
+    private static String nameOf(final int index)
+    {
+        return index < HTTP_METHODS.length ? HTTP_METHODS[index].name() : OTHER;
+    }
+
+    private Timer timer(final int index)
+    {
+        final Timer timer = timers.get(index);
+        if (timer != null)
+        {
+            return timer;
+        }
+
+        timers.compareAndSet(index, null, Timer.builder(REQUESTS)
+                .description("Requests handled by a Lamebda project route")
+                .tag("project", alias)
+                .tag("uri", pattern)
+                .tag("method", nameOf(index))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+        return timers.get(index);
+    }
+
+    private Counter errorCounter(final int index)
+    {
+        final Counter counter = errors.get(index);
+        if (counter != null)
+        {
+            return counter;
+        }
+
+        errors.compareAndSet(index, null, Counter.builder(ERRORS)
+                .description("Failed requests handled by a Lamebda project route")
+                .tag("project", alias)
+                .tag("uri", pattern)
+                .tag("method", nameOf(index))
+                .register(meterRegistry));
+        return errors.get(index);
+    }
+
+    /**
+     * @return A summary of the metrics of this route, for display
+     */
+    public Map<String, Object> getSummary()
+    {
+        final Map<String, Object> methods = new LinkedHashMap<>();
+        for (int i = 0; i < timers.length(); i++)
+        {
+            final Timer timer = timers.get(i);
+            if (timer == null)
+            {
+                continue;
+            }
+
+            final Map<String, Object> method = new LinkedHashMap<>();
+            method.put("count", timer.count());
+            final Counter counter = errors.get(i);
+            method.put("errors", counter != null ? (long) counter.count() : 0L);
+            method.put("mean_ms", timer.mean(TimeUnit.MILLISECONDS));
+            method.put("max_ms", timer.max(TimeUnit.MILLISECONDS));
+            for (final ValueAtPercentile percentile : timer.takeSnapshot().percentileValues())
+            {
+                method.put("p" + Math.round(percentile.percentile() * 100) + "_ms", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            methods.put(nameOf(i), method);
+        }
+
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("uri", pattern);
+        result.put("active", active.get());
+        result.put("methods", methods);
+        return result;
+    }
+
+    /**
+     * Remove the meters of this route from the meter registry
+     */
+    public void close()
+    {
+        final List<Meter> meters = new ArrayList<>();
+        meters.add(activeGauge);
+        for (int i = 0; i < timers.length(); i++)
+        {
+            if (timers.get(i) != null)
+            {
+                meters.add(timers.get(i));
+            }
+            if (errors.get(i) != null)
+            {
+                meters.add(errors.get(i));
+            }
+        }
+        meters.forEach(meterRegistry::remove);
+    }
+}
@@ -0,0 +1,185 @@
+package com.ethlo.lamebda.metrics;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.lang.Nullable;
+
+/**
+ * Keeps the request metrics of the project routes, by the handler method that serves them. The metrics of a route are
+ * shared by all versions of a project, and are removed when the last version that serves the route is closed.
+ */
+public class EndpointMetricsRegistry
+{
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, EndpointMetrics[]> byMethod = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Owned>> byAlias = new HashMap<>();
+    private final Map<ApplicationContext, Registration> registrations = new IdentityHashMap<>();
+
+    public EndpointMetricsRegistry(final MeterRegistry meterRegistry)
+    {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Register the routes of a handler method of a project
+     *
+     * @param projectCtx The project context
+     * @param alias      The project alias
+     * @param method     The handler method
+     * @param patterns   The route patterns the method serves
+     */
+    public synchronized void register(final ApplicationContext projectCtx, final String alias, final Method method, final Collection<String> patterns)
+    {
+        final Registration registration = registrations.computeIfAbsent(projectCtx, k -> new Registration(alias));
+        final Map<String, Owned> routes = byAlias.computeIfAbsent(alias, k -> new HashMap<>());
+        final List<EndpointMetrics> metrics = new ArrayList<>(patterns.size());
+        for (final String pattern : patterns)
+        {
+            final Owned owned = routes.computeIfAbsent(pattern, k -> new Owned(new EndpointMetrics(meterRegistry, alias, pattern)));
+            if (registration.patterns.add(pattern))
+            {
+                owned.owners++;
+            }
+            metrics.add(owned.metrics);
+        }
+        registration.methods.add(method);
+        byMethod.put(method, metrics.toArray(new EndpointMetrics[0]));
+    }
+
+    /**
+     * @param method  The handler method
+     * @param pattern The route pattern that matched the request, if known
+     * @return The metrics of the route, or null if the method does not serve a project route
+     */
+    @Nullable
+    public EndpointMetrics find(final Method method, @Nullable final String pattern)
+    {
+        final EndpointMetrics[] metrics = byMethod.get(method);
+        if (metrics == null || metrics.length == 0)
+        {
+            return null;
+        }
+
+        if (metrics.length > 1 && pattern != null)
+        {
+            for (final EndpointMetrics candidate : metrics)
+            {
+                if (candidate.getPattern().equals(pattern))
+                {
+                    return candidate;
+                }
+            }
+        }
+        return metrics[0];
+    }
+
+    /**
+     * @param method The handler method
+     * @return Whether the method serves a project route
+     */
+    public boolean contains(final Method method)
+    {
+        return byMethod.containsKey(method);
+    }
+
+    /**
+     * Remove the routes of the given project. The metrics of routes no other version of the project serves are removed
+     *
+     * @param projectCtx The project context
+     */
+    public synchronized void remove(final ApplicationContext projectCtx)
+    {
+        final Registration registration = registrations.remove(projectCtx);
+        if (registration == null)
+        {
+            return;
+        }
+
+        registration.methods.forEach(byMethod::remove);
+        final Map<String, Owned> routes = byAlias.get(registration.alias);
+        for (final String pattern : registration.patterns)
+        {
+            final Owned owned = routes.get(pattern);
+            if (--owned.owners == 0)
+            {
+                routes.remove(pattern);
+                owned.metrics.close();
+            }
+        }
+        if (routes.isEmpty())
+        {
+            byAlias.remove(registration.alias);
+        }
+    }
+
+    /**
+     * @param alias The project alias
+     * @return A summary of the metrics of each route of the project
+     */
+    public synchronized List<Map<String, Object>> getSummary(final String alias)
+    {
+        final Map<String, Owned> routes = byAlias.getOrDefault(alias, Map.of());
+        return routes.values()
+                .stream()
+                .map(owned -> owned.metrics)
+                .sorted(Comparator.comparing(EndpointMetrics::getPattern))
+                .map(EndpointMetrics::getSummary)
+                .toList();
+    }
+
+    private static class Owned
+    {
+        private final EndpointMetrics metrics;
+        private int owners;
+
+        private Owned(final EndpointMetrics metrics)
+        {
+            this.metrics = metrics;
+        }
+    }
+
+    private static class Registration
+    {
+        private final String alias;
+        private final Set<String> patterns = new LinkedHashSet<>();
+        private final Set<Method> methods = new LinkedHashSet<>();
+
+        private Registration(final String alias)
+        {
+            this.alias = alias;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ethlo.lamebda.metrics;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.util.Map;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.context.ApplicationListener;
+
+import com.ethlo.lamebda.lifecycle.LoadPhase;
+import com.ethlo.lamebda.lifecycle.ProjectLoadCompletedEvent;
+import com.ethlo.lamebda.lifecycle.ProjectLoadReport;
+
+/**
+ * Publishes the time spent loading each project, in total and per load phase
+ */
+public class ProjectLoadMetrics implements ApplicationListener<ProjectLoadCompletedEvent>
+{
+    public static final String LOAD = "lamebda.project.load";
+    public static final String LOAD_PHASE = "lamebda.project.load.phase";
+
+    private final MeterRegistry meterRegistry;
+
+    public ProjectLoadMetrics(final MeterRegistry meterRegistry)
+    {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onApplicationEvent(final ProjectLoadCompletedEvent event)
+    {
+        final ProjectLoadReport report = event.getReport();
+        Timer.builder(LOAD)
+                .description("Time spent loading a Lamebda project")
+                .tag("project", report.getAlias())
+                .tag("outcome", report.isSuccessful() ? "success" : "failure")
+                .register(meterRegistry)
+                .record(report.getDuration());
+
+        for (final Map.Entry<LoadPhase, Duration> phase : report.getPhases().entrySet())
+        {
+            Timer.builder(LOAD_PHASE)
+                    .description("Time spent in a phase of loading a Lamebda project")
+                    .tag("project", report.getAlias())
+                    .tag("phase", phase.getKey().getTagValue())
+                    .register(meterRegistry)
+                    .record(phase.getValue());
+        }
+    }
+}
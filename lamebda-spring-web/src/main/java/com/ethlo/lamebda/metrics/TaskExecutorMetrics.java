@@ -0,0 +1,100 @@
+package com.ethlo.lamebda.metrics;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+
+import com.ethlo.lamebda.lifecycle.ProjectClosingEvent;
+import com.ethlo.lamebda.lifecycle.ProjectEvent;
+import com.ethlo.lamebda.lifecycle.ProjectLoadedEvent;
+import com.ethlo.lamebda.task.ProjectTaskExecutor;
+
+/**
+ * Publishes the number of running and completed tasks of the task executor of each project. The meters follow the
+ * most recently loaded version of a project.
+ */
+public class TaskExecutorMetrics implements ApplicationListener<ProjectEvent>
+{
+    public static final String ACTIVE = "lamebda.tasks.active";
+    public static final String COMPLETED = "lamebda.tasks.completed";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Registration> registrations = new HashMap<>();
+
+    public TaskExecutorMetrics(final MeterRegistry meterRegistry)
+    {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public synchronized void onApplicationEvent(final ProjectEvent event)
+    {
+        final ApplicationContext projectCtx = event.getProjectContext();
+        if (!projectCtx.containsLocalBean(ProjectTaskExecutor.BEAN_NAME))
+        {
+            return;
+        }
+
+        final ProjectTaskExecutor taskExecutor = projectCtx.getBean(ProjectTaskExecutor.BEAN_NAME, ProjectTaskExecutor.class);
+        final Registration existing = registrations.get(taskExecutor.getAlias());
+        if (event instanceof ProjectLoadedEvent && (existing == null || existing.projectCtx != projectCtx))
+        {
+            if (existing != null)
+            {
+                existing.meters.forEach(meterRegistry::remove);
+            }
+            registrations.put(taskExecutor.getAlias(), new Registration(projectCtx, register(taskExecutor)));
+        }
+        else if (event instanceof ProjectClosingEvent && existing != null && existing.projectCtx == projectCtx)
+        {
+            existing.meters.forEach(meterRegistry::remove);
+            registrations.remove(taskExecutor.getAlias());
+        }
+    }
+
+    private List<Meter> register(final ProjectTaskExecutor taskExecutor)
+    {
+        return List.of(
+                Gauge.builder(ACTIVE, taskExecutor, ProjectTaskExecutor::getActiveCount)
+                        .description("Tasks currently running on the task executor of a Lamebda project")
+                        .tag("project", taskExecutor.getAlias())
+                        .register(meterRegistry),
+                FunctionCounter.builder(COMPLETED, taskExecutor, ProjectTaskExecutor::getCompletedCount)
+                        .description("Tasks completed by the task executor of a Lamebda project")
+                        .tag("project", taskExecutor.getAlias())
+                        .register(meterRegistry)
+        );
+    }
+
+    private record Registration(ApplicationContext projectCtx, List<Meter> meters)
+    {
+    }
+}
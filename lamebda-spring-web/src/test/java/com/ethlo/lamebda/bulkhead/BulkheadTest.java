@@ -0,0 +1,167 @@
+package com.ethlo.lamebda.bulkhead;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkheadTest
+{
+    private final Counter rejected = Counter.builder(BulkheadRegistry.REJECTED).register(new SimpleMeterRegistry());
+
+    @Test
+    void rejectsRequestsAboveTheLimit()
+    {
+        final Bulkhead bulkhead = new Bulkhead("p1", 2, 0, rejected);
+        bulkhead.acquire(true);
+        bulkhead.acquire(true);
+
+        assertThatThrownBy(() -> bulkhead.acquire(true))
+                .isInstanceOfSatisfying(BulkheadFullException.class, exc -> assertThat(exc.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .hasMessageContaining("p1");
+        assertThat(bulkhead.getActive()).isEqualTo(2);
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void releaseReturnsThePermit()
+    {
+        final Bulkhead bulkhead = new Bulkhead("p1", 1, 0, rejected);
+        bulkhead.acquire(false);
+        bulkhead.release();
+        bulkhead.acquire(false);
+
+        assertThat(bulkhead.getActive()).isEqualTo(1);
+        assertThat(bulkhead.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void doesNotWaitUnlessAllowed()
+    {
+        final Bulkhead bulkhead = new Bulkhead("p1", 1, 10_000, rejected);
+        bulkhead.acquire(false);
+
+        final long started = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.acquire(false)).isInstanceOf(BulkheadFullException.class);
+        assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void waitsForAPermitUpToTheMaximumWaitTime()
+    {
+        final Bulkhead bulkhead = new Bulkhead("p1", 1, 100, rejected);
+        bulkhead.acquire(true);
+
+        final long started = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.acquire(true)).isInstanceOf(BulkheadFullException.class);
+        assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void waitingRequestTakesTheReleasedPermit() throws Exception
+    {
+        final Bulkhead bulkhead = new Bulkhead("p1", 1, 10_000, rejected);
+        bulkhead.acquire(true);
+
+        final CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> bulkhead.acquire(true));
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+
+        bulkhead.release();
+        waiting.get(5, TimeUnit.SECONDS);
+        assertThat(bulkhead.getActive()).isEqualTo(1);
+        assertThat(bulkhead.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void neverExceedsTheLimitUnderContention() throws Exception
+    {
+        final int maxConcurrent = 3;
+        final int threads = 8;
+        final Bulkhead bulkhead = new Bulkhead("p1", maxConcurrent, 10_000, rejected);
+        final AtomicInteger inside = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+            {
+                futures.add(executor.submit(() ->
+                {
+                    start.await();
+                    for (int j = 0; j < 200; j++)
+                    {
+                        bulkhead.acquire(true);
+                        try
+                        {
+                            peak.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                            Thread.onSpinWait();
+                            inside.decrementAndGet();
+                        }
+                        finally
+                        {
+                            bulkhead.release();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertThat(peak.get()).isBetween(1, maxConcurrent);
+        assertThat(bulkhead.getActive()).isZero();
+        assertThat(bulkhead.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void requiresAPositiveLimit()
+    {
+        assertThatThrownBy(() -> new Bulkhead("p1", 0, 0, rejected)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
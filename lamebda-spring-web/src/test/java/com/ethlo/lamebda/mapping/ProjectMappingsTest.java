@@ -0,0 +1,89 @@
+package com.ethlo.lamebda.mapping;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ProjectMappingsTest
+{
+    private final ProjectMappings<String> mappings = new ProjectMappings<>();
+
+    @Test
+    void findsMappingsBySegmentPrefix()
+    {
+        mappings.put("a", "/gateway/a", "mapping-a");
+        mappings.put("b", "/gateway/b/", "mapping-b");
+
+        assertThat(mappings.find("/gateway/a")).containsExactly("mapping-a");
+        assertThat(mappings.find("/gateway/a/items/1")).containsExactly("mapping-a");
+        assertThat(mappings.find("//gateway//b/items")).containsExactly("mapping-b");
+        assertThat(mappings.find("/gateway/ab")).isEmpty();
+        assertThat(mappings.find("/gateway")).isEmpty();
+        assertThat(mappings.find("/other")).isEmpty();
+    }
+
+    @Test
+    void longestPrefixComesFirst()
+    {
+        mappings.put("root", "/", "root");
+        mappings.put("outer", "/gateway", "outer");
+        mappings.put("inner", "/gateway/inner", "inner");
+
+        assertThat(mappings.find("/gateway/inner/items")).containsExactly("inner", "outer", "root");
+        assertThat(mappings.find("/gateway/other")).containsExactly("outer", "root");
+        assertThat(mappings.find("/other")).containsExactly("root");
+    }
+
+    @Test
+    void latestAddedComesFirstForTheSamePrefix()
+    {
+        mappings.put("v1", "/gateway/a", "v1");
+        mappings.put("v2", "/gateway/a", "v2");
+
+        assertThat(mappings.find("/gateway/a/items")).containsExactly("v2", "v1");
+
+        assertThat(mappings.remove("v1")).isEqualTo("v1");
+        assertThat(mappings.find("/gateway/a/items")).containsExactly("v2");
+    }
+
+    @Test
+    void putReplacesTheMappingOfTheSameKey()
+    {
+        mappings.put("a", "/gateway/a", "first");
+        mappings.put("a", "/gateway/b", "second");
+
+        assertThat(mappings.find("/gateway/a")).isEmpty();
+        assertThat(mappings.find("/gateway/b")).containsExactly("second");
+    }
+
+    @Test
+    void removeUnknownKeyReturnsNull()
+    {
+        mappings.put("a", "/gateway/a", "mapping-a");
+
+        assertThat(mappings.remove("b")).isNull();
+        assertThat(mappings.remove("a")).isEqualTo("mapping-a");
+        assertThat(mappings.remove("a")).isNull();
+        assertThat(mappings.find("/gateway/a")).isEmpty();
+    }
+}
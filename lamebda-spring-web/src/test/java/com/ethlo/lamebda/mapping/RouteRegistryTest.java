@@ -0,0 +1,127 @@
+package com.ethlo.lamebda.mapping;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+class RouteRegistryTest
+{
+    private static final Method METHOD = handlerMethod();
+
+    private final RouteRegistry<String, String> registry = new RouteRegistry<>();
+    private final ApplicationContext previous = new GenericApplicationContext();
+    private final ApplicationContext current = new GenericApplicationContext();
+    private final Object previousHandler = new Object();
+    private final Object currentHandler = new Object();
+
+    @Test
+    void removeReturnsTheRoutesPerHandlerMapping()
+    {
+        registry.register(previous, "mvc", "GET /a", previousHandler, METHOD);
+        registry.register(previous, "mvc", "GET /b", previousHandler, METHOD);
+        registry.register(previous, "ws", "/socket", previousHandler, METHOD);
+
+        assertThat(registry.remove(previous).unregistered()).containsExactly(
+                Map.entry("mvc", List.of("GET /a", "GET /b")),
+                Map.entry("ws", List.of("/socket")));
+        assertThat(registry.remove(previous).unregistered()).isEmpty();
+    }
+
+    @Test
+    void routesRegisteredAgainBelongToTheLatestProject()
+    {
+        registry.register(previous, "mvc", "GET /a", previousHandler, METHOD);
+        registry.register(previous, "mvc", "GET /b", previousHandler, METHOD);
+        registry.register(current, "mvc", "GET /a", currentHandler, METHOD);
+
+        assertThat(registry.remove(previous).unregistered()).containsExactly(Map.entry("mvc", List.of("GET /b")));
+        assertThat(registry.remove(current).unregistered()).containsExactly(Map.entry("mvc", List.of("GET /a")));
+    }
+
+    @Test
+    void projectWithoutOwnedRoutesReturnsNothing()
+    {
+        registry.register(previous, "mvc", "GET /a", previousHandler, METHOD);
+        registry.register(current, "mvc", "GET /a", currentHandler, METHOD);
+
+        final RouteRegistry.Removal<String, String> removal = registry.remove(previous);
+        assertThat(removal.unregistered()).isEmpty();
+        assertThat(removal.restored()).isEmpty();
+        assertThat(registry.remove(current).unregistered()).containsExactly(Map.entry("mvc", List.of("GET /a")));
+    }
+
+    @Test
+    void routesTakenOverAreGivenBackToThePreviousProject()
+    {
+        registry.register(previous, "mvc", "GET /a", previousHandler, METHOD);
+        registry.register(current, "mvc", "GET /a", currentHandler, METHOD);
+        registry.register(current, "mvc", "GET /b", currentHandler, METHOD);
+
+        final RouteRegistry.Removal<String, String> removal = registry.remove(current);
+        assertThat(removal.unregistered()).containsExactly(Map.entry("mvc", List.of("GET /b")));
+        assertThat(removal.restored()).containsExactly(new RouteRegistry.RestoredRoute<>("mvc", "GET /a", previousHandler, METHOD));
+
+        final RouteRegistry.Removal<String, String> last = registry.remove(previous);
+        assertThat(last.unregistered()).containsExactly(Map.entry("mvc", List.of("GET /a")));
+        assertThat(last.restored()).isEmpty();
+    }
+
+    @Test
+    void routesOwnedAfterRemovalCanBeRegisteredAgain()
+    {
+        registry.register(previous, "mvc", "GET /a", previousHandler, METHOD);
+        registry.remove(previous);
+        registry.register(current, "mvc", "GET /a", currentHandler, METHOD);
+        registry.register(previous, "mvc", "GET /b", previousHandler, METHOD);
+
+        assertThat(registry.remove(previous).unregistered()).containsExactly(Map.entry("mvc", List.of("GET /b")));
+        assertThat(registry.remove(current).unregistered()).containsExactly(Map.entry("mvc", List.of("GET /a")));
+    }
+
+    @Test
+    void registeringTheSameRouteTwiceIsIdempotent()
+    {
+        registry.register(current, "mvc", "GET /a", currentHandler, METHOD);
+        registry.register(current, "mvc", "GET /a", currentHandler, METHOD);
+
+        assertThat(registry.remove(current).unregistered()).containsExactly(Map.entry("mvc", List.of("GET /a")));
+    }
+
+    private static Method handlerMethod()
+    {
+        try
+        {
+            return Object.class.getMethod("toString");
+        }
+        catch (NoSuchMethodException exc)
+        {
+            throw new IllegalStateException(exc);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ethlo.lamebda.metrics;
+
+/*-
+ * #%L
+ * Lamebda Spring Web
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+class EndpointMetricsRegistryTest
+{
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EndpointMetricsRegistry registry = new EndpointMetricsRegistry(meterRegistry);
+    private final ApplicationContext previous = new GenericApplicationContext();
+    private final ApplicationContext current = new GenericApplicationContext();
+
+    @Test
+    void recordsTheRequestsPerMethod() throws Exception
+    {
+        final Method hello = method("hello");
+        registry.register(current, "p1", hello, List.of("/gateway/p1/hello"));
+        final EndpointMetrics metrics = registry.find(hello, null);
+
+        metrics.started();
+        assertThat(meterRegistry.get(EndpointMetrics.ACTIVE).tag("project", "p1").tag("uri", "/gateway/p1/hello").gauge().value()).isEqualTo(1);
+        metrics.completed("GET", 1_000_000, false);
+        metrics.started();
+        metrics.completed("GET", 3_000_000, true);
+        metrics.started();
+        metrics.completed("PROPFIND", 1_000_000, false);
+
+        assertThat(meterRegistry.get(EndpointMetrics.ACTIVE).gauge().value()).isZero();
+        assertThat(meterRegistry.get(EndpointMetrics.REQUESTS).tag("method", "GET").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(EndpointMetrics.ERRORS).tag("method", "GET").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(EndpointMetrics.REQUESTS).tag("method", "OTHER").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(EndpointMetrics.ERRORS).tag("method", "OTHER").counter()).isNull();
+
+        final Map<String, Object> summary = registry.getSummary("p1").get(0);
+        assertThat(summary).containsEntry("uri", "/gateway/p1/hello").containsEntry("active", 0);
+        assertThat(summary.get("methods")).asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsOnlyKeys("GET", "OTHER")
+                .extractingByKey("GET").asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsEntry("count", 2L)
+                .containsEntry("errors", 1L);
+    }
+
+    @Test
+    void findsTheMetricsOfTheMatchedPattern() throws Exception
+    {
+        final Method hello = method("hello");
+        registry.register(current, "p1", hello, List.of("/gateway/p1/hello", "/gateway/p1/hi"));
+
+        assertThat(registry.find(hello, "/gateway/p1/hi").getPattern()).isEqualTo("/gateway/p1/hi");
+        assertThat(registry.find(hello, null).getPattern()).isEqualTo("/gateway/p1/hello");
+        assertThat(registry.find(method("goodbye"), null)).isNull();
+        assertThat(registry.contains(hello)).isTrue();
+    }
+
+    @Test
+    void metricsAreSharedByTheVersionsOfAProject() throws Exception
+    {
+        final Method previousHello = method("hello");
+        final Method currentHello = method("goodbye");
+        registry.register(previous, "p1", previousHello, List.of("/gateway/p1/hello", "/gateway/p1/removed"));
+        registry.register(current, "p1", currentHello, List.of("/gateway/p1/hello"));
+        assertThat(registry.find(currentHello, null)).isSameAs(registry.find(previousHello, "/gateway/p1/hello"));
+
+        registry.remove(previous);
+        assertThat(registry.contains(previousHello)).isFalse();
+        assertThat(meterRegistry.find(EndpointMetrics.ACTIVE).tag("uri", "/gateway/p1/hello").gauge()).isNotNull();
+        assertThat(meterRegistry.find(EndpointMetrics.ACTIVE).tag("uri", "/gateway/p1/removed").gauge()).isNull();
+
+        registry.remove(current);
+        assertThat(meterRegistry.find(EndpointMetrics.ACTIVE).gauge()).isNull();
+        assertThat(registry.getSummary("p1")).isEmpty();
+    }
+
+    private static Method method(final String name) throws NoSuchMethodException
+    {
+        return Controller.class.getMethod(name);
+    }
+
+    public static class Controller
+    {
+        public String hello()
+        {
+            return "hello";
+        }
+
+        public String goodbye()
+        {
+            return "goodbye";
+        }
+    }
+}
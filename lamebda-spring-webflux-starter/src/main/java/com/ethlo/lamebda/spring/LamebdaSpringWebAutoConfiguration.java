@@ -26,7 +26,13 @@ import java.util.List;
 import java.util.Optional;
 
 import org.aopalliance.intercept.MethodInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -34,15 +40,31 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
 
+import com.ethlo.lamebda.EndpointMetricsHandlerAdapter;
 import com.ethlo.lamebda.LamebdaActuator;
 import com.ethlo.lamebda.LamebdaConfiguration;
+import com.ethlo.lamebda.LamebdaHandlerMapping;
+import com.ethlo.lamebda.LazyProjectHandlerMapping;
 import com.ethlo.lamebda.ProjectCleanupService;
 import com.ethlo.lamebda.ProjectManager;
+import com.ethlo.lamebda.ReactiveProjectManager;
+import com.ethlo.lamebda.aop.AspectJAdvisorCache;
+import com.ethlo.lamebda.bulkhead.BulkheadRegistry;
+import com.ethlo.lamebda.mapping.DeferredProjectMappings;
+import com.ethlo.lamebda.mapping.RouteRegistry;
+import com.ethlo.lamebda.metrics.ClassLoaderMetrics;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
+import com.ethlo.lamebda.metrics.ProjectLoadMetrics;
+import com.ethlo.lamebda.metrics.TaskExecutorMetrics;
 import com.ethlo.lamebda.ProjectSetupService;
 import com.ethlo.lamebda.startup.ProjectInitCfg;
 
 @Configuration
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 @EnableConfigurationProperties(LamebdaConfiguration.class)
 @ConditionalOnProperty(prefix = "lamebda", name = "enabled")
 @Import(ProjectInitCfg.class)
@@ -67,20 +89,102 @@ public class LamebdaSpringWebAutoConfiguration
     }
 
     @Bean
-    public LamebdaActuator projectInfoController(final ProjectManager projectManager)
+    public LamebdaActuator projectInfoController(final ProjectManager projectManager, final ObjectProvider<EndpointMetricsRegistry> lamebdaEndpointMetrics, final BulkheadRegistry lamebdaBulkheads)
+    {
+        return new LamebdaActuator(projectManager, lamebdaEndpointMetrics.getIfAvailable(), lamebdaBulkheads);
+    }
+
+    @Bean
+    public RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> lamebdaRouteRegistry()
+    {
+        return new RouteRegistry<>();
+    }
+
+    @Bean
+    public AspectJAdvisorCache lamebdaAspectJAdvisorCache()
+    {
+        return new AspectJAdvisorCache(parentContext);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "lamebda", name = "dedicated-handler-mapping-enabled", havingValue = "true")
+    public LamebdaHandlerMapping lamebdaHandlerMapping()
+    {
+        return new LamebdaHandlerMapping(parentContext);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "lamebda", name = "endpoint-metrics-enabled", havingValue = "true")
+    public EndpointMetricsRegistry lamebdaEndpointMetrics(final MeterRegistry meterRegistry)
+    {
+        return new EndpointMetricsRegistry(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "lamebda", name = "endpoint-metrics-enabled", havingValue = "true")
+    public EndpointMetricsHandlerAdapter lamebdaEndpointMetricsHandlerAdapter(final EndpointMetricsRegistry lamebdaEndpointMetrics, final ObjectProvider<RequestMappingHandlerAdapter> requestMappingHandlerAdapter)
+    {
+        return new EndpointMetricsHandlerAdapter(lamebdaEndpointMetrics, requestMappingHandlerAdapter);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public ProjectLoadMetrics lamebdaProjectLoadMetrics(final MeterRegistry meterRegistry)
+    {
+        return new ProjectLoadMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public TaskExecutorMetrics lamebdaTaskExecutorMetrics(final MeterRegistry meterRegistry)
+    {
+        return new TaskExecutorMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "lamebda", name = "class-loader-leak-detection-enabled", havingValue = "true")
+    public ClassLoaderMetrics lamebdaClassLoaderMetrics(final ProjectManager projectManager, final MeterRegistry meterRegistry)
+    {
+        return new ClassLoaderMetrics(projectManager.getClassLoaderLeakDetector(), meterRegistry);
+    }
+
+    @Bean
+    public DeferredProjectMappings lamebdaDeferredProjects()
+    {
+        return new DeferredProjectMappings();
+    }
+
+    @Bean
+    public LazyProjectHandlerMapping lamebdaLazyProjectHandlerMapping(final ProjectManager projectManager, final DeferredProjectMappings lamebdaDeferredProjects)
+    {
+        return new LazyProjectHandlerMapping(projectManager, lamebdaDeferredProjects, lamebdaConfiguration.getLazyLoadTimeout());
+    }
+
+    @Bean
+    public BulkheadRegistry lamebdaBulkheads(final ObjectProvider<MeterRegistry> meterRegistry)
+    {
+        // Without a registry of the application, the rejections are still counted for the actuator
+        return new BulkheadRegistry(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public ProjectSetupService projectSetupService(final AspectJAdvisorCache lamebdaAspectJAdvisorCache, final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> lamebdaRouteRegistry, final ObjectProvider<LamebdaHandlerMapping> lamebdaHandlerMapping, final ObjectProvider<EndpointMetricsRegistry> lamebdaEndpointMetrics, final BulkheadRegistry lamebdaBulkheads)
     {
-        return new LamebdaActuator(projectManager);
+        return new ProjectSetupService(lamebdaAspectJAdvisorCache, methodInterceptors, lamebdaRouteRegistry, lamebdaHandlerMapping.getIfAvailable(), lamebdaEndpointMetrics.getIfAvailable(), lamebdaBulkheads);
     }
 
     @Bean
-    public ProjectSetupService projectSetupService()
+    public ProjectCleanupService projectCleanupService(final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> lamebdaRouteRegistry, final ObjectProvider<LamebdaHandlerMapping> lamebdaHandlerMapping, final ObjectProvider<EndpointMetricsRegistry> lamebdaEndpointMetrics, final BulkheadRegistry lamebdaBulkheads)
     {
-        return new ProjectSetupService(parentContext, methodInterceptors);
+        return new ProjectCleanupService(lamebdaRouteRegistry, lamebdaHandlerMapping.getIfAvailable(), lamebdaEndpointMetrics.getIfAvailable(), lamebdaBulkheads);
     }
 
     @Bean
-    public ProjectCleanupService projectCleanupService()
+    public ReactiveProjectManager lamebdaReactiveProjectManager(final ProjectManager projectManager)
     {
-        return new ProjectCleanupService();
+        return new ReactiveProjectManager(projectManager);
     }
 }
@@ -0,0 +1,86 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Spring WebFlux
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+
+import com.ethlo.lamebda.bulkhead.Bulkhead;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Limits the number of concurrent invocations of the controllers of a project. For reactive return values the permit
+ * is held until the returned value completes, is cancelled or fails. Requests never wait for a permit, as the request
+ * threads must not block.
+ */
+public class BulkheadInterceptor implements MethodInterceptor
+{
+    private final Bulkhead bulkhead;
+
+    public BulkheadInterceptor(final Bulkhead bulkhead)
+    {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable
+    {
+        bulkhead.acquire(false);
+        final Object returnValue;
+        try
+        {
+            returnValue = invocation.proceed();
+        }
+        catch (Throwable exc)
+        {
+            bulkhead.release();
+            throw exc;
+        }
+
+        final ReactiveAdapter adapter = returnValue != null ? ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnValue.getClass()) : null;
+        if (adapter == null)
+        {
+            bulkhead.release();
+            return returnValue;
+        }
+
+        // Released once, even if the value is subscribed to more than once
+        final AtomicBoolean released = new AtomicBoolean();
+        final Runnable release = () ->
+        {
+            if (released.compareAndSet(false, true))
+            {
+                bulkhead.release();
+            }
+        };
+        final Publisher<?> publisher = adapter.toPublisher(returnValue);
+        return adapter.fromPublisher(adapter.isMultiValue()
+                ? Flux.from(publisher).doFinally(signal -> release.run())
+                : Mono.from(publisher).doFinally(signal -> release.run()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Spring WebFlux
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerAdapter;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+
+import com.ethlo.lamebda.metrics.EndpointMetrics;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records the request metrics of the project routes. Handling is delegated to the {@link RequestMappingHandlerAdapter}
+ * of the application, and a request is recorded when the value returned by the handler completes.
+ */
+public class EndpointMetricsHandlerAdapter implements HandlerAdapter, Ordered
+{
+    private final EndpointMetricsRegistry endpointMetrics;
+    private final ObjectProvider<RequestMappingHandlerAdapter> delegate;
+
+    public EndpointMetricsHandlerAdapter(final EndpointMetricsRegistry endpointMetrics, final ObjectProvider<RequestMappingHandlerAdapter> delegate)
+    {
+        this.endpointMetrics = endpointMetrics;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(final Object handler)
+    {
+        return handler instanceof HandlerMethod handlerMethod && endpointMetrics.contains(handlerMethod.getMethod());
+    }
+
+    @Override
+    public Mono<HandlerResult> handle(final ServerWebExchange exchange, final Object handler)
+    {
+        final PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final EndpointMetrics metrics = endpointMetrics.find(((HandlerMethod) handler).getMethod(), pattern != null ? pattern.getPatternString() : null);
+        if (metrics == null)
+        {
+            return delegate.getObject().handle(exchange, handler);
+        }
+
+        final String httpMethod = exchange.getRequest().getMethod().name();
+        final long startTime = System.nanoTime();
+        metrics.started();
+        return delegate.getObject().handle(exchange, handler)
+                .map(result -> timed(result, metrics, httpMethod, startTime))
+                .doOnError(exc -> metrics.completed(httpMethod, System.nanoTime() - startTime, true))
+                .switchIfEmpty(Mono.fromRunnable(() -> metrics.completed(httpMethod, System.nanoTime() - startTime, false)));
+    }
+
+    private HandlerResult timed(final HandlerResult result, final EndpointMetrics metrics, final String httpMethod, final long startTime)
+    {
+        final Object returnValue = result.getReturnValue();
+        final ReactiveAdapter adapter = returnValue != null ? ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnValue.getClass()) : null;
+        if (adapter == null)
+        {
+            metrics.completed(httpMethod, System.nanoTime() - startTime, false);
+            return result;
+        }
+
+        final Publisher<?> publisher = adapter.toPublisher(returnValue);
+        final Publisher<?> timed = adapter.isMultiValue()
+                ? Flux.from(publisher).doFinally(signal -> metrics.completed(httpMethod, System.nanoTime() - startTime, signal == SignalType.ON_ERROR))
+                : Mono.from(publisher).doFinally(signal -> metrics.completed(httpMethod, System.nanoTime() - startTime, signal == SignalType.ON_ERROR));
+        final HandlerResult timedResult = new HandlerResult(result.getHandler(), adapter.fromPublisher(timed), result.getReturnTypeSource(), result.getBindingContext());
+        if (result.getExceptionHandler() != null)
+        {
+            timedResult.setExceptionHandler(result.getExceptionHandler());
+        }
+        return timedResult;
+    }
+
+    @Override
+    public int getOrder()
+    {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
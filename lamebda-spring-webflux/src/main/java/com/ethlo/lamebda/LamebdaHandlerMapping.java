@@ -0,0 +1,103 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Spring WebFlux
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.ethlo.lamebda.mapping.ProjectMappings;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handler mapping that serves the routes of the Lamebda projects. Requests are dispatched on the project path first,
+ * and then matched against the routes of that project only, so the routes of the application are not affected by
+ * the number of project routes, and loading a project does not lock the handler mapping of the application.
+ * WebFlux has no handler interceptors to carry over from the handler mapping of the application, as the web filters
+ * of the application apply to the project routes regardless of the handler mapping serving them.
+ */
+public class LamebdaHandlerMapping implements HandlerMapping, Ordered
+{
+    private final ApplicationContext parentContext;
+    private final ProjectMappings<RequestMappingHandlerMapping> projectMappings = new ProjectMappings<>();
+    private int order = -1;
+
+    public LamebdaHandlerMapping(final ApplicationContext parentContext)
+    {
+        this.parentContext = parentContext;
+    }
+
+    /**
+     * @return A new, empty handler mapping for the routes of a project
+     */
+    public RequestMappingHandlerMapping createProjectMapping()
+    {
+        final RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+        mapping.setApplicationContext(parentContext);
+        return mapping;
+    }
+
+    /**
+     * Start serving the routes of the given project mapping
+     *
+     * @param projectCtx The project context
+     * @param prefix     The path prefix of the project routes
+     * @param mapping    The project mapping
+     */
+    public void register(final ApplicationContext projectCtx, final String prefix, final RequestMappingHandlerMapping mapping)
+    {
+        projectMappings.put(projectCtx, prefix, mapping);
+    }
+
+    /**
+     * Stop serving the routes of the given project
+     *
+     * @param projectCtx The project context
+     */
+    public void unregister(final ApplicationContext projectCtx)
+    {
+        projectMappings.remove(projectCtx);
+    }
+
+    @Override
+    public Mono<Object> getHandler(final ServerWebExchange exchange)
+    {
+        final String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        return Flux.fromIterable(projectMappings.find(path))
+                .concatMap(mapping -> mapping.getHandler(exchange))
+                .next();
+    }
+
+    @Override
+    public int getOrder()
+    {
+        return order;
+    }
+
+    public void setOrder(final int order)
+    {
+        this.order = order;
+    }
+}
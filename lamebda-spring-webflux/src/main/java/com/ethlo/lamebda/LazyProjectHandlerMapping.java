@@ -0,0 +1,76 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Spring WebFlux
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.ethlo.lamebda.mapping.DeferredProjectMappings;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Loads a lazy project on the first request to it. The request waits for the load without blocking, and is then
+ * served by the routes of the loaded project, as this mapping never returns a handler itself.
+ */
+public class LazyProjectHandlerMapping implements HandlerMapping, Ordered
+{
+    private final ProjectManager projectManager;
+    private final DeferredProjectMappings deferredProjects;
+    private final Duration timeout;
+
+    public LazyProjectHandlerMapping(final ProjectManager projectManager, final DeferredProjectMappings deferredProjects, final Duration timeout)
+    {
+        this.projectManager = projectManager;
+        this.deferredProjects = deferredProjects;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<Object> getHandler(final ServerWebExchange exchange)
+    {
+        final String alias = deferredProjects.find(exchange.getRequest().getPath().pathWithinApplication().value());
+        if (alias == null)
+        {
+            return Mono.empty();
+        }
+
+        // The load is shared with other requests, so it is not cancelled if this request is
+        return Mono.fromFuture(projectManager.ensureLoaded(alias), true)
+                .timeout(timeout)
+                .switchIfEmpty(Mono.fromRunnable(() -> deferredProjects.remove(alias)))
+                .onErrorMap(TimeoutException.class, exc -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Project " + alias + " is still loading", exc))
+                .onErrorMap(exc -> !(exc instanceof ResponseStatusException), exc -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Project " + alias + " could not be loaded", exc))
+                .then(Mono.empty());
+    }
+
+    @Override
+    public int getOrder()
+    {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Spring WebFlux
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.ethlo.lamebda.lifecycle.ProjectActivity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reports the invocations of the controllers of a project that is closed when idle, so the project is not closed
+ * while it is in use. For reactive return values the invocation is in use until the returned value completes, is
+ * cancelled or fails. An invocation of a project that is being closed is rejected, and the next request loads the
+ * project again.
+ */
+public class ProjectActivityInterceptor implements MethodInterceptor
+{
+    private final ProjectActivity activity;
+
+    public ProjectActivityInterceptor(final ProjectActivity activity)
+    {
+        this.activity = activity;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable
+    {
+        if (!activity.started())
+        {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Project " + activity.getAlias() + " is being closed");
+        }
+
+        final Object returnValue;
+        try
+        {
+            returnValue = invocation.proceed();
+        }
+        catch (Throwable exc)
+        {
+            activity.completed();
+            throw exc;
+        }
+
+        final ReactiveAdapter adapter = returnValue != null ? ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnValue.getClass()) : null;
+        if (adapter == null)
+        {
+            activity.completed();
+            return returnValue;
+        }
+
+        // Completed once, even if the value is subscribed to more than once
+        final AtomicBoolean completed = new AtomicBoolean();
+        final Runnable complete = () ->
+        {
+            if (completed.compareAndSet(false, true))
+            {
+                activity.completed();
+            }
+        };
+        final Publisher<?> publisher = adapter.toPublisher(returnValue);
+        return adapter.fromPublisher(adapter.isMultiValue()
+                ? Flux.from(publisher).doFinally(signal -> complete.run())
+                : Mono.from(publisher).doFinally(signal -> complete.run()));
+    }
+}
@@ -20,30 +20,39 @@ package com.ethlo.lamebda;
  * #L%
  */
 
-import static com.ethlo.lamebda.spring.RequestMappingInfoUtil.normalizeSlashes;
-
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.web.method.HandlerMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.web.reactive.result.method.RequestMappingInfo;
 import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
-import org.springframework.web.util.pattern.PathPattern;
 
+import com.ethlo.lamebda.bulkhead.BulkheadRegistry;
 import com.ethlo.lamebda.lifecycle.ProjectClosingEvent;
 import com.ethlo.lamebda.lifecycle.ProjectEvent;
+import com.ethlo.lamebda.mapping.RouteRegistry;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
 
 public class ProjectCleanupService implements ApplicationListener<ProjectClosingEvent>
 {
     private static final Logger logger = LoggerFactory.getLogger(ProjectCleanupService.class);
+    private final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> routeRegistry;
+    private final LamebdaHandlerMapping lamebdaHandlerMapping;
+    private final EndpointMetricsRegistry endpointMetrics;
+    private final BulkheadRegistry bulkheads;
+
+    public ProjectCleanupService(final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> routeRegistry, @Nullable final LamebdaHandlerMapping lamebdaHandlerMapping, @Nullable final EndpointMetricsRegistry endpointMetrics, final BulkheadRegistry bulkheads)
+    {
+        this.routeRegistry = routeRegistry;
+        this.lamebdaHandlerMapping = lamebdaHandlerMapping;
+        this.endpointMetrics = endpointMetrics;
+        this.bulkheads = bulkheads;
+    }
 
     public static List<RequestMappingHandlerMapping> getMappingHandler(ProjectEvent event)
     {
@@ -51,39 +60,34 @@ public class ProjectCleanupService implements ApplicationListener<ProjectClosing
         return new ArrayList<>(BeanFactoryUtils.beansOfTypeIncludingAncestors(ctx.getBeanFactory(), RequestMappingHandlerMapping.class).values());
     }
 
-    private boolean isProjectMapped(final String prefix, final RequestMappingInfo mappingInfo)
+    @Override
+    public void onApplicationEvent(final ProjectClosingEvent event)
     {
-        for (String pattern : mappingInfo.getPatternsCondition().getPatterns().stream().map(PathPattern::getPatternString).collect(Collectors.toSet()))
+        if (lamebdaHandlerMapping != null)
         {
-            if (normalizeSlashes(pattern).startsWith(normalizeSlashes(prefix)))
-            {
-                return true;
-            }
+            lamebdaHandlerMapping.unregister(event.getProjectContext());
         }
-        return false;
-    }
 
-    @Override
-    public void onApplicationEvent(final ProjectClosingEvent event)
-    {
-        final ProjectConfiguration projectConfiguration = event.getProjectConfiguration();
-        final List<RequestMappingHandlerMapping> mappingHandlers = getMappingHandler(event);
-        mappingHandlers.forEach(mappingHandler ->
+        if (endpointMetrics != null)
         {
-            final Map<RequestMappingInfo, HandlerMethod> handlerMethods = mappingHandler.getHandlerMethods();
-            final String prefix = projectConfiguration.getRootContextPath() + "/" + projectConfiguration.getContextPath();
-            final List<RequestMappingInfo> toRemove = new LinkedList<>();
-            handlerMethods.forEach((key, value) -> {
-                if (isProjectMapped(prefix, key))
-                {
-                    toRemove.add(key);
-                }
-            });
+            endpointMetrics.remove(event.getProjectContext());
+        }
+
+        bulkheads.remove(event.getProjectContext());
 
-            toRemove.forEach(key -> {
-                logger.info("Unregistering {}", key);
-                mappingHandler.unregisterMapping(key);
-            });
+        final RouteRegistry.Removal<RequestMappingHandlerMapping, RequestMappingInfo> removal = routeRegistry.remove(event.getProjectContext());
+        removal.unregistered().forEach((mappingHandler, infos) -> infos.forEach(key ->
+        {
+            logger.info("Unregistering {}", key);
+            mappingHandler.unregisterMapping(key);
+        }));
+
+        // The routes the project took over from a version that is still loaded, as when activating the project failed
+        removal.restored().forEach(route ->
+        {
+            logger.info("Restoring {}", route.info());
+            route.handlerMapping().unregisterMapping(route.info());
+            route.handlerMapping().registerMapping(route.info(), route.handler(), route.method());
         });
     }
 }
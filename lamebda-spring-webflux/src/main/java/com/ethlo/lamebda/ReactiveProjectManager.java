@@ -0,0 +1,87 @@
+package com.ethlo.lamebda;
+
+/*-
+ * #%L
+ * Lamebda Spring WebFlux
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.springframework.beans.factory.DisposableBean;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking access to the lifecycle of the projects. Extracting, scanning and refreshing a project, as well as
+ * registering its routes, run on a dedicated bounded scheduler, so they never block the event loop of the server,
+ * even when requested from a request handler.
+ */
+public class ReactiveProjectManager implements DisposableBean
+{
+    private final ProjectManager projectManager;
+    private final Scheduler scheduler;
+
+    /**
+     * Create a manager with a scheduler of as many threads as the configured load parallelism
+     *
+     * @param projectManager The project manager
+     */
+    public ReactiveProjectManager(final ProjectManager projectManager)
+    {
+        this(projectManager, Schedulers.newBoundedElastic(projectManager.getRootConfiguration().getLoadParallelism(), Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "lamebda-lifecycle"));
+    }
+
+    /**
+     * @param projectManager The project manager
+     * @param scheduler      The scheduler to load and close projects on. Disposed together with this manager
+     */
+    public ReactiveProjectManager(final ProjectManager projectManager, final Scheduler scheduler)
+    {
+        this.projectManager = projectManager;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Load the project with the given alias. A project that is already loaded is reloaded as configured by the reload
+     * mode
+     *
+     * @param alias The project alias
+     * @return The project, emitted once it is loaded and its routes are registered, or a {@link ProjectLoadException}
+     */
+    public Mono<Project> load(final String alias)
+    {
+        return Mono.fromCallable(() -> projectManager.load(alias)).subscribeOn(scheduler);
+    }
+
+    /**
+     * Close the project with the given alias, if it is loaded
+     *
+     * @param alias The project alias
+     * @return Completes once the project is closed and its routes are removed
+     */
+    public Mono<Void> unload(final String alias)
+    {
+        return Mono.<Void>fromRunnable(() -> projectManager.unload(alias)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public void destroy()
+    {
+        scheduler.dispose();
+    }
+}
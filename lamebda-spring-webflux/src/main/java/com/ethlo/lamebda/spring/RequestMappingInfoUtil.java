@@ -23,15 +23,27 @@ package com.ethlo.lamebda.spring;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.env.PropertyResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.util.pattern.PathPattern;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 import com.ethlo.lamebda.ProjectConfiguration;
+import com.ethlo.lamebda.cache.ProjectSnapshot;
 
 public class RequestMappingInfoUtil
 {
@@ -89,6 +101,83 @@ public class RequestMappingInfoUtil
         return null;
     }
 
+    /**
+     * @param method  The handler method
+     * @param mapping The request mapping of the method
+     * @return The mapping, as stored in the snapshot of the project
+     */
+    public static ProjectSnapshot.MappingSnapshot toSnapshot(final Method method, final RequestMappingInfo mapping)
+    {
+        return new ProjectSnapshot.MappingSnapshot(method.getName(),
+                Arrays.stream(method.getParameterTypes()).map(Class::getName).toList(),
+                mapping.getPatternsCondition().getPatterns().stream().map(PathPattern::getPatternString).toList(),
+                mapping.getMethodsCondition().getMethods().stream().map(Enum::name).toList(),
+                toStrings(mapping.getParamsCondition().getExpressions()),
+                toStrings(mapping.getHeadersCondition().getExpressions()),
+                toStrings(mapping.getConsumesCondition().getExpressions()),
+                toStrings(mapping.getProducesCondition().getExpressions()),
+                mapping.getName());
+    }
+
+    /**
+     * @param userType The controller class
+     * @param mappings The request mappings of the controller, as stored in the snapshot of the project
+     * @return The request mapping of each handler method, or null if a handler method no longer exists
+     */
+    @Nullable
+    public static Map<Method, RequestMappingInfo> fromSnapshot(final Class<?> userType, final List<ProjectSnapshot.MappingSnapshot> mappings)
+    {
+        final Map<Method, RequestMappingInfo> result = new LinkedHashMap<>();
+        for (final ProjectSnapshot.MappingSnapshot mapping : mappings)
+        {
+            final Class<?>[] parameterTypes = new Class<?>[mapping.parameterTypes().size()];
+            for (int i = 0; i < parameterTypes.length; i++)
+            {
+                parameterTypes[i] = ClassUtils.resolveClassName(mapping.parameterTypes().get(i), userType.getClassLoader());
+            }
+            final Method method = ReflectionUtils.findMethod(userType, mapping.method(), parameterTypes);
+            if (method == null)
+            {
+                return null;
+            }
+
+            final RequestMappingInfo.Builder builder = RequestMappingInfo
+                    .paths(mapping.patterns().toArray(String[]::new))
+                    .methods(mapping.methods().stream().map(RequestMethod::valueOf).toArray(RequestMethod[]::new))
+                    .params(mapping.params().toArray(String[]::new))
+                    .headers(mapping.headers().toArray(String[]::new))
+                    .consumes(mapping.consumes().toArray(String[]::new))
+                    .produces(mapping.produces().toArray(String[]::new))
+                    .options(options);
+            if (mapping.name() != null)
+            {
+                builder.mappingName(mapping.name());
+            }
+            result.put(method, builder.build());
+        }
+        return result;
+    }
+
+    /**
+     * @param userType The controller class
+     * @param methods  The handler methods of the controller
+     * @return Whether the paths of the controller use placeholders, which are resolved from the environment, so their
+     * mappings cannot be stored in the snapshot of the project
+     */
+    public static boolean hasPlaceholders(final Class<?> userType, final Collection<Method> methods)
+    {
+        return Stream.concat(Stream.of(userType), methods.stream())
+                .map(element -> AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class))
+                .filter(Objects::nonNull)
+                .flatMap(requestMapping -> Arrays.stream(requestMapping.path()))
+                .anyMatch(path -> path.contains("${"));
+    }
+
+    private static List<String> toStrings(final Collection<?> expressions)
+    {
+        return expressions.stream().map(Object::toString).toList();
+    }
+
     public static String normalizeSlashes(final String path)
     {
         return Arrays.stream(path.split("/")).filter(s -> !"".equals(s)).collect(Collectors.joining("/"));
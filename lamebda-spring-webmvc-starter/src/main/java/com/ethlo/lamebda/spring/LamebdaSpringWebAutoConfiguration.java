@@ -21,14 +21,25 @@ package com.ethlo.lamebda.spring;
  */
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import com.ethlo.lamebda.startup.ProjectInitCfg;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -39,10 +50,23 @@ import org.springframework.context.annotation.Configuration;
 import com.ethlo.lamebda.LamebdaActuator;
 import com.ethlo.lamebda.LamebdaConfiguration;
 import com.ethlo.lamebda.ProjectManager;
+import com.ethlo.lamebda.aop.AspectJAdvisorCache;
+import com.ethlo.lamebda.bulkhead.BulkheadRegistry;
+import com.ethlo.lamebda.mapping.DeferredProjectMappings;
+import com.ethlo.lamebda.mapping.RouteRegistry;
+import com.ethlo.lamebda.metrics.ClassLoaderMetrics;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
+import com.ethlo.lamebda.metrics.ProjectLoadMetrics;
+import com.ethlo.lamebda.metrics.TaskExecutorMetrics;
 
 import org.springframework.context.annotation.Import;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 @Configuration
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 @EnableConfigurationProperties(LamebdaConfiguration.class)
 @ConditionalOnProperty(prefix = "lamebda", name = "enabled")
 @Import(ProjectInitCfg.class)
@@ -67,20 +91,143 @@ public class LamebdaSpringWebAutoConfiguration
     }
 
     @Bean
-    public LamebdaActuator projectInfoController(final ProjectManager projectManager)
+    public LamebdaActuator projectInfoController(final ProjectManager projectManager, final ObjectProvider<EndpointMetricsRegistry> lamebdaEndpointMetrics, final BulkheadRegistry lamebdaBulkheads)
+    {
+        return new LamebdaActuator(projectManager, lamebdaEndpointMetrics.getIfAvailable(), lamebdaBulkheads);
+    }
+
+    @Bean
+    public RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> lamebdaRouteRegistry()
+    {
+        return new RouteRegistry<>();
+    }
+
+    @Bean
+    public AspectJAdvisorCache lamebdaAspectJAdvisorCache()
+    {
+        return new AspectJAdvisorCache(parentContext);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "lamebda", name = "dedicated-handler-mapping-enabled", havingValue = "true")
+    public LamebdaHandlerMapping lamebdaHandlerMapping(final ObjectProvider<EndpointMetricsRegistry> lamebdaEndpointMetrics, final ProjectActivityInterceptor lamebdaProjectActivity, @Qualifier("requestMappingHandlerMapping") final ObjectProvider<RequestMappingHandlerMapping> requestMappingHandlerMapping)
+    {
+        final LamebdaHandlerMapping handlerMapping = new LamebdaHandlerMapping(parentContext);
+        final List<Object> interceptors = new ArrayList<>();
+        // The configuration and interceptors of the application apply to the project routes, as when served by the mapping of the application
+        requestMappingHandlerMapping.ifAvailable(mapping ->
+        {
+            handlerMapping.setApplicationMapping(mapping);
+            interceptors.addAll(getConfiguredInterceptors(mapping));
+        });
+        interceptors.add(lamebdaProjectActivity);
+        lamebdaEndpointMetrics.ifAvailable(endpointMetrics -> interceptors.add(new EndpointMetricsInterceptor(endpointMetrics)));
+        handlerMapping.setInterceptors(interceptors.toArray());
+        return handlerMapping;
+    }
+
+    /**
+     * The interceptors configured on the given mapping, excluding the {@link MappedInterceptor} beans, as these are
+     * detected by the project mappings themselves
+     */
+    private List<HandlerInterceptor> getConfiguredInterceptors(final RequestMappingHandlerMapping mapping)
+    {
+        final Collection<MappedInterceptor> detected = BeanFactoryUtils.beansOfTypeIncludingAncestors(parentContext, MappedInterceptor.class, true, false).values();
+        return Arrays.stream(mapping.getAdaptedInterceptors())
+                .filter(interceptor -> detected.stream().noneMatch(bean -> bean == interceptor))
+                .toList();
+    }
+
+    @Bean
+    public ProjectActivityInterceptor lamebdaProjectActivity()
+    {
+        return new ProjectActivityInterceptor();
+    }
+
+    /**
+     * The requests to projects that are closed when idle are counted under the Lamebda request path in the handler
+     * mapping of the application. The dedicated handler mapping applies the interceptor to all project routes instead
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "lamebda", name = "dedicated-handler-mapping-enabled", havingValue = "false", matchIfMissing = true)
+    public MappedInterceptor lamebdaProjectActivityInterceptor(final ProjectActivityInterceptor lamebdaProjectActivity)
+    {
+        final String requestPath = "/" + RequestMappingInfoUtil.normalizeSlashes(lamebdaConfiguration.getRequestPath()) + "/**";
+        return new MappedInterceptor(new String[]{requestPath}, lamebdaProjectActivity);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "lamebda", name = "endpoint-metrics-enabled", havingValue = "true")
+    public EndpointMetricsRegistry lamebdaEndpointMetrics(final MeterRegistry meterRegistry)
+    {
+        return new EndpointMetricsRegistry(meterRegistry);
+    }
+
+    /**
+     * The request metrics of the routes of projects in the handler mapping of the application are only recorded under
+     * the Lamebda request path. The dedicated handler mapping applies the interceptor to all project routes instead
+     */
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "lamebda", name = "endpoint-metrics-enabled", havingValue = "true")
+    @ConditionalOnProperty(prefix = "lamebda", name = "dedicated-handler-mapping-enabled", havingValue = "false", matchIfMissing = true)
+    public MappedInterceptor lamebdaEndpointMetricsInterceptor(final EndpointMetricsRegistry lamebdaEndpointMetrics)
+    {
+        final String requestPath = "/" + RequestMappingInfoUtil.normalizeSlashes(lamebdaConfiguration.getRequestPath()) + "/**";
+        return new MappedInterceptor(new String[]{requestPath}, new EndpointMetricsInterceptor(lamebdaEndpointMetrics));
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public ProjectLoadMetrics lamebdaProjectLoadMetrics(final MeterRegistry meterRegistry)
+    {
+        return new ProjectLoadMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public TaskExecutorMetrics lamebdaTaskExecutorMetrics(final MeterRegistry meterRegistry)
+    {
+        return new TaskExecutorMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "lamebda", name = "class-loader-leak-detection-enabled", havingValue = "true")
+    public ClassLoaderMetrics lamebdaClassLoaderMetrics(final ProjectManager projectManager, final MeterRegistry meterRegistry)
+    {
+        return new ClassLoaderMetrics(projectManager.getClassLoaderLeakDetector(), meterRegistry);
+    }
+
+    @Bean
+    public DeferredProjectMappings lamebdaDeferredProjects()
+    {
+        return new DeferredProjectMappings();
+    }
+
+    @Bean
+    public LazyProjectHandlerMapping lamebdaLazyProjectHandlerMapping(final ProjectManager projectManager, final DeferredProjectMappings lamebdaDeferredProjects)
+    {
+        return new LazyProjectHandlerMapping(projectManager, lamebdaDeferredProjects, lamebdaConfiguration.getLazyLoadTimeout());
+    }
+
+    @Bean
+    public BulkheadRegistry lamebdaBulkheads(final ObjectProvider<MeterRegistry> meterRegistry)
     {
-        return new LamebdaActuator(projectManager);
+        // Without a registry of the application, the rejections are still counted for the actuator
+        return new BulkheadRegistry(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
     }
 
     @Bean
-    public ProjectSetupService projectSetupService()
+    public ProjectSetupService projectSetupService(final AspectJAdvisorCache lamebdaAspectJAdvisorCache, final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> lamebdaRouteRegistry, final ObjectProvider<LamebdaHandlerMapping> lamebdaHandlerMapping, final ObjectProvider<EndpointMetricsRegistry> lamebdaEndpointMetrics, final BulkheadRegistry lamebdaBulkheads, final ProjectActivityInterceptor lamebdaProjectActivity)
     {
-        return new ProjectSetupService(parentContext, methodInterceptors);
+        return new ProjectSetupService(lamebdaAspectJAdvisorCache, methodInterceptors, lamebdaRouteRegistry, lamebdaHandlerMapping.getIfAvailable(), lamebdaEndpointMetrics.getIfAvailable(), lamebdaBulkheads, lamebdaProjectActivity);
     }
 
     @Bean
-    public ProjectCleanupService projectCleanupService()
+    public ProjectCleanupService projectCleanupService(final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> lamebdaRouteRegistry, final ObjectProvider<LamebdaHandlerMapping> lamebdaHandlerMapping, final ObjectProvider<EndpointMetricsRegistry> lamebdaEndpointMetrics, final BulkheadRegistry lamebdaBulkheads, final ProjectActivityInterceptor lamebdaProjectActivity)
     {
-        return new ProjectCleanupService();
+        return new ProjectCleanupService(lamebdaRouteRegistry, lamebdaHandlerMapping.getIfAvailable(), lamebdaEndpointMetrics.getIfAvailable(), lamebdaBulkheads, lamebdaProjectActivity);
     }
 }
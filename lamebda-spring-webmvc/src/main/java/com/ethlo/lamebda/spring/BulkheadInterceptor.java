@@ -0,0 +1,54 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import com.ethlo.lamebda.bulkhead.Bulkhead;
+
+/**
+ * Limits the number of concurrent invocations of the controllers of a project. The permit is held until the handler
+ * method returns, so for asynchronous return values it only limits the request threads used by the project.
+ */
+public class BulkheadInterceptor implements MethodInterceptor
+{
+    private final Bulkhead bulkhead;
+
+    public BulkheadInterceptor(final Bulkhead bulkhead)
+    {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable
+    {
+        bulkhead.acquire(true);
+        try
+        {
+            return invocation.proceed();
+        }
+        finally
+        {
+            bulkhead.release();
+        }
+    }
+}
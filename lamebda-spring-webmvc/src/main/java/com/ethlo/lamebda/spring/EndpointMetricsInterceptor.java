@@ -0,0 +1,135 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.ethlo.lamebda.metrics.EndpointMetrics;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
+
+/**
+ * Records the request metrics of the project routes. The start time of a request is kept on a stack per thread, so
+ * requests that complete on the thread they started on are recorded without allocating. The start time of
+ * asynchronous requests is kept as a request attribute. The metrics a request was started on are kept as a request
+ * attribute too, so a request is completed on the same metrics, and the stack is only popped for requests that pushed
+ * to it, even if the routes of the project are registered or removed while it is handled.
+ */
+public class EndpointMetricsInterceptor implements AsyncHandlerInterceptor
+{
+    private static final String METRICS_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".metrics";
+    private static final String START_TIME_ATTRIBUTE = EndpointMetricsInterceptor.class.getName() + ".startTime";
+    private static final ThreadLocal<StartTimes> START_TIMES = ThreadLocal.withInitial(StartTimes::new);
+
+    private final EndpointMetricsRegistry endpointMetrics;
+
+    public EndpointMetricsInterceptor(final EndpointMetricsRegistry endpointMetrics)
+    {
+        this.endpointMetrics = endpointMetrics;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler)
+    {
+        if (request.getAttribute(METRICS_ATTRIBUTE) != null)
+        {
+            // Resumed after asynchronous processing
+            return true;
+        }
+
+        final EndpointMetrics metrics = find(request, handler);
+        if (metrics != null)
+        {
+            metrics.started();
+            START_TIMES.get().push(System.nanoTime());
+            request.setAttribute(METRICS_ATTRIBUTE, metrics);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response, final Object handler)
+    {
+        if (request.getAttribute(METRICS_ATTRIBUTE) != null && request.getAttribute(START_TIME_ATTRIBUTE) == null)
+        {
+            request.setAttribute(START_TIME_ATTRIBUTE, START_TIMES.get().pop());
+        }
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception ex)
+    {
+        final EndpointMetrics metrics = (EndpointMetrics) request.getAttribute(METRICS_ATTRIBUTE);
+        if (metrics == null)
+        {
+            return;
+        }
+
+        request.removeAttribute(METRICS_ATTRIBUTE);
+        final Object asyncStartTime = request.getAttribute(START_TIME_ATTRIBUTE);
+        final long startTime;
+        if (asyncStartTime != null)
+        {
+            request.removeAttribute(START_TIME_ATTRIBUTE);
+            startTime = (Long) asyncStartTime;
+        }
+        else
+        {
+            startTime = START_TIMES.get().pop();
+        }
+        metrics.completed(request.getMethod(), System.nanoTime() - startTime, ex != null || response.getStatus() >= 500);
+    }
+
+    private EndpointMetrics find(final HttpServletRequest request, final Object handler)
+    {
+        if (handler instanceof HandlerMethod handlerMethod)
+        {
+            return endpointMetrics.find(handlerMethod.getMethod(), (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        }
+        return null;
+    }
+
+    private static class StartTimes
+    {
+        private long[] values = new long[4];
+        private int size;
+
+        void push(final long value)
+        {
+            if (size == values.length)
+            {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long pop()
+        {
+            return values[--size];
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import com.ethlo.lamebda.mapping.ProjectMappings;
+
+/**
+ * Handler mapping that serves the routes of the Lamebda projects. Requests are dispatched on the project path first,
+ * and then matched against the routes of that project only, so the routes of the application are not affected by
+ * the number of project routes, and loading a project does not lock the handler mapping of the application.
+ *
+ * <p>The project mappings are configured like the given handler mapping of the application, so the path matching,
+ * content negotiation and CORS configuration of the application apply to the project routes as well.</p>
+ */
+public class LamebdaHandlerMapping implements HandlerMapping, Ordered
+{
+    private final ApplicationContext parentContext;
+    private final ProjectMappings<RequestMappingHandlerMapping> projectMappings = new ProjectMappings<>();
+    private int order = -1;
+    private Object[] interceptors = new Object[0];
+    @Nullable
+    private RequestMappingHandlerMapping applicationMapping;
+
+    public LamebdaHandlerMapping(final ApplicationContext parentContext)
+    {
+        this.parentContext = parentContext;
+    }
+
+    /**
+     * @return A new, empty handler mapping for the routes of a project
+     */
+    public RequestMappingHandlerMapping createProjectMapping()
+    {
+        final RequestMappingHandlerMapping mapping = new ProjectRequestMappingHandlerMapping();
+        if (applicationMapping != null)
+        {
+            copyConfiguration(applicationMapping, mapping);
+        }
+        mapping.setInterceptors(interceptors);
+        mapping.setApplicationContext(parentContext);
+        mapping.afterPropertiesSet();
+        return mapping;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void copyConfiguration(final RequestMappingHandlerMapping source, final RequestMappingHandlerMapping target)
+    {
+        if (source.getPatternParser() != null)
+        {
+            target.setPatternParser(source.getPatternParser());
+        }
+        target.setUrlPathHelper(source.getUrlPathHelper());
+        target.setPathMatcher(source.getPathMatcher());
+        target.setUseTrailingSlashMatch(source.useTrailingSlashMatch());
+        target.setUseSuffixPatternMatch(source.useSuffixPatternMatch());
+        target.setUseRegisteredSuffixPatternMatch(source.useRegisteredSuffixPatternMatch());
+        target.setContentNegotiationManager(source.getContentNegotiationManager());
+        if (source.getCorsConfigurationSource() != null)
+        {
+            target.setCorsConfigurationSource(source.getCorsConfigurationSource());
+        }
+        target.setCorsProcessor(source.getCorsProcessor());
+    }
+
+    /**
+     * Start serving the routes of the given project mapping
+     *
+     * @param projectCtx The project context
+     * @param prefix     The path prefix of the project routes
+     * @param mapping    The project mapping
+     */
+    public void register(final ApplicationContext projectCtx, final String prefix, final RequestMappingHandlerMapping mapping)
+    {
+        projectMappings.put(projectCtx, prefix, mapping);
+    }
+
+    /**
+     * Stop serving the routes of the given project
+     *
+     * @param projectCtx The project context
+     */
+    public void unregister(final ApplicationContext projectCtx)
+    {
+        projectMappings.remove(projectCtx);
+    }
+
+    @Override
+    public HandlerExecutionChain getHandler(final HttpServletRequest request) throws Exception
+    {
+        final String path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication().value();
+        final List<RequestMappingHandlerMapping> mappings = projectMappings.find(path);
+        for (final RequestMappingHandlerMapping mapping : mappings)
+        {
+            final HandlerExecutionChain handler = mapping.getHandler(request);
+            if (handler != null)
+            {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean usesPathPatterns()
+    {
+        return true;
+    }
+
+    /**
+     * @param applicationMapping The handler mapping of the application to configure the project mappings like
+     */
+    public void setApplicationMapping(@Nullable final RequestMappingHandlerMapping applicationMapping)
+    {
+        this.applicationMapping = applicationMapping;
+    }
+
+    /**
+     * @param interceptors The interceptors to apply to the project routes
+     */
+    public void setInterceptors(final Object... interceptors)
+    {
+        this.interceptors = interceptors;
+    }
+
+    @Override
+    public int getOrder()
+    {
+        return order;
+    }
+
+    public void setOrder(final int order)
+    {
+        this.order = order;
+    }
+
+    /**
+     * Holds only the routes registered for a project, without detecting the handlers of the application context
+     */
+    private static class ProjectRequestMappingHandlerMapping extends RequestMappingHandlerMapping
+    {
+        @Override
+        protected void initHandlerMethods()
+        {
+            // Project routes are registered explicitly
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import com.ethlo.lamebda.Project;
+import com.ethlo.lamebda.ProjectManager;
+import com.ethlo.lamebda.mapping.DeferredProjectMappings;
+
+/**
+ * Loads a lazy project on the first request to it. The request waits for the load, and is then served by the routes
+ * of the loaded project, as this mapping never returns a handler itself.
+ */
+public class LazyProjectHandlerMapping implements HandlerMapping, Ordered
+{
+    private final ProjectManager projectManager;
+    private final DeferredProjectMappings deferredProjects;
+    private final Duration timeout;
+
+    public LazyProjectHandlerMapping(final ProjectManager projectManager, final DeferredProjectMappings deferredProjects, final Duration timeout)
+    {
+        this.projectManager = projectManager;
+        this.deferredProjects = deferredProjects;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public HandlerExecutionChain getHandler(final HttpServletRequest request)
+    {
+        final String alias = deferredProjects.find(ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication().value());
+        if (alias == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            final Project project = projectManager.ensureLoaded(alias).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (project == null)
+            {
+                deferredProjects.remove(alias);
+            }
+        }
+        catch (TimeoutException exc)
+        {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Project " + alias + " is still loading", exc);
+        }
+        catch (ExecutionException exc)
+        {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Project " + alias + " could not be loaded", exc.getCause());
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while loading project " + alias, exc);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean usesPathPatterns()
+    {
+        return true;
+    }
+
+    @Override
+    public int getOrder()
+    {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
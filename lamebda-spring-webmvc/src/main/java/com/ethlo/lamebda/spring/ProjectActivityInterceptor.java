@@ -0,0 +1,149 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.ethlo.lamebda.lifecycle.ProjectActivity;
+
+/**
+ * Reports the requests to the routes of projects that are closed when idle, so a project is not closed while it is in
+ * use. A request is counted from before its handler is invoked until it has completed, including asynchronous
+ * processing. A request to a project that is being closed is forwarded once the project is closed, so it is served by
+ * the project loaded again on demand.
+ */
+public class ProjectActivityInterceptor implements AsyncHandlerInterceptor
+{
+    private static final String ACTIVITY_ATTRIBUTE = ProjectActivityInterceptor.class.getName() + ".activity";
+    private static final String FORWARDED_ATTRIBUTE = ProjectActivityInterceptor.class.getName() + ".forwarded";
+    private static final long EVICTION_TIMEOUT_MILLIS = 30_000;
+
+    private final Map<Method, Registration> activities = new ConcurrentHashMap<>();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    /**
+     * @param projectCtx The project context
+     * @param method     The handler method of a route of the project
+     * @param activity   The activity of the project
+     */
+    public void register(final ApplicationContext projectCtx, final Method method, final ProjectActivity activity)
+    {
+        activities.put(method, new Registration(projectCtx, activity));
+    }
+
+    /**
+     * @param projectCtx The project context to remove the routes of
+     */
+    public void remove(final ApplicationContext projectCtx)
+    {
+        activities.values().removeIf(registration -> registration.projectCtx == projectCtx);
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) throws Exception
+    {
+        if (request.getAttribute(ACTIVITY_ATTRIBUTE) != null || !(handler instanceof HandlerMethod handlerMethod))
+        {
+            // Resumed after asynchronous processing, or not a project route
+            return true;
+        }
+
+        final Registration registration = activities.get(handlerMethod.getMethod());
+        if (registration == null)
+        {
+            return true;
+        }
+
+        final ProjectActivity activity = registration.activity;
+        if (activity.started())
+        {
+            request.setAttribute(ACTIVITY_ATTRIBUTE, activity);
+            return true;
+        }
+
+        forwardAfterEviction(request, response, activity);
+        return false;
+    }
+
+    private void forwardAfterEviction(final HttpServletRequest request, final HttpServletResponse response, final ProjectActivity activity) throws ServletException, IOException
+    {
+        if (request.getAttribute(FORWARDED_ATTRIBUTE) != null)
+        {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Project " + activity.getAlias() + " is being closed");
+        }
+
+        try
+        {
+            activity.getEviction().get(EVICTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException | ExecutionException exc)
+        {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Project " + activity.getAlias() + " is being closed", exc);
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for project " + activity.getAlias() + " to close", exc);
+        }
+
+        // The project is deferred once closed, so the forwarded request loads it again
+        request.setAttribute(FORWARDED_ATTRIBUTE, Boolean.TRUE);
+        request.getRequestDispatcher(urlPathHelper.getPathWithinApplication(request)).forward(request, response);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response, final Object handler)
+    {
+        // The request is still in progress, and is completed after the asynchronous dispatch
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception ex)
+    {
+        final ProjectActivity activity = (ProjectActivity) request.getAttribute(ACTIVITY_ATTRIBUTE);
+        if (activity != null)
+        {
+            request.removeAttribute(ACTIVITY_ATTRIBUTE);
+            activity.completed();
+        }
+    }
+
+    private record Registration(ApplicationContext projectCtx, ProjectActivity activity)
+    {
+    }
+}
@@ -20,27 +20,41 @@ package com.ethlo.lamebda.spring;
  * #L%
  */
 
-import com.ethlo.lamebda.ProjectConfiguration;
+import com.ethlo.lamebda.bulkhead.BulkheadRegistry;
 import com.ethlo.lamebda.lifecycle.ProjectClosingEvent;
 import com.ethlo.lamebda.lifecycle.ProjectEvent;
+import com.ethlo.lamebda.mapping.RouteRegistry;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
-import org.springframework.web.method.HandlerMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 public class ProjectCleanupService implements ApplicationListener<ProjectClosingEvent>
 {
     private static final Logger logger = LoggerFactory.getLogger(ProjectCleanupService.class);
+    private final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> routeRegistry;
+    private final LamebdaHandlerMapping lamebdaHandlerMapping;
+    private final EndpointMetricsRegistry endpointMetrics;
+    private final BulkheadRegistry bulkheads;
+    private final ProjectActivityInterceptor projectActivity;
+
+    public ProjectCleanupService(final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> routeRegistry, @Nullable final LamebdaHandlerMapping lamebdaHandlerMapping, @Nullable final EndpointMetricsRegistry endpointMetrics, final BulkheadRegistry bulkheads, final ProjectActivityInterceptor projectActivity)
+    {
+        this.routeRegistry = routeRegistry;
+        this.lamebdaHandlerMapping = lamebdaHandlerMapping;
+        this.endpointMetrics = endpointMetrics;
+        this.bulkheads = bulkheads;
+        this.projectActivity = projectActivity;
+    }
 
     public static List<RequestMappingHandlerMapping> getMappingHandler(ProjectEvent event)
     {
@@ -48,39 +62,35 @@ public class ProjectCleanupService implements ApplicationListener<ProjectClosing
         return new ArrayList<>(BeanFactoryUtils.beansOfTypeIncludingAncestors(ctx.getBeanFactory(), RequestMappingHandlerMapping.class).values());
     }
 
-    private boolean isProjectMapped(final String prefix, final RequestMappingInfo mappingInfo)
+    @Override
+    public void onApplicationEvent(final ProjectClosingEvent event)
     {
-        for (String pattern : mappingInfo.getPatternValues())
+        if (lamebdaHandlerMapping != null)
         {
-            if (RequestMappingInfoUtil.normalizeSlashes(pattern).startsWith(RequestMappingInfoUtil.normalizeSlashes(prefix)))
-            {
-                return true;
-            }
+            lamebdaHandlerMapping.unregister(event.getProjectContext());
         }
-        return false;
-    }
 
-    @Override
-    public void onApplicationEvent(final ProjectClosingEvent event)
-    {
-        final ProjectConfiguration projectConfiguration = event.getProjectConfiguration();
-        final List<RequestMappingHandlerMapping> mappingHandlers = getMappingHandler(event);
-        mappingHandlers.forEach(mappingHandler ->
+        if (endpointMetrics != null)
         {
-            final Map<RequestMappingInfo, HandlerMethod> handlerMethods = mappingHandler.getHandlerMethods();
-            final String prefix = projectConfiguration.getRootContextPath() + "/" + projectConfiguration.getContextPath();
-            final List<RequestMappingInfo> toRemove = new LinkedList<>();
-            handlerMethods.forEach((key, value) -> {
-                if (isProjectMapped(prefix, key))
-                {
-                    toRemove.add(key);
-                }
-            });
+            endpointMetrics.remove(event.getProjectContext());
+        }
+
+        bulkheads.remove(event.getProjectContext());
+        projectActivity.remove(event.getProjectContext());
 
-            toRemove.forEach(key -> {
-                logger.info("Unregistering {}", key);
-                mappingHandler.unregisterMapping(key);
-            });
+        final RouteRegistry.Removal<RequestMappingHandlerMapping, RequestMappingInfo> removal = routeRegistry.remove(event.getProjectContext());
+        removal.unregistered().forEach((mappingHandler, infos) -> infos.forEach(key ->
+        {
+            logger.info("Unregistering {}", key);
+            mappingHandler.unregisterMapping(key);
+        }));
+
+        // The routes the project took over from a version that is still loaded, as when activating the project failed
+        removal.restored().forEach(route ->
+        {
+            logger.info("Restoring {}", route.info());
+            route.handlerMapping().unregisterMapping(route.info());
+            route.handlerMapping().registerMapping(route.info(), route.handler(), route.method());
         });
     }
 }
@@ -21,7 +21,9 @@ package com.ethlo.lamebda.spring;
  */
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -34,14 +36,15 @@ import org.aopalliance.intercept.MethodInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.Advisor;
-import org.springframework.aop.aspectj.annotation.BeanFactoryAspectJAdvisorsBuilder;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
 import org.springframework.aop.framework.ProxyFactoryBean;
 import org.springframework.aop.target.SingletonTargetSource;
-import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.env.PropertyResolver;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MimeType;
@@ -50,29 +53,98 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandl
 
 import com.ethlo.lamebda.HttpMethod;
 import com.ethlo.lamebda.ProjectConfiguration;
+import com.ethlo.lamebda.aop.AspectJAdvisorCache;
+import com.ethlo.lamebda.bulkhead.Bulkhead;
+import com.ethlo.lamebda.bulkhead.BulkheadRegistry;
+import com.ethlo.lamebda.cache.ProjectSnapshot;
+import com.ethlo.lamebda.lifecycle.ProjectActivity;
 import com.ethlo.lamebda.lifecycle.ProjectLoadedEvent;
+import com.ethlo.lamebda.mapping.HandlerCounts;
+import com.ethlo.lamebda.mapping.PlaceholderRoutes;
 import com.ethlo.lamebda.mapping.RequestMapping;
+import com.ethlo.lamebda.mapping.RouteRegistry;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
 
 public class ProjectSetupService implements ApplicationListener<ProjectLoadedEvent>
 {
     private static final Logger logger = LoggerFactory.getLogger(ProjectSetupService.class);
-    private final ListableBeanFactory beanFactory;
+    private final AspectJAdvisorCache advisorCache;
     private final List<MethodInterceptor> methodInterceptors;
+    private final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> routeRegistry;
+    private final LamebdaHandlerMapping lamebdaHandlerMapping;
+    private final EndpointMetricsRegistry endpointMetrics;
+    private final BulkheadRegistry bulkheads;
+    private final ProjectActivityInterceptor projectActivity;
 
-    public ProjectSetupService(final ListableBeanFactory beanFactory, final List<MethodInterceptor> methodInterceptors)
+    public ProjectSetupService(final AspectJAdvisorCache advisorCache, final List<MethodInterceptor> methodInterceptors, final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> routeRegistry, @Nullable final LamebdaHandlerMapping lamebdaHandlerMapping, @Nullable final EndpointMetricsRegistry endpointMetrics, final BulkheadRegistry bulkheads, final ProjectActivityInterceptor projectActivity)
     {
-        this.beanFactory = beanFactory;
+        this.advisorCache = advisorCache;
         this.methodInterceptors = methodInterceptors;
+        this.routeRegistry = routeRegistry;
+        this.lamebdaHandlerMapping = lamebdaHandlerMapping;
+        this.endpointMetrics = endpointMetrics;
+        this.bulkheads = bulkheads;
+        this.projectActivity = projectActivity;
     }
 
-    private List<RequestMapping> register(PropertyResolver propertyResolver, Collection<RequestMappingHandlerMapping> handlerMappings, Object controller, ProjectConfiguration projectConfiguration)
+    private List<RequestMapping> register(AnnotationConfigApplicationContext projectCtx, Collection<RequestMappingHandlerMapping> handlerMappings, Object controller, ProjectConfiguration projectConfiguration, HandlerCounts handlerCounts, List<MethodInterceptor> projectInterceptors)
     {
-        final Object wrappedController = wrapController(controller);
-
         final List<RequestMapping> result = new LinkedList<>();
 
         final Class<?> userType = ClassUtils.getUserClass(controller.getClass());
 
+        final Map<Method, RequestMappingInfo> methods = getMappings(projectCtx, projectConfiguration, userType);
+
+        if (endpointMetrics != null)
+        {
+            final String alias = projectConfiguration.getPath().getFileName().toString();
+            methods.forEach((method, mapping) -> endpointMetrics.register(projectCtx, alias, method, mapping.getPatternValues()));
+        }
+
+        if (projectCtx.containsLocalBean(ProjectActivity.BEAN_NAME))
+        {
+            final ProjectActivity activity = projectCtx.getBean(ProjectActivity.BEAN_NAME, ProjectActivity.class);
+            methods.keySet().forEach(method -> projectActivity.register(projectCtx, method, activity));
+        }
+
+        // Only methods with applicable advice, or of a project with interceptors of its own, are invoked through a proxy
+        final List<Advisor> advisors = advisorCache.getAdvisors(userType);
+        final Map<Method, Object> handlers = new HashMap<>();
+        Object proxy = null;
+        for (final Method method : methods.keySet())
+        {
+            final boolean advised = !projectInterceptors.isEmpty() || isAdvised(advisors, userType, method);
+            if (advised && proxy == null)
+            {
+                proxy = createAOPProxyWithInterceptorsAndAdvisors(projectInterceptors, methodInterceptors, advisors, controller);
+            }
+            handlers.put(method, advised ? proxy : controller);
+            handlerCounts.increment(advised);
+        }
+
+        handlerMappings.forEach(handlerMapping -> methods.forEach((method, mapping) -> result.add(doRegister(projectCtx, handlerMapping, handlers.get(method), method, mapping))));
+        return result;
+    }
+
+    /**
+     * The request mappings of the controller are restored from the snapshot of the project, if present, and otherwise
+     * computed from the annotations of the controller and recorded into the snapshot. Controllers with routes that
+     * depend on the properties of the project are recorded, so a change to the properties loads the project again
+     */
+    private Map<Method, RequestMappingInfo> getMappings(final AnnotationConfigApplicationContext projectCtx, final ProjectConfiguration projectConfiguration, final Class<?> userType)
+    {
+        final ProjectSnapshot snapshot = projectCtx.containsLocalBean(ProjectSnapshot.BEAN_NAME) ? projectCtx.getBean(ProjectSnapshot.BEAN_NAME, ProjectSnapshot.class) : null;
+        final List<ProjectSnapshot.MappingSnapshot> stored = snapshot != null ? snapshot.getRequestMappings(userType.getName()).orElse(null) : null;
+        if (stored != null)
+        {
+            final Map<Method, RequestMappingInfo> restored = RequestMappingInfoUtil.fromSnapshot(userType, stored);
+            if (restored != null)
+            {
+                return restored;
+            }
+        }
+
+        final PropertyResolver propertyResolver = projectCtx.getEnvironment();
         final Map<Method, RequestMappingInfo> methods = MethodIntrospector.selectMethods(userType, (MethodIntrospector.MetadataLookup<RequestMappingInfo>) method ->
                 {
                     try
@@ -87,20 +159,50 @@ public class ProjectSetupService implements ApplicationListener<ProjectLoadedEve
                 }
         );
 
-        handlerMappings.forEach(handlerMapping -> methods.forEach((method, mapping) -> result.add(doRegister(handlerMapping, wrappedController, method, mapping))));
-        return result;
+        final PlaceholderRoutes placeholderRoutes = projectCtx.containsLocalBean(PlaceholderRoutes.BEAN_NAME) ? projectCtx.getBean(PlaceholderRoutes.BEAN_NAME, PlaceholderRoutes.class) : null;
+        final boolean hasPlaceholders = (snapshot != null || placeholderRoutes != null) && RequestMappingInfoUtil.hasPlaceholders(userType, methods.keySet());
+        if (hasPlaceholders && placeholderRoutes != null)
+        {
+            placeholderRoutes.add(userType.getName());
+        }
+
+        if (snapshot != null && !hasPlaceholders)
+        {
+            snapshot.putRequestMappings(userType.getName(), methods.entrySet()
+                    .stream()
+                    .map(e -> RequestMappingInfoUtil.toSnapshot(e.getKey(), e.getValue()))
+                    .toList());
+        }
+        return methods;
     }
 
-    private Object wrapController(final Object controller)
+    private boolean isAdvised(final List<Advisor> advisors, final Class<?> targetClass, final Method method)
     {
-        final BeanFactoryAspectJAdvisorsBuilder advisorsBuilder = new BeanFactoryAspectJAdvisorsBuilder(beanFactory);
-        final List<Advisor> advisors = advisorsBuilder.buildAspectJAdvisors();
-        return createAOPProxyWithInterceptorsAndAdvisors(methodInterceptors, advisors, controller);
+        if (!methodInterceptors.isEmpty())
+        {
+            return true;
+        }
+
+        for (final Advisor advisor : advisors)
+        {
+            if (!(advisor instanceof PointcutAdvisor pointcutAdvisor))
+            {
+                // Introductions and other advisors apply to the class as a whole
+                return true;
+            }
+
+            final Pointcut pointcut = pointcutAdvisor.getPointcut();
+            if (pointcut.getClassFilter().matches(targetClass) && pointcut.getMethodMatcher().matches(method, targetClass))
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private RequestMapping doRegister(final RequestMappingHandlerMapping handlerMapping, final Object object, final Method m, final RequestMappingInfo mappingToUse)
+    private RequestMapping doRegister(final AnnotationConfigApplicationContext projectCtx, final RequestMappingHandlerMapping handlerMapping, final Object object, final Method m, final RequestMappingInfo mapping)
     {
-
+        final RequestMappingInfo mappingToUse = RequestMappingInfoUtil.withOptions(mapping, handlerMapping.getBuilderConfiguration());
         final Set<HttpMethod> methods = mappingToUse.getMethodsCondition().getMethods().stream().map(method -> HttpMethod.parse(method.name())).collect(Collectors.toSet());
         final Set<String> patterns = mappingToUse.getPatternValues();
         final Set<String> consumes = mappingToUse.getConsumesCondition().getConsumableMediaTypes().stream().map(MimeType::toString).collect(Collectors.toSet());
@@ -109,16 +211,19 @@ public class ProjectSetupService implements ApplicationListener<ProjectLoadedEve
         logger.info("Registering {}", mappingToUse);
         handlerMapping.unregisterMapping(mappingToUse);
         handlerMapping.registerMapping(mappingToUse, object, m);
+        routeRegistry.register(projectCtx, handlerMapping, mappingToUse, object, m);
 
         return new RequestMapping(patterns, methods, consumes, produces);
     }
 
-    private Object createAOPProxyWithInterceptorsAndAdvisors(final List<MethodInterceptor> methodInterceptors, final List<Advisor> advisors, Object controller)
+    private Object createAOPProxyWithInterceptorsAndAdvisors(final List<MethodInterceptor> projectInterceptors, final List<MethodInterceptor> methodInterceptors, final List<Advisor> advisors, Object controller)
     {
         final ProxyFactoryBean proxyFactoryBean = new ProxyFactoryBean();
         proxyFactoryBean.setProxyTargetClass(true);
         proxyFactoryBean.setProxyClassLoader(controller.getClass().getClassLoader());
         proxyFactoryBean.setTargetSource(new SingletonTargetSource(controller));
+        // Outermost, so requests over the concurrency limit are rejected before any other advice runs
+        projectInterceptors.forEach(proxyFactoryBean::addAdvice);
         proxyFactoryBean.addAdvisors(advisors);
         methodInterceptors.forEach(proxyFactoryBean::addAdvice);
         return proxyFactoryBean.getObject();
@@ -130,16 +235,42 @@ public class ProjectSetupService implements ApplicationListener<ProjectLoadedEve
         final AnnotationConfigApplicationContext projectCtx = event.getProjectContext();
         final ProjectConfiguration projectCfg = event.getProjectConfiguration();
 
-        final List<RequestMappingHandlerMapping> handlerMappings = ProjectCleanupService.getMappingHandler(event);
+        // With a dedicated handler mapping the routes are added to a new mapping for the project
+        final RequestMappingHandlerMapping projectMapping = lamebdaHandlerMapping != null ? lamebdaHandlerMapping.createProjectMapping() : null;
+        final List<RequestMappingHandlerMapping> handlerMappings = projectMapping != null ? List.of(projectMapping) : ProjectCleanupService.getMappingHandler(event);
+
+        final List<MethodInterceptor> projectInterceptors = new ArrayList<>(1);
+        final Bulkhead bulkhead = bulkheads.register(projectCtx, projectCfg);
+        if (bulkhead != null)
+        {
+            projectInterceptors.add(new BulkheadInterceptor(bulkhead));
+        }
 
         // Register controller beans
         final SortedSet<RequestMapping> allMappings = new TreeSet<>();
+        final HandlerCounts handlerCounts = new HandlerCounts();
         projectCtx.getBeansWithAnnotation(Controller.class).forEach((beanName, controller) ->
         {
-            final List<RequestMapping> mappings = register(projectCtx.getEnvironment(), handlerMappings, controller, projectCfg);
+            final List<RequestMapping> mappings = register(projectCtx, handlerMappings, controller, projectCfg, handlerCounts, projectInterceptors);
             allMappings.addAll(mappings);
         });
 
-        event.getProjectContext().registerBean("_all_mappings", Set.class, () -> allMappings);
+        if (projectMapping != null)
+        {
+            lamebdaHandlerMapping.register(projectCtx, projectCfg.getRootContextPath() + "/" + projectCfg.getContextPath(), projectMapping);
+        }
+
+        if (projectCtx.containsBeanDefinition("_all_mappings"))
+        {
+            // Mappings are registered again when a failed replacement of the project is rolled back
+            projectCtx.removeBeanDefinition("_all_mappings");
+        }
+        projectCtx.registerBean("_all_mappings", Set.class, () -> allMappings);
+
+        if (projectCtx.containsBeanDefinition("_handler_counts"))
+        {
+            projectCtx.removeBeanDefinition("_handler_counts");
+        }
+        projectCtx.registerBean("_handler_counts", HandlerCounts.class, () -> handlerCounts);
     }
 }
@@ -23,15 +23,26 @@ package com.ethlo.lamebda.spring;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.env.PropertyResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 import com.ethlo.lamebda.ProjectConfiguration;
+import com.ethlo.lamebda.cache.ProjectSnapshot;
 
 public class RequestMappingInfoUtil
 {
@@ -70,6 +81,30 @@ public class RequestMappingInfoUtil
         return null;
     }
 
+    /**
+     * @param mapping The request mapping
+     * @param options The configuration of the handler mapping the request mapping is registered in
+     * @return The request mapping, with its patterns and produced media types resolved as configured for the handler
+     * mapping, so the path matching and content negotiation of the handler mapping apply to it
+     */
+    public static RequestMappingInfo withOptions(final RequestMappingInfo mapping, final RequestMappingInfo.BuilderConfiguration options)
+    {
+        if (options.getPatternParser() == null)
+        {
+            // The handler mapping matches with a path matcher, which the project routes do not support
+            return mapping;
+        }
+
+        final RequestMappingInfo.Builder builder = mapping.mutate()
+                .options(options)
+                .paths(mapping.getPatternValues().toArray(String[]::new));
+        if (!mapping.getProducesCondition().isEmpty())
+        {
+            builder.produces(toStrings(mapping.getProducesCondition().getExpressions()).toArray(String[]::new));
+        }
+        return builder.build();
+    }
+
     private static RequestMappingInfo getMapping(AnnotatedElement userInstance, final PropertyResolver propertyResolver)
     {
         final RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(userInstance, RequestMapping.class);
@@ -89,6 +124,83 @@ public class RequestMappingInfoUtil
         return null;
     }
 
+    /**
+     * @param method  The handler method
+     * @param mapping The request mapping of the method
+     * @return The mapping, as stored in the snapshot of the project
+     */
+    public static ProjectSnapshot.MappingSnapshot toSnapshot(final Method method, final RequestMappingInfo mapping)
+    {
+        return new ProjectSnapshot.MappingSnapshot(method.getName(),
+                Arrays.stream(method.getParameterTypes()).map(Class::getName).toList(),
+                List.copyOf(mapping.getPatternValues()),
+                mapping.getMethodsCondition().getMethods().stream().map(Enum::name).toList(),
+                toStrings(mapping.getParamsCondition().getExpressions()),
+                toStrings(mapping.getHeadersCondition().getExpressions()),
+                toStrings(mapping.getConsumesCondition().getExpressions()),
+                toStrings(mapping.getProducesCondition().getExpressions()),
+                mapping.getName());
+    }
+
+    /**
+     * @param userType The controller class
+     * @param mappings The request mappings of the controller, as stored in the snapshot of the project
+     * @return The request mapping of each handler method, or null if a handler method no longer exists
+     */
+    @Nullable
+    public static Map<Method, RequestMappingInfo> fromSnapshot(final Class<?> userType, final List<ProjectSnapshot.MappingSnapshot> mappings)
+    {
+        final Map<Method, RequestMappingInfo> result = new LinkedHashMap<>();
+        for (final ProjectSnapshot.MappingSnapshot mapping : mappings)
+        {
+            final Class<?>[] parameterTypes = new Class<?>[mapping.parameterTypes().size()];
+            for (int i = 0; i < parameterTypes.length; i++)
+            {
+                parameterTypes[i] = ClassUtils.resolveClassName(mapping.parameterTypes().get(i), userType.getClassLoader());
+            }
+            final Method method = ReflectionUtils.findMethod(userType, mapping.method(), parameterTypes);
+            if (method == null)
+            {
+                return null;
+            }
+
+            final RequestMappingInfo.Builder builder = RequestMappingInfo
+                    .paths(mapping.patterns().toArray(String[]::new))
+                    .methods(mapping.methods().stream().map(RequestMethod::valueOf).toArray(RequestMethod[]::new))
+                    .params(mapping.params().toArray(String[]::new))
+                    .headers(mapping.headers().toArray(String[]::new))
+                    .consumes(mapping.consumes().toArray(String[]::new))
+                    .produces(mapping.produces().toArray(String[]::new))
+                    .options(options);
+            if (mapping.name() != null)
+            {
+                builder.mappingName(mapping.name());
+            }
+            result.put(method, builder.build());
+        }
+        return result;
+    }
+
+    /**
+     * @param userType The controller class
+     * @param methods  The handler methods of the controller
+     * @return Whether the paths of the controller use placeholders, which are resolved from the environment, so their
+     * mappings cannot be stored in the snapshot of the project
+     */
+    public static boolean hasPlaceholders(final Class<?> userType, final Collection<Method> methods)
+    {
+        return Stream.concat(Stream.of(userType), methods.stream())
+                .map(element -> AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class))
+                .filter(Objects::nonNull)
+                .flatMap(requestMapping -> Arrays.stream(requestMapping.path()))
+                .anyMatch(path -> path.contains("${"));
+    }
+
+    private static List<String> toStrings(final Collection<?> expressions)
+    {
+        return expressions.stream().map(Object::toString).toList();
+    }
+
     public static String normalizeSlashes(final String path)
     {
         return Arrays.stream(path.split("/")).filter(s -> !"".equals(s)).collect(Collectors.joining("/"));
@@ -0,0 +1,125 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.ethlo.lamebda.metrics.EndpointMetrics;
+import com.ethlo.lamebda.metrics.EndpointMetricsRegistry;
+
+class EndpointMetricsInterceptorTest
+{
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EndpointMetricsRegistry endpointMetrics = new EndpointMetricsRegistry(meterRegistry);
+    private final EndpointMetricsInterceptor interceptor = new EndpointMetricsInterceptor(endpointMetrics);
+
+    @Test
+    void recordsRequestsToProjectRoutes() throws Exception
+    {
+        final HandlerMethod handler = register();
+        handle(handler, 200, null);
+        handle(handler, 500, null);
+        handle(handler, 200, new IllegalStateException("Broken"));
+
+        assertThat(meterRegistry.get(EndpointMetrics.REQUESTS).tag("uri", "/gateway/p1/hello").tag("method", "GET").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(EndpointMetrics.ERRORS).tag("method", "GET").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(EndpointMetrics.ACTIVE).gauge().value()).isZero();
+    }
+
+    @Test
+    void asynchronousRequestIsActiveUntilCompleted() throws Exception
+    {
+        final HandlerMethod handler = register();
+        final MockHttpServletRequest request = request();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+        assertThat(meterRegistry.get(EndpointMetrics.ACTIVE).gauge().value()).isEqualTo(1);
+
+        // Resumed on another dispatch
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(meterRegistry.get(EndpointMetrics.ACTIVE).gauge().value()).isZero();
+        assertThat(meterRegistry.get(EndpointMetrics.REQUESTS).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresOtherHandlers() throws Exception
+    {
+        register();
+        final HandlerMethod other = new HandlerMethod(new Controller(), Controller.class.getMethod("goodbye"));
+
+        handle(other, 200, null);
+
+        assertThat(meterRegistry.get(EndpointMetrics.ACTIVE).gauge().value()).isZero();
+        assertThat(meterRegistry.find(EndpointMetrics.REQUESTS).timer()).isNull();
+    }
+
+    private HandlerMethod register() throws NoSuchMethodException
+    {
+        final Method method = Controller.class.getMethod("hello");
+        endpointMetrics.register(new GenericApplicationContext(), "p1", method, List.of("/gateway/p1/hello"));
+        return new HandlerMethod(new Controller(), method);
+    }
+
+    private void handle(final HandlerMethod handler, final int status, final Exception failure) throws Exception
+    {
+        final MockHttpServletRequest request = request();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        response.setStatus(status);
+        interceptor.afterCompletion(request, response, handler, failure);
+    }
+
+    private static MockHttpServletRequest request()
+    {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/gateway/p1/hello");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/gateway/p1/hello");
+        return request;
+    }
+
+    public static class Controller
+    {
+        public String hello()
+        {
+            return "hello";
+        }
+
+        public String goodbye()
+        {
+            return "goodbye";
+        }
+    }
+}
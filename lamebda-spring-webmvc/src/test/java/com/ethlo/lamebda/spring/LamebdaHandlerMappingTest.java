@@ -0,0 +1,175 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+class LamebdaHandlerMappingTest
+{
+    private static final String ORIGIN = "https://example.com";
+
+    private final StaticWebApplicationContext parentContext = new StaticWebApplicationContext();
+
+    @BeforeEach
+    void createParentContext()
+    {
+        parentContext.setServletContext(new MockServletContext());
+        parentContext.registerSingleton("applicationController", ApplicationController.class);
+        parentContext.refresh();
+    }
+
+    @AfterEach
+    void closeParentContext()
+    {
+        parentContext.close();
+    }
+
+    @Test
+    void appliesTheCorsConfigurationOfTheApplication() throws Exception
+    {
+        final CorsConfiguration cors = new CorsConfiguration();
+        cors.addAllowedOrigin(ORIGIN);
+        final LamebdaHandlerMapping handlerMapping = serveProject(applicationMapping(mapping -> mapping.setCorsConfigurations(Map.of("/**", cors))));
+
+        final MockHttpServletRequest request = request("/gateway/p1/hello");
+        request.addHeader(HttpHeaders.ORIGIN, ORIGIN);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final HandlerExecutionChain chain = handlerMapping.getHandler(request);
+
+        assertThat(chain).isNotNull();
+        assertThat(preHandle(chain, request, response)).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo(ORIGIN);
+    }
+
+    @Test
+    void withoutCorsConfigurationNoCorsHeadersAreAdded() throws Exception
+    {
+        final LamebdaHandlerMapping handlerMapping = serveProject(applicationMapping(mapping -> {}));
+
+        final MockHttpServletRequest request = request("/gateway/p1/hello");
+        request.addHeader(HttpHeaders.ORIGIN, ORIGIN);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final HandlerExecutionChain chain = handlerMapping.getHandler(request);
+
+        assertThat(chain).isNotNull();
+        preHandle(chain, request, response);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isNull();
+    }
+
+    @Test
+    void appliesThePathMatchingOfTheApplication() throws Exception
+    {
+        final PathPatternParser caseInsensitive = new PathPatternParser();
+        caseInsensitive.setCaseSensitive(false);
+
+        assertThat(serveProject(applicationMapping(mapping -> {})).getHandler(request("/gateway/p1/HELLO"))).isNull();
+        assertThat(serveProject(applicationMapping(mapping -> mapping.setPatternParser(caseInsensitive))).getHandler(request("/gateway/p1/HELLO"))).isNotNull();
+    }
+
+    @Test
+    void doesNotServeTheHandlersOfTheApplication() throws Exception
+    {
+        final LamebdaHandlerMapping handlerMapping = serveProject(applicationMapping(mapping -> {}));
+
+        assertThat(handlerMapping.getHandler(request("/gateway/p1/application"))).isNull();
+        assertThat(handlerMapping.getHandler(request("/gateway/p1/hello"))).isNotNull();
+    }
+
+    private RequestMappingHandlerMapping applicationMapping(final Consumer<RequestMappingHandlerMapping> customizer)
+    {
+        final RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+        customizer.accept(mapping);
+        mapping.setApplicationContext(parentContext);
+        mapping.afterPropertiesSet();
+        return mapping;
+    }
+
+    private LamebdaHandlerMapping serveProject(final RequestMappingHandlerMapping applicationMapping) throws NoSuchMethodException
+    {
+        final LamebdaHandlerMapping handlerMapping = new LamebdaHandlerMapping(parentContext);
+        handlerMapping.setApplicationMapping(applicationMapping);
+        final RequestMappingHandlerMapping projectMapping = handlerMapping.createProjectMapping();
+        final RequestMappingInfo info = RequestMappingInfoUtil.withOptions(RequestMappingInfo.paths("/gateway/p1/hello").methods(RequestMethod.GET).build(), projectMapping.getBuilderConfiguration());
+        projectMapping.registerMapping(info, new ProjectController(), ProjectController.class.getMethod("hello"));
+        handlerMapping.register(new GenericApplicationContext(), "/gateway/p1", projectMapping);
+        return handlerMapping;
+    }
+
+    private static boolean preHandle(final HandlerExecutionChain chain, final MockHttpServletRequest request, final MockHttpServletResponse response) throws Exception
+    {
+        for (final HandlerInterceptor interceptor : chain.getInterceptorList())
+        {
+            if (!interceptor.preHandle(request, response, chain.getHandler()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MockHttpServletRequest request(final String path)
+    {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        ServletRequestPathUtils.parseAndCache(request);
+        return request;
+    }
+
+    public static class ProjectController
+    {
+        public String hello()
+        {
+            return "hello";
+        }
+    }
+
+    @RestController
+    public static class ApplicationController
+    {
+        @GetMapping("/gateway/p1/application")
+        public String application()
+        {
+            return "application";
+        }
+    }
+}
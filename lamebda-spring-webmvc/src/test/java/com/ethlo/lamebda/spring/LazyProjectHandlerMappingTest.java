@@ -0,0 +1,118 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import com.ethlo.lamebda.Project;
+import com.ethlo.lamebda.ProjectConfiguration;
+import com.ethlo.lamebda.ProjectManager;
+import com.ethlo.lamebda.lifecycle.ProjectDeferredEvent;
+import com.ethlo.lamebda.mapping.DeferredProjectMappings;
+
+class LazyProjectHandlerMappingTest
+{
+    private final ProjectManager projectManager = mock(ProjectManager.class);
+    private final DeferredProjectMappings deferredProjects = new DeferredProjectMappings();
+    private final LazyProjectHandlerMapping handlerMapping = new LazyProjectHandlerMapping(projectManager, deferredProjects, Duration.ofMillis(100));
+
+    @BeforeEach
+    void deferProject()
+    {
+        final ProjectConfiguration cfg = mock(ProjectConfiguration.class);
+        when(cfg.getPath()).thenReturn(Path.of("p1"));
+        when(cfg.getRootContextPath()).thenReturn("/gateway");
+        when(cfg.getContextPath()).thenReturn("p1");
+        deferredProjects.onApplicationEvent(new ProjectDeferredEvent("p1", cfg));
+    }
+
+    @Test
+    void requestToAnotherPathDoesNotLoad()
+    {
+        assertThat(handlerMapping.getHandler(request("/other/hello"))).isNull();
+        verify(projectManager, never()).ensureLoaded(anyString());
+    }
+
+    @Test
+    void requestWaitsForTheLoadAndIsServedByTheProject()
+    {
+        when(projectManager.ensureLoaded("p1")).thenReturn(CompletableFuture.completedFuture(mock(Project.class)));
+
+        assertThat(handlerMapping.getHandler(request("/gateway/p1/hello"))).isNull();
+        verify(projectManager).ensureLoaded("p1");
+    }
+
+    @Test
+    void requestIsRejectedWhenTheLoadTakesLongerThanTheTimeout()
+    {
+        when(projectManager.ensureLoaded("p1")).thenReturn(new CompletableFuture<>());
+
+        final long start = System.nanoTime();
+        assertThatThrownBy(() -> handlerMapping.getHandler(request("/gateway/p1/hello")))
+                .isInstanceOfSatisfying(ResponseStatusException.class, exc -> assertThat(exc.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .hasMessageContaining("still loading");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(deferredProjects.find("/gateway/p1/hello")).isEqualTo("p1");
+    }
+
+    @Test
+    void requestIsRejectedWhenTheLoadFails()
+    {
+        when(projectManager.ensureLoaded("p1")).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broken")));
+
+        assertThatThrownBy(() -> handlerMapping.getHandler(request("/gateway/p1/hello")))
+                .isInstanceOfSatisfying(ResponseStatusException.class, exc -> assertThat(exc.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .hasMessageContaining("could not be loaded");
+    }
+
+    @Test
+    void projectThatIsNoLongerDeferredIsForgotten()
+    {
+        when(projectManager.ensureLoaded("p1")).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(handlerMapping.getHandler(request("/gateway/p1/hello"))).isNull();
+        assertThat(deferredProjects.find("/gateway/p1/hello")).isNull();
+    }
+
+    private static MockHttpServletRequest request(final String path)
+    {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        ServletRequestPathUtils.parseAndCache(request);
+        return request;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.ethlo.lamebda.lifecycle.ProjectActivity;
+
+class ProjectActivityInterceptorTest
+{
+    private static final long IDLE_TIMEOUT_MILLIS = 1_000;
+
+    private final ProjectActivityInterceptor interceptor = new ProjectActivityInterceptor();
+    private final ProjectActivity activity = new ProjectActivity("p1");
+    private final HandlerMethod handler = handlerMethod();
+
+    ProjectActivityInterceptorTest()
+    {
+        interceptor.register(new GenericApplicationContext(), handler.getMethod(), activity);
+        activity.loaded(IDLE_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    void requestIsTrackedUntilCompleted() throws Exception
+    {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/gateway/p1/hello");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, handler)).isTrue();
+        assertThat(activity.closing(idle())).isFalse();
+
+        interceptor.afterCompletion(request, response, handler, null);
+        assertThat(activity.closing(idle())).isTrue();
+    }
+
+    @Test
+    void requestRacingTheEvictionIsForwardedOnceTheProjectIsClosed() throws Exception
+    {
+        assertThat(activity.closing(idle())).isTrue();
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/gateway/p1/hello");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final CompletableFuture<Boolean> handled = CompletableFuture.supplyAsync(() -> preHandle(request, response));
+        Thread.sleep(100);
+        assertThat(handled).isNotDone();
+
+        activity.evicted();
+        assertThat(handled.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(response.getForwardedUrl()).isEqualTo("/gateway/p1/hello");
+    }
+
+    @Test
+    void forwardedRequestThatIsRejectedAgainFails()
+    {
+        assertThat(activity.closing(idle())).isTrue();
+        activity.evicted();
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/gateway/p1/hello");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(preHandle(request, response)).isFalse();
+
+        assertThatThrownBy(() -> interceptor.preHandle(request, new MockHttpServletResponse(), handler))
+                .isInstanceOfSatisfying(ResponseStatusException.class, exc -> assertThat(exc.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    private boolean preHandle(final MockHttpServletRequest request, final MockHttpServletResponse response)
+    {
+        try
+        {
+            return interceptor.preHandle(request, response, handler);
+        }
+        catch (Exception exc)
+        {
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    private static long idle()
+    {
+        return System.currentTimeMillis() + 2 * IDLE_TIMEOUT_MILLIS;
+    }
+
+    private static HandlerMethod handlerMethod()
+    {
+        try
+        {
+            final Method method = Controller.class.getMethod("hello");
+            return new HandlerMethod(new Controller(), method);
+        }
+        catch (NoSuchMethodException exc)
+        {
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    public static class Controller
+    {
+        public String hello()
+        {
+            return "hello";
+        }
+    }
+}
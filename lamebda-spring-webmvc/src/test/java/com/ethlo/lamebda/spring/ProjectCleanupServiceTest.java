@@ -0,0 +1,138 @@
+package com.ethlo.lamebda.spring;
+
+/*-
+ * #%L
+ * Lamebda Spring WebMvc
+ * %%
+ * Copyright (C) 2018 - 2026 Morten Haraldsen (ethlo)
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import com.ethlo.lamebda.ProjectConfiguration;
+import com.ethlo.lamebda.bulkhead.BulkheadRegistry;
+import com.ethlo.lamebda.lifecycle.ProjectClosingEvent;
+import com.ethlo.lamebda.mapping.RouteRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProjectCleanupServiceTest
+{
+    private final StaticWebApplicationContext parentContext = new StaticWebApplicationContext();
+    private final RequestMappingHandlerMapping handlerMapping = new RequestMappingHandlerMapping();
+    private final RouteRegistry<RequestMappingHandlerMapping, RequestMappingInfo> routeRegistry = new RouteRegistry<>();
+    private final ProjectCleanupService cleanupService = new ProjectCleanupService(routeRegistry, null, null, new BulkheadRegistry(new SimpleMeterRegistry()), new ProjectActivityInterceptor());
+    private final AnnotationConfigApplicationContext current = new AnnotationConfigApplicationContext();
+    private final AnnotationConfigApplicationContext replacement = new AnnotationConfigApplicationContext();
+
+    @BeforeEach
+    void createHandlerMapping()
+    {
+        parentContext.setServletContext(new MockServletContext());
+        parentContext.refresh();
+        handlerMapping.setApplicationContext(parentContext);
+        handlerMapping.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void closeContexts()
+    {
+        parentContext.close();
+    }
+
+    @Test
+    void failedReplacementGivesItsRoutesBackToTheCurrentVersion() throws Exception
+    {
+        final Controller currentController = new Controller();
+        final Controller replacementController = new Controller();
+        register(current, "/gateway/p1/hello", currentController);
+        register(replacement, "/gateway/p1/hello", replacementController);
+        register(replacement, "/gateway/p1/added", replacementController);
+        assertThat(handlerFor("/gateway/p1/hello")).isSameAs(replacementController);
+
+        // Activating the replacement failed, so it is closed while the current version is kept
+        cleanupService.onApplicationEvent(new ProjectClosingEvent(configuration(), replacement));
+
+        assertThat(handlerFor("/gateway/p1/hello")).isSameAs(currentController);
+        assertThat(handlerFor("/gateway/p1/added")).isNull();
+    }
+
+    @Test
+    void replacedVersionOnlyRemovesTheRoutesItStillOwns() throws Exception
+    {
+        final Controller currentController = new Controller();
+        final Controller replacementController = new Controller();
+        register(current, "/gateway/p1/hello", currentController);
+        register(current, "/gateway/p1/removed", currentController);
+        register(replacement, "/gateway/p1/hello", replacementController);
+
+        cleanupService.onApplicationEvent(new ProjectClosingEvent(configuration(), current));
+
+        assertThat(handlerFor("/gateway/p1/hello")).isSameAs(replacementController);
+        assertThat(handlerFor("/gateway/p1/removed")).isNull();
+    }
+
+    private void register(final AnnotationConfigApplicationContext projectCtx, final String path, final Controller controller) throws NoSuchMethodException
+    {
+        final Method method = Controller.class.getMethod("hello");
+        final RequestMappingInfo info = RequestMappingInfoUtil.withOptions(RequestMappingInfo.paths(path).methods(RequestMethod.GET).build(), handlerMapping.getBuilderConfiguration());
+        handlerMapping.unregisterMapping(info);
+        handlerMapping.registerMapping(info, controller, method);
+        routeRegistry.register(projectCtx, handlerMapping, info, controller, method);
+    }
+
+    private Object handlerFor(final String path) throws Exception
+    {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        ServletRequestPathUtils.parseAndCache(request);
+        final HandlerExecutionChain chain = handlerMapping.getHandler(request);
+        return chain != null ? ((HandlerMethod) chain.getHandler()).getBean() : null;
+    }
+
+    private static ProjectConfiguration configuration()
+    {
+        final ProjectConfiguration configuration = mock(ProjectConfiguration.class);
+        when(configuration.getPath()).thenReturn(Path.of("p1"));
+        return configuration;
+    }
+
+    public static class Controller
+    {
+        public String hello()
+        {
+            return "hello";
+        }
+    }
+}